@@ -0,0 +1,63 @@
+package org.example;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Random;
+
+/**
+ * Builds games in a fixed state for the benchmarks.
+ */
+final class BenchmarkGames {
+
+    /**
+     * The game's collision masks, loaded from the assets in the working directory (or the pack
+     * -Dcrossey.assets names), so run the benchmarks from the project directory.
+     */
+    static final CollisionMasks MASKS = loadMasks();
+
+    private BenchmarkGames() {}
+
+    private static CollisionMasks loadMasks() {
+        try {
+            return CollisionMasks.load(AssetSource.open());
+        } catch (IOException e) {
+            throw new UncheckedIOException("The benchmarks collide with the game's sprites; run them from the project directory", e);
+        }
+    }
+
+    /**
+     * A game on the given level with at least the given number of obstacles. Extra obstacles are
+     * spread over the lanes above the player's start so the player is never hit, and have the
+     * size the level spawns them at.
+     */
+    static GameSimulation level(int level, int obstacles) {
+        GameSimulation game = new GameSimulation(42, 60, Difficulty.DEFAULT, GameMode.LEVELS, InputSource.NONE, MASKS);
+        game.stopCountdown();  // So the game never ends mid-measurement
+        game.loadLevel(level);
+        ObstacleStore store = game.getObstacles();
+        Random rand = new Random(7);
+        while (store.size() < obstacles) {
+            int x = rand.nextInt(GameSimulation.WIDTH);
+            int y = 150 + rand.nextInt(300);
+            store.add(x, y, obstacleWidth(level), obstacleHeight(level), rand.nextInt(4));
+        }
+        return game;
+    }
+
+    static int obstacleWidth(int level) {
+        return level == 2 ? GameSimulation.TRAIN_WIDTH : GameSimulation.CAR_WIDTH;
+    }
+
+    static int obstacleHeight(int level) {
+        return level == 2 ? GameSimulation.TRAIN_HEIGHT : GameSimulation.CAR_HEIGHT;
+    }
+
+    /**
+     * An endless game with the player standing on the checkpoint lane nearest the given row.
+     */
+    static GameSimulation endless(int row) {
+        GameSimulation game = new GameSimulation(42, 60, Difficulty.DEFAULT, GameMode.ENDLESS, InputSource.NONE, MASKS);
+        game.skipToRow(row - row % EndlessTrack.CHUNK_LANES);  // Grass, so the player is never hit
+        return game;
+    }
+}
@@ -0,0 +1,48 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Runs the benchmarks with the usual JMH command line, writing JSON results by default so runs
+ * can be compared across commits. Unless -rf or -rff is given, results go to
+ * benchmarks/results/&lt;label&gt;.json, where the label is -Dbench.label or the current git commit.
+ */
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws Exception {
+        List<String> jmhArgs = new ArrayList<>(Arrays.asList(args));
+        if (!jmhArgs.contains("-rf") && !jmhArgs.contains("-rff")) {
+            File results = new File("benchmarks/results");
+            results.mkdirs();
+            String label = System.getProperty("bench.label", gitCommit());
+            jmhArgs.addAll(0, List.of("-rf", "json", "-rff", new File(results, label + ".json").getPath()));
+        }
+        org.openjdk.jmh.Main.main(jmhArgs.toArray(new String[0]));
+    }
+
+    /**
+     * Short hash of the checked out commit, or "local" if git isn't available.
+     */
+    private static String gitCommit() {
+        try {
+            Process git = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            try (InputStream in = git.getInputStream()) {
+                String hash = new String(in.readAllBytes(), StandardCharsets.UTF_8).trim();
+                if (git.waitFor() == 0 && !hash.isEmpty()) {
+                    return hash;
+                }
+            }
+        } catch (IOException e) {
+            // Not a git checkout, fall through
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "local";
+    }
+}
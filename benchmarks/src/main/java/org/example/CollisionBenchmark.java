@@ -0,0 +1,65 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A player-sized collision query against the obstacles at random spots over the playing field:
+ * the lane index with the cat's mask tested against each obstacle whose box it overlaps, as the
+ * game does it, the lane index's boxes alone, and every obstacle's box checked in turn. Run it
+ * from the project directory so the sprites for the masks can be loaded.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CollisionBenchmark {
+
+    private static final int QUERIES = 1024;  // Power of two, cycled through with a mask
+
+    @Param({"15", "1000", "100000"})
+    int obstacles;
+
+    private ObstacleStore store;
+    private final CollisionMasks masks = BenchmarkGames.MASKS;
+    private final int[] queryX = new int[QUERIES], queryY = new int[QUERIES];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        store = BenchmarkGames.level(1, obstacles).getObstacles();
+        Random rand = new Random(11);
+        for (int i = 0; i < QUERIES; i++) {
+            queryX[i] = rand.nextInt(GameSimulation.WIDTH - GameSimulation.PLAYER_WIDTH);
+            queryY[i] = rand.nextInt(GameSimulation.HEIGHT - GameSimulation.PLAYER_HEIGHT);
+        }
+    }
+
+    @Benchmark
+    public int laneIndex() {
+        int q = next++ & (QUERIES - 1);
+        return store.firstHit(queryX[q], queryY[q], masks.cats[0], masks.obstacles(1));
+    }
+
+    @Benchmark
+    public int laneIndexBoxes() {
+        int q = next++ & (QUERIES - 1);
+        return store.firstHit(queryX[q], queryY[q], GameSimulation.PLAYER_WIDTH, GameSimulation.PLAYER_HEIGHT);
+    }
+
+    @Benchmark
+    public int linearScan() {
+        int q = next++ & (QUERIES - 1);
+        for (int i = 0; i < store.size(); i++) {
+            if (LaneIndex.intersects(queryX[q], queryY[q], GameSimulation.PLAYER_WIDTH, GameSimulation.PLAYER_HEIGHT,
+                    store.getX(i), store.getY(i), store.getWidth(i), store.getHeight(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+}
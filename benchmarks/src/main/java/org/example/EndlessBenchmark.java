@@ -0,0 +1,33 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One endless mode step at different distances from the start; the cost should not grow with it.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EndlessBenchmark {
+
+    @Param({"0", "100000", "10000000"})
+    int row;
+
+    private GameSimulation game;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkGames.endless(row);
+    }
+
+    @Benchmark
+    public long step() {
+        game.step();
+        return game.getTick();
+    }
+}
@@ -0,0 +1,33 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Setting up a level: resetting the player and creating its obstacles and power-ups.
+ * Cycles through the three levels so each kind of level is included.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LevelTransitionBenchmark {
+
+    private GameSimulation game;
+    private int level = 0;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkGames.level(1, 0);
+    }
+
+    @Benchmark
+    public int loadLevel() {
+        level = level % GameSimulation.LAST_LEVEL + 1;
+        game.loadLevel(level);
+        return game.getObstacles().size() + game.getPowerUps().size();
+    }
+}
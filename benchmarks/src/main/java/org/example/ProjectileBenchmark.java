@@ -0,0 +1,48 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation step with many projectiles in flight over 1000 obstacles. Before each step the
+ * shots and obstacles used up by the previous one are replaced, so every step moves and tests
+ * the same number of projectiles. Run with -prof gc to check that it allocates nothing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProjectileBenchmark {
+
+    private static final int OBSTACLES = 1000;
+
+    @Param({"1", "64", "256"})
+    int projectiles;
+
+    private GameSimulation game;
+    private final Random rand = new Random(11);
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkGames.level(1, OBSTACLES);
+    }
+
+    @Benchmark
+    public long step() {
+        ObstacleStore store = game.getObstacles();
+        while (store.size() < OBSTACLES) {
+            store.add(rand.nextInt(GameSimulation.WIDTH), 150 + rand.nextInt(300),
+                    BenchmarkGames.obstacleWidth(1), BenchmarkGames.obstacleHeight(1), rand.nextInt(4));
+        }
+        ProjectilePool pool = game.getProjectiles();
+        while (pool.size() < projectiles) {
+            pool.add(rand.nextInt(GameSimulation.WIDTH), 120 + rand.nextInt(480), rand.nextInt(3) - 1);
+        }
+        game.step();
+        return game.getTick();
+    }
+}
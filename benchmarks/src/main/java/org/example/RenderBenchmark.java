@@ -0,0 +1,59 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Drawing a whole frame of each level into an offscreen image, in a headless JVM, at full
+ * quality and at the cheapest {@link QualityTier}.
+ * Run from the repository root so the images are found; missing images are skipped, which
+ * makes the frame cheaper, so a run from elsewhere isn't comparable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+@State(Scope.Thread)
+public class RenderBenchmark {
+
+    @Param({"1", "2", "3"})
+    int level;
+
+    @Param({"15", "1000"})
+    int obstacles;
+
+    @Param({"FULL", "HALF_RESOLUTION"})
+    String quality;
+
+    private GameRenderer renderer;
+    private BufferedImage frame;
+    private Graphics2D g;
+
+    @Setup
+    public void setUp() {
+        GameSimulation game = BenchmarkGames.level(level, obstacles);
+        renderer = new GameRenderer(game, null, new Color(238, 238, 238));
+        renderer.loadAll();
+        QualityTier tier = QualityTier.valueOf(quality);
+        renderer.setQuality(tier);
+        frame = new BufferedImage((int) Math.round(GameSimulation.WIDTH * tier.renderScale),
+                (int) Math.round(GameSimulation.HEIGHT * tier.renderScale), BufferedImage.TYPE_INT_RGB);
+        g = frame.createGraphics();
+        g.scale(tier.renderScale, tier.renderScale);  // As BackBuffer does
+    }
+
+    @TearDown
+    public void tearDown() {
+        g.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage drawFrame() {
+        renderer.draw(g, 0.5);
+        return frame;
+    }
+}
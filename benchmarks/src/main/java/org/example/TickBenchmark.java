@@ -0,0 +1,33 @@
+package org.example;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One simulation step: moving the obstacles, the projectiles, collisions and timers.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TickBenchmark {
+
+    @Param({"15", "1000", "100000"})
+    int obstacles;
+
+    private GameSimulation game;
+
+    @Setup
+    public void setUp() {
+        game = BenchmarkGames.level(1, obstacles);
+    }
+
+    @Benchmark
+    public long step() {
+        game.step();
+        return game.getTick();
+    }
+}
@@ -0,0 +1,91 @@
+package org.example;
+
+/**
+ * Every image and sound the game uses, with the file it comes from and, for images, the size it
+ * is drawn at. Sprite sheets are cut into frames of frameWidth x frameHeight laid out in a grid
+ * of columns x rows, and each frame is scaled to drawWidth x drawHeight; single images are a
+ * one-frame sheet. Each asset also belongs to the level that uses it, which decides how long the
+ * asset cache keeps it. The asset packer and both asset sources work from this list.
+ */
+public enum Asset {
+    ROAD_BACKGROUND(1, "highwayback.png", GameSimulation.WIDTH, GameSimulation.HEIGHT),
+    TRAIN_BACKGROUND(2, "traintracks.png", GameSimulation.WIDTH, GameSimulation.HEIGHT),
+    NEIGHBORHOOD_BACKGROUND(3, "neighborhood_background.jpg", GameSimulation.WIDTH, GameSimulation.HEIGHT),
+    HIGHWAY_SPRITES(1, "highway.png", 64, 64, 4, 1, GameRenderer.CAR_DRAW_WIDTH, GameRenderer.CAR_DRAW_HEIGHT),
+    TRAIN_SPRITES(2, "train.png", 64, 64, 4, 1, GameRenderer.TRAIN_DRAW_WIDTH, GameRenderer.TRAIN_DRAW_HEIGHT),
+    SQUIRREL_SPRITES(3, "backyard.png", 64, 64, 4, 4, GameRenderer.CAR_DRAW_WIDTH, GameRenderer.CAR_DRAW_HEIGHT),
+    YODA(Asset.EVERY_LEVEL, "yoda.png", GameSimulation.PLAYER_WIDTH, GameSimulation.PLAYER_HEIGHT),
+    ALPHA(Asset.EVERY_LEVEL, "alpha.png", GameSimulation.PLAYER_WIDTH, GameSimulation.PLAYER_HEIGHT),
+    EXPLORER(Asset.EVERY_LEVEL, "explorer.png", GameSimulation.PLAYER_WIDTH, GameSimulation.PLAYER_HEIGHT),
+    FISH_TREAT(Asset.EVERY_LEVEL, "fish_treat.png", PowerUpStore.SIZE, PowerUpStore.SIZE),
+    HOUSE(3, "house.png", GameSimulation.HOUSE_WIDTH, GameSimulation.HOUSE_HEIGHT),
+    WIN_IMAGE(3, "winimage.png", GameRenderer.WIN_IMAGE_WIDTH, GameRenderer.WIN_IMAGE_HEIGHT),
+
+    YODA_MEOW(Asset.ON_DEMAND, "Yoda2.0.wav", false),
+    ALPHA_MEOW(Asset.ON_DEMAND, "Alpha2.0.wav", false),
+    EXPLORER_MEOW(Asset.ON_DEMAND, "Explorer2.0.wav", false),
+    CAR_CRASH(Asset.EVERY_LEVEL, "carcrashing.wav", false),
+    TRAIN_LOOP(2, "train.wav", true),
+    HIGHWAY_TRAFFIC_LOOP(1, "highwaytraffic2.0.wav", true);
+
+    // Levels an asset can belong to besides 1 to 3
+    public static final int EVERY_LEVEL = 0;  // Kept loaded for the whole session
+    public static final int ON_DEMAND = -1;   // Loaded when first used, dropped first when memory is short
+
+    public final int level;    // Level that uses it, or EVERY_LEVEL or ON_DEMAND
+    public final String file;  // Source file, relative to the asset directory
+    public final boolean sound;
+    public final boolean streamed;  // Sounds only: a looping track read as it plays, not held in memory
+    public final int frameWidth, frameHeight, columns, rows;  // Images only
+    public final int drawWidth, drawHeight;
+
+    // A single image scaled to its draw size
+    Asset(int level, String file, int drawWidth, int drawHeight) {
+        this(level, file, 0, 0, 1, 1, drawWidth, drawHeight);
+    }
+
+    // A sprite sheet
+    Asset(int level, String file, int frameWidth, int frameHeight, int columns, int rows, int drawWidth, int drawHeight) {
+        this.level = level;
+        this.file = file;
+        this.sound = false;
+        this.streamed = false;
+        this.frameWidth = frameWidth;
+        this.frameHeight = frameHeight;
+        this.columns = columns;
+        this.rows = rows;
+        this.drawWidth = drawWidth;
+        this.drawHeight = drawHeight;
+    }
+
+    // A sound, kept as 16-bit stereo PCM in the audio engine's format
+    Asset(int level, String file, boolean streamed) {
+        this.level = level;
+        this.file = file;
+        this.sound = true;
+        this.streamed = streamed;
+        this.frameWidth = this.frameHeight = this.drawWidth = this.drawHeight = 0;
+        this.columns = this.rows = 0;
+    }
+
+    /**
+     * Whether this is a sheet cut into frames rather than one image scaled as a whole.
+     */
+    public boolean isSheet() {
+        return frameWidth > 0;
+    }
+
+    /**
+     * Width of the image an asset source returns: every frame side by side at its draw size.
+     */
+    public int imageWidth() {
+        return columns * drawWidth;
+    }
+
+    /**
+     * Height of the image an asset source returns.
+     */
+    public int imageHeight() {
+        return rows * drawHeight;
+    }
+}
@@ -0,0 +1,266 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Keeps the game's assets in memory only while they are needed, within a memory budget.
+ * Assets for every level, the level being played and the one after it are pinned: the next
+ * level's assets load in the background while the current one is played, and a level's assets
+ * are dropped as soon as a later level starts. On-demand assets are loaded the first time they
+ * are used and dropped least recently used first whenever the cache is over budget.
+ *
+ * <p>Lookups never block or allocate and return null for anything not loaded, so the renderer
+ * can call them every frame from any thread. Sizes are counted in heap bytes; a track streamed
+ * from a file or a mapped asset pack counts as nothing.
+ */
+public class AssetCache {
+
+    private static final Asset[] ASSETS = Asset.values();
+    private static final CompletableFuture<Void> DONE = CompletableFuture.completedFuture(null);
+
+    // What the cache knows about one asset
+    private static final class Entry {
+        final Asset asset;
+        volatile Object value;              // Frames, image, effect or track; null when not loaded
+        volatile boolean failed;            // Tried and failed; not retried, counts as loaded
+        volatile long lastUsed;             // System.nanoTime() of the last lookup
+        CompletableFuture<Void> loading;    // Load in progress, guarded by the cache
+        boolean pinned;
+        long bytes;
+
+        Entry(Asset asset) {
+            this.asset = asset;
+        }
+
+        boolean isDone() {
+            return value != null || failed;
+        }
+    }
+
+    private final AssetSource source;
+    private final SpriteCache sprites;
+    private final AudioEngine audio;
+    private final AssetLoader loader;
+    private final long budget;
+    private final Entry[] entries = new Entry[ASSETS.length];
+    private long usedBytes;
+
+    /**
+     * Creates an empty cache that loads from source on the loader's threads, making images
+     * compatible with gc (plain ARGB when null) and sounds with audio.
+     */
+    public AssetCache(AssetSource source, GraphicsConfiguration gc, AudioEngine audio, AssetLoader loader, long budgetBytes) {
+        this.source = source;
+        this.sprites = new SpriteCache(gc);
+        this.audio = audio;
+        this.loader = loader;
+        this.budget = budgetBytes;
+        for (Asset asset : ASSETS) {
+            entries[asset.ordinal()] = new Entry(asset);
+        }
+    }
+
+    /**
+     * The loaded image of a single-image asset, or null.
+     */
+    public BufferedImage image(Asset asset) {
+        return (BufferedImage) use(asset);
+    }
+
+    /**
+     * The loaded frames of a sprite sheet, or null.
+     */
+    public BufferedImage[] frames(Asset asset) {
+        return (BufferedImage[]) use(asset);
+    }
+
+    /**
+     * The loaded effect, or null.
+     */
+    public AudioEngine.Effect effect(Asset asset) {
+        return (AudioEngine.Effect) use(asset);
+    }
+
+    /**
+     * The loaded track, or null.
+     */
+    public AudioEngine.Track track(Asset asset) {
+        return (AudioEngine.Track) use(asset);
+    }
+
+    private Object use(Asset asset) {
+        Entry entry = entries[asset.ordinal()];
+        Object value = entry.value;
+        if (value != null) {
+            entry.lastUsed = System.nanoTime();
+        }
+        return value;
+    }
+
+    /**
+     * Makes current and next the levels whose assets are kept, drops the assets of every other
+     * level and starts loading whatever is missing, assets for every level and the current
+     * level first. Pass the same level twice to keep a single level.
+     */
+    public synchronized void retain(int current, int next) {
+        for (Entry entry : entries) {
+            int level = entry.asset.level;
+            entry.pinned = level == Asset.EVERY_LEVEL || level == current || level == next;
+            if (!entry.pinned && level != Asset.ON_DEMAND) {
+                drop(entry);  // A level's assets go as soon as it is over
+            }
+        }
+        for (Entry entry : entries) {
+            if (entry.pinned && entry.asset.level != next) fetch(entry);
+        }
+        for (Entry entry : entries) {
+            if (entry.pinned && entry.asset.level == next) fetch(entry);  // Prefetch while current is played
+        }
+    }
+
+    /**
+     * Whether every asset the level uses, and every asset used on all levels, has finished loading
+     * (or failed to). Levels without assets are always ready.
+     */
+    public boolean isReady(int level) {
+        for (Entry entry : entries) {
+            int assetLevel = entry.asset.level;
+            if ((assetLevel == level || assetLevel == Asset.EVERY_LEVEL) && !entry.isDone()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Starts loading an asset if it isn't loaded or loading already. The future completes once it
+     * is loaded or has failed; it is already complete if the asset is in memory.
+     */
+    public synchronized CompletableFuture<Void> fetch(Asset asset) {
+        return fetch(entries[asset.ordinal()]);
+    }
+
+    private CompletableFuture<Void> fetch(Entry entry) {
+        if (entry.isDone()) return DONE;
+        if (entry.loading == null) {
+            entry.loading = loader.load(entry.asset.toString(), () -> load(entry));
+        }
+        return entry.loading;
+    }
+
+    /**
+     * Loads every image right away on the calling thread, for tools that draw without a loading
+     * screen. An image that fails to load is reported and left out.
+     */
+    public void loadImagesNow() {
+        synchronized (this) {
+            for (Entry entry : entries) {
+                entry.pinned = true;
+            }
+        }
+        for (Entry entry : entries) {
+            if (entry.asset.sound || entry.isDone()) continue;
+            try {
+                load(entry);
+            } catch (IOException e) {
+                System.err.println(e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Heap bytes held by loaded assets.
+     */
+    public synchronized long getUsedBytes() {
+        return usedBytes;
+    }
+
+    // Runs on a loader thread; the decoding happens outside the lock
+    private void load(Entry entry) throws IOException {
+        Object value;
+        long bytes;
+        try {
+            Asset asset = entry.asset;
+            if (asset.sound) {
+                value = asset.streamed ? source.track(asset, audio) : source.effect(asset, audio);
+                bytes = asset.streamed ? 0 : 2L * ((AudioEngine.Effect) value).samples.length;
+            } else if (asset.isSheet()) {
+                value = sprites.slice(source.image(asset), asset.drawWidth, asset.drawHeight,
+                        asset.columns, asset.rows, asset.drawWidth, asset.drawHeight);
+                bytes = 4L * asset.imageWidth() * asset.imageHeight();
+            } else {
+                // Same size, so only a copy into a screen-compatible image
+                value = sprites.scaled(source.image(asset), asset.drawWidth, asset.drawHeight);
+                bytes = 4L * asset.imageWidth() * asset.imageHeight();
+            }
+        } catch (IOException | RuntimeException e) {
+            synchronized (this) {
+                entry.failed = true;
+                entry.loading = null;
+            }
+            throw e;
+        }
+        synchronized (this) {
+            entry.loading = null;
+            if (!entry.pinned && entry.asset.level != Asset.ON_DEMAND) return;  // Its level ended while it was loading
+            entry.value = value;
+            entry.bytes = bytes;
+            entry.lastUsed = System.nanoTime();
+            usedBytes += bytes;
+            trim(entry);
+        }
+    }
+
+    /**
+     * Drops unpinned assets, least recently used first, until the cache is within its budget,
+     * never dropping the one that was just loaded.
+     */
+    private void trim(Entry keep) {
+        while (usedBytes > budget) {
+            Entry oldest = null;
+            for (Entry entry : entries) {
+                if (entry.value != null && !entry.pinned && entry != keep
+                        && (oldest == null || entry.lastUsed < oldest.lastUsed)) {
+                    oldest = entry;
+                }
+            }
+            if (oldest == null) return;  // Everything left is needed right now
+            drop(oldest);
+        }
+    }
+
+    private void drop(Entry entry) {
+        Object value = entry.value;
+        if (value == null) return;
+        entry.value = null;
+        usedBytes -= entry.bytes;
+        entry.bytes = 0;
+        if (value instanceof AudioEngine.Track) {
+            audio.stop((AudioEngine.Track) value);
+        }
+        // Video memory copies of images are released with the images; flush them now rather than at GC
+        if (value instanceof BufferedImage) {
+            ((BufferedImage) value).flush();
+        } else if (value instanceof BufferedImage[]) {
+            for (BufferedImage frame : (BufferedImage[]) value) {
+                if (frame != null) frame.flush();
+            }
+        }
+    }
+
+    /**
+     * Names of the loaded assets and their sizes, for logging.
+     */
+    public synchronized String describe() {
+        List<String> loaded = new ArrayList<>();
+        for (Entry entry : entries) {
+            if (entry.value != null) loaded.add(entry.asset + " " + entry.bytes / 1024 + " KB");
+        }
+        return usedBytes / 1024 + " KB of " + budget / 1024 + " KB: " + String.join(", ", loaded);
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Decodes game assets in parallel on a small pool of worker threads and keeps count of
+ * how many are done, so a loading screen can show progress while the rest keep loading.
+ */
+public class AssetLoader {
+
+    /**
+     * A single asset to load. Failures are reported but still count as finished,
+     * leaving that image or sound null.
+     */
+    public interface Task {
+        void load() throws Exception;
+    }
+
+    private final ExecutorService pool;
+    private final AtomicInteger submitted = new AtomicInteger();
+    private final AtomicInteger completed = new AtomicInteger();
+    private volatile String lastLoaded = "";  // Name of the most recently finished asset
+
+    /**
+     * Creates a loader with the given number of worker threads.
+     */
+    public AssetLoader(int threads) {
+        AtomicInteger count = new AtomicInteger();
+        pool = Executors.newFixedThreadPool(Math.max(1, threads), r -> {
+            Thread t = new Thread(r, "asset-loader-" + count.incrementAndGet());
+            t.setDaemon(true);
+            t.setPriority(Thread.NORM_PRIORITY - 1);  // Leave the game loop some room
+            return t;
+        });
+    }
+
+    /**
+     * Queues an asset to be loaded. The returned future completes once it is done, even if it failed.
+     */
+    public CompletableFuture<Void> load(String name, Task task) {
+        submitted.incrementAndGet();
+        return CompletableFuture.runAsync(() -> {
+            try {
+                task.load();
+            } catch (IOException e) {
+                System.err.println("Could not load " + name + ": " + e.getMessage());  // Says which file or entry
+            } catch (Exception e) {
+                System.err.println("Could not load " + name);
+                e.printStackTrace();
+            } finally {
+                lastLoaded = name;
+                completed.incrementAndGet();
+            }
+        }, pool);
+    }
+
+    /**
+     * Number of assets queued so far.
+     */
+    public int getSubmitted() {
+        return submitted.get();
+    }
+
+    /**
+     * Number of queued assets that have finished loading.
+     */
+    public int getCompleted() {
+        return completed.get();
+    }
+
+    /**
+     * Name of the most recently finished asset, for the loading screen.
+     */
+    public String getLastLoaded() {
+        return lastLoaded;
+    }
+
+    /**
+     * Stops the worker threads once the queued assets are done.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,170 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Assets packed ahead of time by {@link AssetPacker} into one file that is memory-mapped, so
+ * loading an asset is a checksum and a copy instead of a decode. Images are stored already
+ * scaled to their draw size as premultiplied ARGB pixels, the same layout as TYPE_INT_ARGB_PRE,
+ * and sounds as PCM in the audio engine's format.
+ *
+ * <p>Layout, big-endian: a header (magic, version, entry count, CRC-32 of the directory), the
+ * directory (per entry: name length as a short, the name in UTF-8, kind, width, height, offset,
+ * length and CRC-32 of the data), then the data of each entry starting on an 8 byte boundary.
+ * Width and height are 0 for sounds.
+ */
+public class AssetPack implements AssetSource {
+
+    public static final int MAGIC = 0x4352504B;  // "CRPK"
+    public static final int VERSION = 1;
+    public static final int HEADER_BYTES = 16;
+    public static final int ALIGN = 8;
+    public static final byte IMAGE = 0, SOUND = 1;
+
+    // One directory entry
+    private static final class Entry {
+        final byte kind;
+        final int width, height;
+        final int offset, length, crc;
+
+        Entry(byte kind, int width, int height, int offset, int length, int crc) {
+            this.kind = kind;
+            this.width = width;
+            this.height = height;
+            this.offset = offset;
+            this.length = length;
+            this.crc = crc;
+        }
+    }
+
+    private final File file;
+    private final MappedByteBuffer map;  // Stays valid after the channel is closed
+    private final Map<String, Entry> entries = new HashMap<>();
+
+    private AssetPack(File file, MappedByteBuffer map) {
+        this.file = file;
+        this.map = map;
+    }
+
+    /**
+     * Maps a pack and reads its directory. Fails if the file is not a pack of this version or its
+     * directory is damaged; the data of each entry is checked when it is loaded.
+     */
+    public static AssetPack open(File file) throws IOException {
+        MappedByteBuffer map;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if (channel.size() > Integer.MAX_VALUE) {
+                throw new IOException(file + " is too large to be an asset pack");
+            }
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        AssetPack pack = new AssetPack(file, map);
+        pack.readDirectory();
+        return pack;
+    }
+
+    private void readDirectory() throws IOException {
+        ByteBuffer in = map.duplicate();
+        if (in.remaining() < HEADER_BYTES || in.getInt() != MAGIC) {
+            throw new IOException(file + " is not an asset pack");
+        }
+        int version = in.getInt();
+        if (version != VERSION) {
+            throw new IOException(file + " is asset pack version " + version + ", expected " + VERSION);
+        }
+        int count = in.getInt();
+        int directoryCrc = in.getInt();
+        int start = in.position();
+        try {
+            for (int i = 0; i < count; i++) {
+                byte[] name = new byte[in.getShort()];
+                in.get(name);
+                Entry entry = new Entry(in.get(), in.getInt(), in.getInt(), in.getInt(), in.getInt(), in.getInt());
+                if (entry.offset < 0 || entry.length < 0 || entry.offset > map.capacity() - entry.length) {
+                    throw new IOException(file + " is truncated: entry " + new String(name, StandardCharsets.UTF_8) + " is past the end");
+                }
+                entries.put(new String(name, StandardCharsets.UTF_8), entry);
+            }
+        } catch (RuntimeException e) {
+            throw new IOException(file + " has a damaged directory", e);  // Ran off the end of the buffer
+        }
+        if (crc(map.slice(start, in.position() - start)) != directoryCrc) {
+            throw new IOException(file + " has a damaged directory (checksum mismatch)");
+        }
+    }
+
+    /**
+     * Number of assets in the pack.
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    @Override
+    public BufferedImage image(Asset asset) throws IOException {
+        Entry entry = entry(asset, IMAGE);
+        if (entry.width != asset.imageWidth() || entry.height != asset.imageHeight()) {
+            throw new IOException(asset + " in " + file + " is " + entry.width + "x" + entry.height + ", expected "
+                    + asset.imageWidth() + "x" + asset.imageHeight() + "; rebuild the pack");
+        }
+        ByteBuffer data = data(asset, entry);
+        BufferedImage image = new BufferedImage(entry.width, entry.height, BufferedImage.TYPE_INT_ARGB_PRE);
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        data.asIntBuffer().get(pixels);  // Straight copy into the raster, no decoding
+        return image;
+    }
+
+    @Override
+    public AudioEngine.Effect effect(Asset asset, AudioEngine audio) throws IOException {
+        return audio.loadEffect(asset.file, data(asset, entry(asset, SOUND)));
+    }
+
+    @Override
+    public AudioEngine.Track track(Asset asset, AudioEngine audio) throws IOException {
+        return audio.loadTrack(data(asset, entry(asset, SOUND)));
+    }
+
+    private Entry entry(Asset asset, byte kind) throws IOException {
+        Entry entry = entries.get(asset.name());
+        if (entry == null) {
+            throw new FileNotFoundException(asset + " (" + asset.file + ") is not in " + file
+                    + "; was it missing when the pack was built?");
+        }
+        if (entry.kind != kind) {
+            throw new IOException(asset + " in " + file + " is not " + (kind == IMAGE ? "an image" : "a sound"));
+        }
+        return entry;
+    }
+
+    /**
+     * The entry's data as its own buffer over the mapping, after checking its checksum.
+     */
+    private ByteBuffer data(Asset asset, Entry entry) throws IOException {
+        ByteBuffer data = map.slice(entry.offset, entry.length);
+        if (crc(data) != entry.crc) {
+            throw new IOException(asset + " in " + file + " is damaged (checksum mismatch)");
+        }
+        return data;
+    }
+
+    /**
+     * CRC-32 of the buffer from its position to its limit, leaving the buffer as it was.
+     */
+    static int crc(ByteBuffer buffer) {
+        CRC32 crc = new CRC32();
+        crc.update(buffer.duplicate());
+        return (int) crc.getValue();
+    }
+}
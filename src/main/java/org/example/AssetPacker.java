@@ -0,0 +1,124 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Build step that decodes every {@link Asset} from its source file once and writes the results
+ * into an {@link AssetPack}. Assets whose source file is missing are left out with a warning, so
+ * the game reports them by name when it tries to load them.
+ *
+ * <p>Usage: {@code java org.example.AssetPacker [sourceDir] [output]}, by default the working
+ * directory and assets.pack; {@code mvn package -Passets} runs it on the project directory.
+ */
+public class AssetPacker {
+
+    // One packed asset
+    private static final class Packed {
+        final Asset asset;
+        final byte kind;
+        final int width, height;
+        final byte[] data;
+
+        Packed(Asset asset, byte kind, int width, int height, byte[] data) {
+            this.asset = asset;
+            this.kind = kind;
+            this.width = width;
+            this.height = height;
+            this.data = data;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        File sourceDir = new File(args.length > 0 ? args[0] : ".").getCanonicalFile();
+        File output = new File(args.length > 1 ? args[1] : "assets.pack").getAbsoluteFile();
+
+        LooseAssets loose = new LooseAssets(sourceDir);
+        List<Packed> packed = new ArrayList<>();
+        int missing = 0;
+        for (Asset asset : Asset.values()) {
+            try {
+                packed.add(asset.sound ? packSound(loose, asset) : packImage(loose, asset));
+            } catch (IOException e) {
+                System.err.println("Skipping " + asset + ": " + e.getMessage());
+                missing++;
+            }
+        }
+        long bytes = write(packed, output);
+        System.out.printf("Packed %d assets (%d KB) into %s%s%n", packed.size(), bytes / 1024, output,
+                missing > 0 ? ", " + missing + " skipped" : "");
+    }
+
+    private static Packed packImage(LooseAssets loose, Asset asset) throws IOException {
+        BufferedImage image = loose.image(asset);  // Premultiplied ARGB at the draw size
+        int[] pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        ByteBuffer data = ByteBuffer.allocate(pixels.length * 4);
+        data.asIntBuffer().put(pixels);
+        return new Packed(asset, AssetPack.IMAGE, image.getWidth(), image.getHeight(), data.array());
+    }
+
+    private static Packed packSound(LooseAssets loose, Asset asset) throws IOException {
+        return new Packed(asset, AssetPack.SOUND, 0, 0, loose.pcm(asset));
+    }
+
+    /**
+     * Writes the pack to a temporary file next to the output and moves it into place, so a
+     * failed build never leaves a half-written pack behind. Returns the size of the pack.
+     */
+    private static long write(List<Packed> packed, File output) throws IOException {
+        // The directory's size fixes where the data starts
+        int directoryBytes = 0;
+        for (Packed p : packed) {
+            directoryBytes += 2 + p.asset.name().getBytes(StandardCharsets.UTF_8).length + 1 + 5 * 4;
+        }
+        int offset = align(AssetPack.HEADER_BYTES + directoryBytes);
+
+        ByteArrayOutputStream directoryOut = new ByteArrayOutputStream(directoryBytes);
+        DataOutputStream directory = new DataOutputStream(directoryOut);
+        for (Packed p : packed) {
+            byte[] name = p.asset.name().getBytes(StandardCharsets.UTF_8);
+            directory.writeShort(name.length);
+            directory.write(name);
+            directory.writeByte(p.kind);
+            directory.writeInt(p.width);
+            directory.writeInt(p.height);
+            directory.writeInt(offset);
+            directory.writeInt(p.data.length);
+            directory.writeInt(AssetPack.crc(ByteBuffer.wrap(p.data)));
+            offset = align(offset + p.data.length);
+        }
+        byte[] directoryData = directoryOut.toByteArray();
+
+        ByteBuffer pack = ByteBuffer.allocate(offset);
+        pack.putInt(AssetPack.MAGIC);
+        pack.putInt(AssetPack.VERSION);
+        pack.putInt(packed.size());
+        pack.putInt(AssetPack.crc(ByteBuffer.wrap(directoryData)));
+        pack.put(directoryData);
+        pack.position(align(pack.position()));
+        for (Packed p : packed) {
+            pack.put(p.data);
+            pack.position(align(pack.position()));
+        }
+
+        File temp = new File(output.getPath() + ".tmp");
+        Files.write(temp.toPath(), pack.array());
+        Files.move(temp.toPath(), output.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return offset;
+    }
+
+    private static int align(int position) {
+        return (position + AssetPack.ALIGN - 1) / AssetPack.ALIGN * AssetPack.ALIGN;
+    }
+}
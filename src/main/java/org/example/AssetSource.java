@@ -0,0 +1,48 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Where the game gets its images and sounds: a packed archive built ahead of time, or the loose
+ * source files while developing. Either way an image comes back already at its draw size as
+ * premultiplied ARGB, and a missing asset is an exception that names it, never a silent null.
+ */
+public interface AssetSource {
+
+    /**
+     * The asset as an image of {@link Asset#imageWidth()} x {@link Asset#imageHeight()} in
+     * TYPE_INT_ARGB_PRE, with the frames of a sheet in the same grid as the sheet.
+     */
+    BufferedImage image(Asset asset) throws IOException;
+
+    /**
+     * The asset as a short effect held in memory by the engine.
+     */
+    AudioEngine.Effect effect(Asset asset, AudioEngine audio) throws IOException;
+
+    /**
+     * The asset as a track the engine streams while it loops.
+     */
+    AudioEngine.Track track(Asset asset, AudioEngine audio) throws IOException;
+
+    /**
+     * Opens the asset pack named by -Dcrossey.assets (assets.pack by default), or falls back to
+     * the loose files in the working directory if there is no pack.
+     */
+    static AssetSource open() {
+        File pack = new File(System.getProperty("crossey.assets", "assets.pack")).getAbsoluteFile();
+        if (pack.isFile()) {
+            try {
+                return AssetPack.open(pack);
+            } catch (IOException e) {
+                System.err.println("Could not open " + pack + ", loading loose files instead");
+                e.printStackTrace();
+            }
+        } else {
+            System.out.println("No " + pack.getName() + ", loading loose files (build one with AssetPacker)");
+        }
+        return new LooseAssets(new File("").getAbsoluteFile());
+    }
+}
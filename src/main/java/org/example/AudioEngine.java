@@ -0,0 +1,417 @@
+package org.example;
+
+import javax.sound.sampled.*;
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Small software mixer that plays every game sound through a single audio line.
+ * Short effects are decoded into memory and played on a fixed pool of voices, so the same
+ * effect can overlap itself; long loops are streamed a chunk at a time, from disk or from PCM
+ * already in memory such as a mapped asset pack.
+ * If no audio device is available the engine runs silently and every call is a no-op.
+ */
+public class AudioEngine {
+
+    // Everything is converted to this format when loaded and mixed in it
+    public static final AudioFormat FORMAT = new AudioFormat(44100f, 16, 2, true, false);
+    private static final int CHANNELS = 2;
+    private static final int FRAME_BYTES = 4;          // 16-bit stereo
+    private static final int MIX_FRAMES = 512;         // Frames mixed per pass (about 12 ms)
+    private static final int LINE_BUFFER_FRAMES = MIX_FRAMES * 4;  // Latency vs. underrun safety
+    private static final int STREAM_BUFFER_BYTES = 64 * 1024;
+    private static final int VOICE_COUNT = 8;          // Effects that can play at the same time
+
+    /**
+     * A short sound held in memory as interleaved 16-bit stereo samples.
+     */
+    public static final class Effect {
+        final String name;
+        final short[] samples;
+
+        Effect(String name, short[] samples) {
+            this.name = name;
+            this.samples = samples;
+        }
+    }
+
+    /**
+     * A long sound that is read while it plays. Its stream belongs to the mixer thread.
+     */
+    public static final class Track {
+        final File file;                   // Decoded while it plays, or null when pcm is set
+        final ByteBuffer pcm;              // Already in the engine's format, e.g. mapped from an asset pack
+        volatile boolean playing = false;  // What the game asked for; the mixer follows it
+        AudioInputStream stream;           // Open while playing, mixer thread only
+        byte[] buffer;                     // Raw bytes for one mix pass, mixer thread only
+
+        Track(File file, ByteBuffer pcm) {
+            this.file = file;
+            this.pcm = pcm;
+        }
+
+        /**
+         * Whether the track is currently looping.
+         */
+        public boolean isPlaying() {
+            return playing;
+        }
+    }
+
+    // One slot in the effect pool
+    private static final class Voice {
+        Effect effect;     // Null when the voice is free
+        int position;      // Next sample to play
+        int priority;
+        long startOrder;   // Used to steal the oldest voice among equal priorities
+    }
+
+    private final SourceDataLine line;  // Null when running silently
+    private final Voice[] voices = new Voice[VOICE_COUNT];
+    private final List<Track> tracks = new ArrayList<>();  // Tracks the mixer is streaming, mixer thread only
+    private final Queue<Runnable> commands = new ConcurrentLinkedQueue<>();  // Work for the mixer thread
+    private final int[] mix = new int[MIX_FRAMES * CHANNELS];
+    private final byte[] out = new byte[MIX_FRAMES * FRAME_BYTES];
+    private long voiceCounter = 0;
+    private volatile boolean running;
+    private Thread mixerThread;
+
+    private AudioEngine(SourceDataLine line) {
+        this.line = line;
+        for (int i = 0; i < voices.length; i++) {
+            voices[i] = new Voice();
+        }
+    }
+
+    /**
+     * Opens the default audio output and starts the mixing thread.
+     * Falls back to a silent engine when there is no usable audio device.
+     */
+    public static AudioEngine open() {
+        SourceDataLine line;
+        try {
+            line = AudioSystem.getSourceDataLine(FORMAT);
+            line.open(FORMAT, LINE_BUFFER_FRAMES * FRAME_BYTES);
+        } catch (LineUnavailableException | IllegalArgumentException | SecurityException e) {
+            System.err.println("No audio device available, running without sound: " + e.getMessage());
+            return new AudioEngine(null);
+        }
+        AudioEngine engine = new AudioEngine(line);
+        engine.start();
+        return engine;
+    }
+
+    /**
+     * Creates an engine that never opens a line, for headless runs.
+     */
+    public static AudioEngine silent() {
+        return new AudioEngine(null);
+    }
+
+    /**
+     * Whether the engine is discarding all sound because no device is available.
+     */
+    public boolean isSilent() {
+        return line == null;
+    }
+
+    /**
+     * Decodes a short sound file into memory at the engine's format.
+     */
+    public Effect loadEffect(File file) throws IOException, UnsupportedAudioFileException {
+        if (isSilent()) {
+            return new Effect(file.getName(), new short[0]);  // Nothing will ever play it
+        }
+        return loadEffect(file.getName(), ByteBuffer.wrap(decode(file)));
+    }
+
+    /**
+     * Copies a short sound that is already PCM in the engine's format into memory.
+     */
+    public Effect loadEffect(String name, ByteBuffer pcm) {
+        if (isSilent()) {
+            return new Effect(name, new short[0]);
+        }
+        short[] samples = new short[pcm.remaining() / 2];
+        pcm.duplicate().order(ByteOrder.LITTLE_ENDIAN).asShortBuffer().get(samples);
+        return new Effect(name, samples);
+    }
+
+    /**
+     * Decodes a whole sound file to PCM in the engine's format.
+     */
+    public static byte[] decode(File file) throws IOException, UnsupportedAudioFileException {
+        try (AudioInputStream stream = openConverted(file)) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            byte[] chunk = new byte[STREAM_BUFFER_BYTES];
+            int n;
+            while ((n = stream.read(chunk)) > 0) {
+                bytes.write(chunk, 0, n);
+            }
+            return bytes.toByteArray();
+        }
+    }
+
+    /**
+     * Prepares a long sound to be streamed. Only the header is read now, to fail early on a bad file.
+     */
+    public Track loadTrack(File file) throws IOException, UnsupportedAudioFileException {
+        if (!isSilent()) {
+            openConverted(file).close();
+        }
+        return new Track(file, null);
+    }
+
+    /**
+     * Prepares a long sound that is already PCM in the engine's format. Playing it reads the
+     * buffer in place, so a mapped buffer is paged in as it plays rather than copied up front.
+     */
+    public Track loadTrack(ByteBuffer pcm) {
+        return new Track(null, pcm);
+    }
+
+    /**
+     * Plays an effect on a free voice. If all voices are busy the oldest voice with the lowest
+     * priority is cut off, unless every playing voice has a higher priority than this one.
+     */
+    public void play(Effect effect, int priority) {
+        if (isSilent() || effect == null || effect.samples.length == 0) return;
+        commands.add(() -> startVoice(effect, priority));
+    }
+
+    /**
+     * Starts looping a track from its beginning. Does nothing if it is already playing.
+     */
+    public void loop(Track track) {
+        if (track == null || track.playing) return;
+        track.playing = true;
+        if (!isSilent()) {
+            commands.add(() -> {
+                closeStream(track);  // Start over even if the mixer hadn't dropped it yet
+                if (!tracks.contains(track)) tracks.add(track);
+            });
+        }
+    }
+
+    /**
+     * Stops a looping track.
+     */
+    public void stop(Track track) {
+        if (track == null || !track.playing) return;
+        track.playing = false;  // The mixer drops it and closes its stream on the next pass
+    }
+
+    /**
+     * Stops the mixer thread and releases the audio line.
+     */
+    public void close() {
+        running = false;
+        if (mixerThread != null) {
+            try {
+                mixerThread.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        if (line != null) {
+            line.close();
+        }
+    }
+
+    private void start() {
+        running = true;
+        line.start();
+        mixerThread = new Thread(this::mixLoop, "audio-mixer");
+        mixerThread.setDaemon(true);
+        mixerThread.setPriority(Thread.MAX_PRIORITY);
+        mixerThread.start();
+    }
+
+    /**
+     * Mixes one buffer at a time and hands it to the line. Writing blocks once the line's
+     * buffer is full, which is what paces this thread.
+     */
+    private void mixLoop() {
+        while (running) {
+            Runnable command;
+            while ((command = commands.poll()) != null) {
+                command.run();
+            }
+
+            Arrays.fill(mix, 0);
+            mixTracks();
+            mixVoices();
+
+            for (int i = 0; i < mix.length; i++) {
+                int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, mix[i]));
+                out[2 * i] = (byte) sample;
+                out[2 * i + 1] = (byte) (sample >> 8);
+            }
+            line.write(out, 0, out.length);
+        }
+        line.drain();
+    }
+
+    private void startVoice(Effect effect, int priority) {
+        Voice chosen = null;
+        for (Voice voice : voices) {
+            if (voice.effect == null) {
+                chosen = voice;
+                break;
+            }
+            if (voice.priority <= priority && (chosen == null || voice.priority < chosen.priority
+                    || (voice.priority == chosen.priority && voice.startOrder < chosen.startOrder))) {
+                chosen = voice;
+            }
+        }
+        if (chosen == null) return;  // Everything playing matters more
+        chosen.effect = effect;
+        chosen.position = 0;
+        chosen.priority = priority;
+        chosen.startOrder = voiceCounter++;
+    }
+
+    private void mixVoices() {
+        for (Voice voice : voices) {
+            if (voice.effect == null) continue;
+            short[] samples = voice.effect.samples;
+            int count = Math.min(mix.length, samples.length - voice.position);
+            for (int i = 0; i < count; i++) {
+                mix[i] += samples[voice.position + i];
+            }
+            voice.position += count;
+            if (voice.position >= samples.length) {
+                voice.effect = null;  // Finished, free the voice
+            }
+        }
+    }
+
+    private void mixTracks() {
+        for (int t = tracks.size() - 1; t >= 0; t--) {
+            Track track = tracks.get(t);
+            if (!track.playing) {
+                closeStream(track);
+                tracks.remove(t);
+                continue;
+            }
+            if (track.buffer == null) {
+                track.buffer = new byte[out.length];
+            }
+            int filled = readLooping(track, track.buffer);
+            for (int i = 0; i < filled / 2; i++) {
+                mix[i] += (short) ((track.buffer[2 * i] & 0xFF) | (track.buffer[2 * i + 1] << 8));
+            }
+        }
+    }
+
+    /**
+     * Fills the buffer from the track's stream, starting it over whenever it runs out.
+     * Returns the number of bytes read, which is less than the buffer only if the file is broken.
+     */
+    private int readLooping(Track track, byte[] buffer) {
+        int filled = 0;
+        boolean restarted = false;
+        try {
+            while (filled < buffer.length) {
+                if (track.stream == null) {
+                    track.stream = openStream(track);
+                }
+                int n = track.stream.read(buffer, filled, buffer.length - filled);
+                if (n > 0) {
+                    filled += n;
+                    restarted = false;
+                } else {
+                    closeStream(track);
+                    if (restarted) break;  // Empty file, don't spin
+                    restarted = true;
+                }
+            }
+        } catch (IOException | UnsupportedAudioFileException e) {
+            e.printStackTrace();
+            track.playing = false;
+        }
+        return filled - filled % FRAME_BYTES;
+    }
+
+    private void closeStream(Track track) {
+        if (track.stream != null) {
+            try {
+                track.stream.close();
+            } catch (IOException ignored) {}
+            track.stream = null;
+        }
+    }
+
+    /**
+     * Opens a track from the start, from its PCM if it has some and from its file otherwise.
+     */
+    private static AudioInputStream openStream(Track track) throws IOException, UnsupportedAudioFileException {
+        if (track.pcm == null) {
+            return openConverted(track.file);
+        }
+        ByteBuffer pcm = track.pcm.duplicate();  // Own position, so the track can start over
+        return new AudioInputStream(new BufferInputStream(pcm), FORMAT, pcm.remaining() / FRAME_BYTES);
+    }
+
+    /**
+     * Reads a byte buffer from its position to its limit.
+     */
+    private static final class BufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+
+    /**
+     * Opens a file as a buffered stream already converted to the engine's format.
+     */
+    private static AudioInputStream openConverted(File file) throws IOException, UnsupportedAudioFileException {
+        InputStream in = new BufferedInputStream(new FileInputStream(file), STREAM_BUFFER_BYTES);
+        AudioInputStream source;
+        try {
+            source = AudioSystem.getAudioInputStream(in);
+        } catch (IOException | UnsupportedAudioFileException e) {
+            in.close();
+            throw e;
+        }
+        AudioFormat sourceFormat = source.getFormat();
+        if (sourceFormat.matches(FORMAT)) {
+            return source;
+        }
+        // Decode to 16-bit at the source rate first; the rate converter only handles PCM it understands
+        AudioFormat pcm = new AudioFormat(sourceFormat.getSampleRate(), 16, CHANNELS, true, false);
+        AudioInputStream stream = AudioSystem.getAudioInputStream(pcm, source);
+        return AudioSystem.getAudioInputStream(FORMAT, stream);
+    }
+}
@@ -0,0 +1,152 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.VolatileImage;
+
+/**
+ * The image a frame is rendered into at the game's own resolution, whatever the size of the
+ * window or screen. The frame is then shown with one scaled copy, so drawing the game costs the
+ * same on a 4K display as on an 800x600 window, and HiDPI scaling is applied once to the whole
+ * frame instead of to every sprite and background separately.
+ */
+public class BackBuffer {
+
+    /**
+     * How the frame is stretched to fill the window.
+     */
+    public enum Scaling {
+        INTEGER,  // Whole multiples only, pixels stay square and sharp; leftover space is black
+        SMOOTH;   // Largest size that fits, filtered
+
+        /**
+         * Parses a scaling name, falling back to INTEGER for anything unknown.
+         */
+        public static Scaling fromName(String name) {
+            return "smooth".equalsIgnoreCase(name) ? SMOOTH : INTEGER;
+        }
+    }
+
+    private static final AffineTransform IDENTITY = new AffineTransform();
+
+    private final int width, height;
+    private final Scaling scaling;
+    private VolatileImage image;  // Created on first use and again whenever the screen or resolution changes
+    private double renderScale = 1;   // Of the image to the frame, below 1 to render fewer pixels
+    private boolean filtered = true;  // Bilinear stretching if the scaling is SMOOTH
+
+    // Where the last frame was shown, in device pixels
+    private final Rectangle target = new Rectangle();
+
+    public BackBuffer(int width, int height, Scaling scaling) {
+        this.width = width;
+        this.height = height;
+        this.scaling = scaling;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public Scaling getScaling() {
+        return scaling;
+    }
+
+    /**
+     * Renders frames into an image of scale times the frame's size from the next frame on, e.g.
+     * 0.5 for a quarter of the pixels. The graphics handed out are scaled to match, so callers
+     * keep drawing in the game's own coordinates.
+     */
+    public void setRenderScale(double scale) {
+        renderScale = scale;
+    }
+
+    /**
+     * Whether SMOOTH scaling stretches the frame with a bilinear filter (the default) or, being
+     * cheaper, with nearest-neighbour.
+     */
+    public void setFiltered(boolean filtered) {
+        this.filtered = filtered;
+    }
+
+    /**
+     * Returns a graphics to render the next frame into, making sure the image exists for the given
+     * screen and still holds video memory. Render, dispose it, then render again while
+     * {@link #contentsLost()} is true.
+     */
+    public Graphics2D createGraphics(GraphicsConfiguration gc) {
+        int imageWidth = (int) Math.round(width * renderScale), imageHeight = (int) Math.round(height * renderScale);
+        if (image == null || image.getWidth() != imageWidth || image.getHeight() != imageHeight
+                || image.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+            if (image != null) image.flush();
+            image = gc.createCompatibleVolatileImage(imageWidth, imageHeight, Transparency.OPAQUE);
+        }
+        Graphics2D g = image.createGraphics();
+        if (renderScale != 1) {
+            g.scale(renderScale, renderScale);
+        }
+        return g;
+    }
+
+    /**
+     * Whether the frame just rendered was lost (e.g. the display mode changed) and must be redrawn.
+     */
+    public boolean contentsLost() {
+        return image == null || image.contentsLost();
+    }
+
+    /**
+     * Copies the frame onto g, scaled and centred in the area (x, y, areaWidth, areaHeight) given
+     * in g's own coordinates, and fills the rest of the area black.
+     */
+    public void present(Graphics g, int x, int y, int areaWidth, int areaHeight) {
+        if (image == null || areaWidth <= 0 || areaHeight <= 0) return;
+        Graphics2D g2 = (Graphics2D) g;
+
+        // Work in device pixels so integer scaling lines up with the screen's pixels on HiDPI displays
+        AffineTransform t = g2.getTransform();
+        double sx = t.getScaleX(), sy = t.getScaleY();
+        int areaX = (int) Math.round(t.getTranslateX() + x * sx);
+        int areaY = (int) Math.round(t.getTranslateY() + y * sy);
+        int deviceWidth = (int) Math.round(areaWidth * sx);
+        int deviceHeight = (int) Math.round(areaHeight * sy);
+        fit(areaX, areaY, deviceWidth, deviceHeight);
+
+        g2.setTransform(IDENTITY);
+        g2.setRenderingHint(RenderingHints.KEY_INTERPOLATION, scaling == Scaling.SMOOTH && filtered
+                ? RenderingHints.VALUE_INTERPOLATION_BILINEAR
+                : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        g2.drawImage(image, target.x, target.y, target.width, target.height, null);
+
+        // Only the bars around the frame, not the whole area
+        g2.setColor(Color.BLACK);
+        int right = target.x + target.width, bottom = target.y + target.height;
+        g2.fillRect(areaX, areaY, deviceWidth, target.y - areaY);
+        g2.fillRect(areaX, bottom, deviceWidth, areaY + deviceHeight - bottom);
+        g2.fillRect(areaX, target.y, target.x - areaX, target.height);
+        g2.fillRect(right, target.y, areaX + deviceWidth - right, target.height);
+        g2.setTransform(t);
+    }
+
+    /**
+     * Works out where the frame goes inside the area, keeping its aspect ratio.
+     */
+    private void fit(int areaX, int areaY, int areaWidth, int areaHeight) {
+        int w, h;
+        int whole = Math.min(areaWidth / width, areaHeight / height);
+        if (scaling == Scaling.INTEGER && whole >= 1) {
+            w = width * whole;
+            h = height * whole;
+        } else {
+            // Smooth, or an area smaller than the frame where no whole multiple fits
+            double scale = Math.min((double) areaWidth / width, (double) areaHeight / height);
+            w = Math.max(1, (int) (width * scale));
+            h = Math.max(1, (int) (height * scale));
+        }
+        target.setBounds(areaX + (areaWidth - w) / 2, areaY + (areaHeight - h) / 2, w, h);
+    }
+}
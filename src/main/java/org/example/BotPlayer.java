@@ -0,0 +1,78 @@
+package org.example;
+
+import java.util.Random;
+
+/**
+ * Computer player for headless runs. It makes one decision every few ticks, about as often as a
+ * person presses keys, using either a random policy or a simple scripted one that waits for a gap
+ * in the lane ahead. It reads the simulation it is playing, so attach it before the first step.
+ */
+public class BotPlayer implements InputSource {
+
+    /**
+     * How the bot picks its next action.
+     */
+    public enum Strategy {
+        /** Mostly moves up, sometimes sideways, shields or fires, without looking. */
+        RANDOM,
+        /** Moves up when the lane ahead is clear for a while, shields when something is about to hit. */
+        CAUTIOUS
+    }
+
+    private final Strategy strategy;
+    private final Random rand;
+    private final int reactionTicks;  // Ticks between decisions
+    private GameSimulation game;
+    private long decidedTick = -1;
+
+    public BotPlayer(Strategy strategy, long seed, int reactionTicks) {
+        this.strategy = strategy;
+        this.rand = new Random(seed);
+        this.reactionTicks = Math.max(1, reactionTicks);
+    }
+
+    /**
+     * Sets the simulation the bot plays.
+     */
+    public void attach(GameSimulation game) {
+        this.game = game;
+    }
+
+    @Override
+    public GameAction poll(long tick) {
+        if (tick % reactionTicks != 0 || tick == decidedTick) return null;
+        decidedTick = tick;  // One action per decision
+        return strategy == Strategy.RANDOM ? randomAction() : cautiousAction();
+    }
+
+    private GameAction randomAction() {
+        int roll = rand.nextInt(20);
+        if (roll < 10) return GameAction.MOVE_UP;
+        if (roll < 13) return GameAction.MOVE_LEFT;
+        if (roll < 16) return GameAction.MOVE_RIGHT;
+        if (roll < 18) return GameAction.SHIELD;
+        return GameAction.FIRE;
+    }
+
+    private GameAction cautiousAction() {
+        int x = game.getPlayerX(), y = game.getPlayerY();
+        int width = GameSimulation.PLAYER_WIDTH, height = GameSimulation.PLAYER_HEIGHT;
+        Difficulty difficulty = game.getDifficulty();
+        int speed = game.isEndless() ? 2 * Math.max(difficulty.trainSpeed(), difficulty.obstacleSpeed())  // Lanes speed up as it goes
+                : game.getLevel() == 2 ? difficulty.trainSpeed() : difficulty.obstacleSpeed();
+        // Obstacles move right, so anything this far to the left can arrive before the next decision
+        int reach = speed * reactionTicks * 2 / game.getTickRate() + GameSimulation.OBSTACLE_WIDTH;
+
+        int aheadY = y - game.getPlayerSpeed();
+        if (!game.isObstacleAt(x - reach, aheadY, width + reach, height)) {
+            return GameAction.MOVE_UP;
+        }
+        if (!game.isShieldActive() && game.isObstacleAt(x - reach, y, width + reach, height)) {
+            return GameAction.SHIELD;
+        }
+        if (game.isObstacleAt(x, aheadY, width, height)) {
+            return GameAction.FIRE;  // Something is right in front, shoot it out of the way
+        }
+        return null;  // Wait for a gap
+    }
+}
@@ -0,0 +1,85 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+
+/**
+ * The collision masks of every sprite the simulation tests: the cats, and each frame of the
+ * highway, train and backyard sheets, built from the images at the size they are drawn. They
+ * are built once and shared by every simulation given them, so a server running many games pays
+ * for them once. They are part of the rules: with other masks a seed and its inputs would play
+ * out differently, so a sprite that fails to load is an error rather than a fallback to boxes.
+ */
+public final class CollisionMasks {
+
+    private static final Asset[] CATS = {Asset.YODA, Asset.ALPHA, Asset.EXPLORER};
+
+    final SpriteMask[] cats;
+    final SpriteMask[] highway, train, backyard;  // One per frame, in sheet order
+    final SpriteMask projectile = SpriteMask.solid(GameSimulation.PROJECTILE_WIDTH, GameSimulation.PROJECTILE_HEIGHT);
+
+    private CollisionMasks(AssetSource source) throws IOException {
+        cats = new SpriteMask[CATS.length];
+        for (int i = 0; i < CATS.length; i++) {
+            cats[i] = build(source, CATS[i])[0];
+        }
+        highway = build(source, Asset.HIGHWAY_SPRITES);
+        train = build(source, Asset.TRAIN_SPRITES);
+        backyard = build(source, Asset.SQUIRREL_SPRITES);
+    }
+
+    /**
+     * The masks built from the game's assets (see {@link AssetSource#open()}), loaded the first time
+     * they are asked for. Throws IllegalStateException, every time, if they couldn't be loaded.
+     */
+    public static CollisionMasks shared() {
+        if (Shared.MASKS == null) {
+            throw new IllegalStateException("The simulation needs the sprites for its collision masks; run it where "
+                    + "the game's assets are, or point -Dcrossey.assets at an asset pack", Shared.FAILURE);
+        }
+        return Shared.MASKS;
+    }
+
+    /**
+     * Builds the masks from the given source, failing if any sprite is missing.
+     */
+    public static CollisionMasks load(AssetSource source) throws IOException {
+        return new CollisionMasks(source);
+    }
+
+    /**
+     * The masks of a level's obstacles.
+     */
+    SpriteMask[] obstacles(int level) {
+        return level == 2 ? train : level == 3 ? backyard : highway;
+    }
+
+    // One mask per frame of the asset, each covering the frame at its draw size
+    private static SpriteMask[] build(AssetSource source, Asset asset) throws IOException {
+        SpriteMask[] masks = new SpriteMask[asset.columns * asset.rows];
+        BufferedImage image = source.image(asset);
+        for (int i = 0; i < masks.length; i++) {
+            masks[i] = SpriteMask.fromAlpha(image, (i % asset.columns) * asset.drawWidth,
+                    (i / asset.columns) * asset.drawHeight, asset.drawWidth, asset.drawHeight);
+        }
+        return masks;
+    }
+
+    // Loaded on first use, so code that never collides anything never opens the assets
+    private static final class Shared {
+        static final CollisionMasks MASKS;
+        static final IOException FAILURE;  // Why MASKS is null
+
+        static {
+            CollisionMasks masks = null;
+            IOException failure = null;
+            try {
+                masks = load(AssetSource.open());
+            } catch (IOException e) {
+                failure = e;
+            }
+            MASKS = masks;
+            FAILURE = failure;
+        }
+    }
+}
@@ -0,0 +1,489 @@
+/**
+ * Project: Group project Team 1 - Crossey Road Game
+ * Purpose Details: Using what we learned in IST 242 to create and build a Crossey Road Game that works
+ * Course: IST 242: Intermediate & Object-Oriented Application Development
+ * Author: David Michael Baram, Liya Aji, Yusuf I Baksh, Ulrich Kevin Commodore-Armah, Jerry Peter Alexander
+ * Date Developed: 04/28/25
+ * Last Date Changed: 05//25
+ * Revision: 1
+
+ */
+package org.example;
+
+// Import necessary libraries for GUI, event handling, multimedia, and file operations
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.*;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.awt.image.BufferStrategy;
+
+/**
+ * Main class for the Crossey Roads final game.
+ * Implements multiple levels, player health,
+ * obstacles, sound effects, and basic animation.
+ */
+public class CrosseyRoadFinalGame extends JFrame implements KeyListener {
+
+    private static final long serialVersionUID = 1L;
+
+    // Constants for window and object dimensions (the game rules live in GameSimulation)
+    private static final int WIDTH = GameSimulation.WIDTH, HEIGHT = GameSimulation.HEIGHT;
+
+    // Simulation steps per second and frame cap (0 = uncapped), e.g. -Dcrossey.tickRate=120; the
+    // cap defaults to the display's refresh rate, or the tick rate if the display doesn't say
+    private static final int TICK_RATE = Integer.getInteger("crossey.tickRate", 60);
+    private static final Integer FPS_CAP = Integer.getInteger("crossey.fpsCap");
+
+    // Record the session's input to a file, or play a recording back instead of the keyboard,
+    // e.g. -Dcrossey.record=session.crr or -Dcrossey.replay=session.crr
+    private static final String RECORD_FILE = System.getProperty("crossey.record");
+    private static final String REPLAY_FILE = System.getProperty("crossey.replay");
+
+    // Stream every tick's state to a file or a SnapshotViewer listening on a local port, within a
+    // byte rate, e.g. -Dcrossey.snapshots=run.crss or -Dcrossey.snapshots=socket:7788
+    private static final String SNAPSHOT_TARGET = System.getProperty("crossey.snapshots");
+    private static final int SNAPSHOT_BYTES_PER_SECOND = Integer.getInteger("crossey.snapshotBytesPerSecond", 512);
+
+    // Leaderboard every finished run is saved to (not replays), -Dcrossey.scores= to save nothing
+    private static final String SCORES_FILE = System.getProperty("crossey.scores", "crossey-scores.log");
+
+    // Endless procedurally generated lanes instead of the three levels, -Dcrossey.mode=endless
+    private static final GameMode MODE = "endless".equalsIgnoreCase(System.getProperty("crossey.mode"))
+            ? GameMode.ENDLESS : GameMode.LEVELS;
+
+    // Frames are rendered at WIDTH x HEIGHT and stretched to the window in whole multiples or
+    // smoothly, e.g. -Dcrossey.scaling=smooth; -Dcrossey.fullscreen=true takes over the screen
+    private static final BackBuffer.Scaling SCALING = BackBuffer.Scaling.fromName(System.getProperty("crossey.scaling"));
+    private static final boolean FULLSCREEN = Boolean.getBoolean("crossey.fullscreen");
+
+    // Rendering tier: picked from frame times to keep frames within 1/targetFps, or fixed by name,
+    // e.g. -Dcrossey.targetFps=50 or -Dcrossey.quality=no_alpha (see QualityTier)
+    private static final QualityTier FIXED_QUALITY = QualityTier.fromName(System.getProperty("crossey.quality", "auto"));
+    private static final int TARGET_FPS = Integer.getInteger("crossey.targetFps", 50);
+
+    // Game state and rules; the window only draws it and plays sounds for it
+    private final QueuedInput input = new QueuedInput();  // Key presses from the EDT, applied on the next tick
+    private final GameSimulation game;
+    private final SnapshotRecorder stateRecorder;  // Null unless streaming the game's state
+    private final ScoreStore scores;               // Null if scores aren't saved
+    private boolean scoreSaved = false;            // Simulation thread only
+
+    // Cat meowing sounds, loaded the first time each cat is picked
+    private static final Asset[] MEOWS = {Asset.YODA_MEOW, Asset.ALPHA_MEOW, Asset.EXPLORER_MEOW};
+
+    // Mixer that plays all sounds through one audio line (silent if there is no audio device)
+    private final AudioEngine audio = AudioEngine.open();
+    private static final int CRASH_PRIORITY = 2, MEOW_PRIORITY = 1;  // Crashes win when all voices are busy
+
+    // Cat descriptions displayed on-screen to tell the user each cat's details
+    static final String[] CAT_DESCRIPTIONS = {
+            "Yoda: long haired with yellow and green eyes",
+            "Alpha: husky, meaty and dominant",
+            "Explorer: short haired, always angry and claws are always ready"
+    };
+
+    // Score, health, cat description and timer, drawn by the render thread from pre-rendered text
+    private HudRenderer hud;
+    private volatile int shownCat = -1;  // Cat whose description is shown, -1 for the prompt to pick one
+
+    // The simulation and render threads, which only share the snapshots the simulation publishes
+    private GameLoop gameLoop;  // Runs the simulation at a fixed rate
+    private RenderLoop renderLoop;  // Draws the newest snapshot as often as allowed
+    private final TripleBuffer<GameSnapshot> snapshots;
+    private BufferStrategy bufferStrategy;  // Created once the window is displayable
+    private final BackBuffer backBuffer = new BackBuffer(WIDTH, HEIGHT, SCALING);  // Frame at the game's own resolution
+    private GameRenderer renderer;  // Draws the game itself and holds its images
+    private final QualityController quality = FIXED_QUALITY == null
+            ? new QualityController(QualityTier.FULL, 1_000_000_000L / TARGET_FPS, SCALING) : null;
+
+    // Images and sounds from the asset pack (or loose files without one), loaded in the background
+    // a level ahead and released once their level is over, e.g. -Dcrossey.assetBudgetMB=16
+    private static final long ASSET_BUDGET = Long.getLong("crossey.assetBudgetMB", 16) * 1024 * 1024;
+    private final AssetLoader assetLoader = new AssetLoader(Runtime.getRuntime().availableProcessors());
+    private AssetCache assets;
+    private volatile int startedLevel = 0;  // Last level whose assets were ready and that has started playing
+    private boolean firstFrameLogged = false;
+
+    // Per-phase frame timings, shown with F3 and emitted as Flight Recorder events
+    private final FrameProfiler profiler = new FrameProfiler();
+    private static final Font LOADING_FONT = new Font("Arial", Font.BOLD, 20);
+
+
+    /**
+     * Constructor to set up the game window and initialize components.
+     */
+    public CrosseyRoadFinalGame() {
+        game = createSimulation();
+        stateRecorder = createStateRecorder();
+        scores = openScores();
+        snapshots = new TripleBuffer<>(() -> new GameSnapshot(game));
+        publishSnapshot();  // Something to draw before the first step
+        setTitle("Crossey Roads - Final Game");
+        setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+        setIgnoreRepaint(true);  // The render thread draws the frame itself
+        if (FULLSCREEN) {
+            setUndecorated(true);
+        } else {
+            getContentPane().setPreferredSize(new Dimension(WIDTH, HEIGHT));  // 1:1 until the window is resized
+            pack();
+            setLocationRelativeTo(null);
+        }
+        addKeyListener(this);
+
+        game.setListener(new SimulationListener() {
+            @Override public void onCrash() { audio.play(assets.effect(Asset.CAR_CRASH), CRASH_PRIORITY); }  // Play crash sound
+
+            @Override
+            public void onCatChanged(int cat) {
+                shownCat = cat;  // Show the cat's description
+                playMeowingSound(cat);  // Play selected cat's meow sound
+            }
+
+            @Override
+            public void onTimeUp() {
+                SwingUtilities.invokeLater(() -> JOptionPane.showMessageDialog(CrosseyRoadFinalGame.this, "Time's up!"));
+            }
+        });
+        loadAssets();            // Decode images and sounds in the background, level 1 first
+        startObstacleMovement(); // Begin game loop; it shows a loading screen until level 1 is ready
+    }
+
+    /**
+     * Creates the simulation, fed by the keyboard (and recorded if asked to) or by a replay file.
+     * While replaying, key presses still go to the input queue but nothing reads it.
+     */
+    private GameSimulation createSimulation() {
+        if (REPLAY_FILE != null) {
+            try {
+                ReplayInput replay = new ReplayInput(new File(REPLAY_FILE));
+                return new GameSimulation(replay.getSeed(), replay.getTickRate(), Difficulty.DEFAULT, replay.getMode(), replay);
+            } catch (IOException e) {
+                e.printStackTrace();  // Play normally instead
+            }
+        }
+        long seed = System.nanoTime();
+        if (RECORD_FILE != null) {
+            try {
+                InputRecorder recorder = new InputRecorder(input, new File(RECORD_FILE), seed, TICK_RATE, MODE);
+                Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "input-recorder"));  // Write the end marker on exit
+                return new GameSimulation(seed, TICK_RATE, Difficulty.DEFAULT, MODE, recorder);
+            } catch (IOException e) {
+                e.printStackTrace();  // Play without recording
+            }
+        }
+        return new GameSimulation(seed, TICK_RATE, Difficulty.DEFAULT, MODE, input);
+    }
+
+    /**
+     * Opens the state stream if one was asked for. Endless mode isn't recorded.
+     */
+    private SnapshotRecorder createStateRecorder() {
+        if (SNAPSHOT_TARGET == null) return null;
+        if (game.isEndless()) {
+            System.err.println("State snapshots only cover the levels, not recording endless mode");
+            return null;
+        }
+        try {
+            SnapshotRecorder recorder = SnapshotRecorder.open(SNAPSHOT_TARGET, game.getTickRate(), SNAPSHOT_BYTES_PER_SECOND);
+            Runtime.getRuntime().addShutdownHook(new Thread(recorder::close, "snapshot-recorder"));  // Write the last block on exit
+            return recorder;
+        } catch (IOException e) {
+            e.printStackTrace();  // Play without streaming
+            return null;
+        }
+    }
+
+    /**
+     * Opens the leaderboard, unless it is turned off or this is a replay of a run already saved.
+     */
+    private static ScoreStore openScores() {
+        if (SCORES_FILE.isEmpty() || REPLAY_FILE != null) return null;
+        try {
+            ScoreStore store = ScoreStore.open(new File(SCORES_FILE));
+            Runtime.getRuntime().addShutdownHook(new Thread(store::close, "score-store"));  // Commit the last run
+            return store;
+        } catch (IOException e) {
+            e.printStackTrace();  // Play without saving scores
+            return null;
+        }
+    }
+
+    /**
+     * Creates the asset cache and starts loading level 1, and level 2 behind it. Play starts as soon
+     * as level 1 is in; each later level loads while the one before it is played.
+     */
+    private void loadAssets() {
+        assets = new AssetCache(AssetSource.open(), getGraphicsConfiguration(), audio, assetLoader, ASSET_BUDGET);
+        renderer = new GameRenderer(game, getGraphicsConfiguration(), getBackground(), assets);
+        hud = new HudRenderer(UIManager.getFont("Label.font"), Color.WHITE, "Choose your cat! Press UP key",
+                CAT_DESCRIPTIONS, new SpriteCache(getGraphicsConfiguration()));
+        retainAssets(1);
+    }
+
+    /**
+     * Keeps the assets of the given level and the next one, releasing the rest.
+     * Endless mode uses the roads and trains of levels 1 and 2 the whole time.
+     */
+    private void retainAssets(int level) {
+        if (game.isEndless()) {
+            assets.retain(1, 2);
+        } else {
+            int current = Math.min(level, GameSimulation.LAST_LEVEL);  // The win screen uses level 3's images
+            assets.retain(current, current + 1);
+        }
+    }
+
+    /**
+     * Whether everything the given level draws and plays has finished loading. Safe to call from
+     * either thread.
+     */
+    private boolean isLevelReady(int level) {
+        if (game.isEndless()) {
+            return assets.isReady(1) && assets.isReady(2);  // Roads and tracks from the start
+        }
+        return assets.isReady(level);
+    }
+
+    /**
+     * Renders the newest snapshot into the window's back buffer and shows it. Called from the
+     * render thread, which never touches the simulation itself.
+     */
+    private void renderFrame() {
+        if (!isShowing()) return;  // Not until it is on screen (or has taken over the screen)
+        if (bufferStrategy == null) {
+            createBufferStrategy(2);
+            bufferStrategy = getBufferStrategy();
+        }
+        long frameStart = System.nanoTime();
+        applyQuality(quality != null ? quality.getTier() : FIXED_QUALITY);
+        boolean timed = profiler.isActive();
+        long mark = timed ? System.nanoTime() : 0;
+        GameSnapshot view = snapshots.latest();
+        double alpha = view.alpha(System.nanoTime(), gameLoop.getStepNanos());  // How far into the next step we are
+        GraphicsConfiguration gc = getGraphicsConfiguration();
+        do {
+            Graphics g = backBuffer.createGraphics(gc);
+            try {
+                drawFrame(g, view, alpha);
+                profiler.drawOverlay(g, WIDTH);
+            } finally {
+                g.dispose();
+            }
+        } while (backBuffer.contentsLost());
+        if (timed) mark = lap(FrameProfiler.Phase.RENDER, mark);
+
+        // One scaled copy into the window, whatever its size
+        Insets insets = getInsets();
+        int areaWidth = getWidth() - insets.left - insets.right;
+        int areaHeight = getHeight() - insets.top - insets.bottom;
+        do {
+            do {
+                Graphics g = bufferStrategy.getDrawGraphics();
+                try {
+                    backBuffer.present(g, insets.left, insets.top, areaWidth, areaHeight);
+                } finally {
+                    g.dispose();
+                }
+            } while (bufferStrategy.contentsRestored());
+            bufferStrategy.show();
+            if (timed) mark = lap(FrameProfiler.Phase.PRESENT, mark);
+        } while (bufferStrategy.contentsLost());
+        Toolkit.getDefaultToolkit().sync();  // Flush the pipeline so frames aren't batched up (Linux)
+        if (timed) lap(FrameProfiler.Phase.PRESENT, mark);
+        profiler.endFrame();
+        if (quality != null) {
+            quality.frameDone(System.nanoTime() - frameStart);
+        }
+
+        if (!firstFrameLogged && startedLevel > 0) {
+            firstFrameLogged = true;
+            System.out.println("First interactive frame after " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms");
+        }
+    }
+
+    /**
+     * Switches the renderer and back buffer to a tier if they aren't at it yet. Render thread only.
+     */
+    private void applyQuality(QualityTier tier) {
+        if (renderer.getQuality() == tier) return;
+        renderer.setQuality(tier);
+        backBuffer.setRenderScale(tier.renderScale);
+        backBuffer.setFiltered(tier.filtered);
+    }
+
+    /**
+     * Charges the time since mark to a phase of the current frame and returns the new mark.
+     */
+    private long lap(FrameProfiler.Phase phase, long mark) {
+        long now = System.nanoTime();
+        profiler.add(phase, now - mark);
+        return now;
+    }
+
+    /**
+     * Draws the whole screen from a snapshot: the level, power-ups, on-screen messages and the HUD.
+     */
+    private void drawFrame(Graphics g, GameSnapshot view, double alpha) {
+        if (!isLevelReady(view.getLevel())) {
+            drawLoadingScreen(g, view.getLevel());
+            return;
+        }
+        renderer.draw(g, view, alpha);  // Level, player, power-ups and messages
+        hud.draw(g, view, shownCat);
+    }
+
+    /**
+     * Draws a progress bar while the current level's assets are still loading.
+     */
+    private void drawLoadingScreen(Graphics g, int level) {
+        int done = assetLoader.getCompleted();
+        int total = Math.max(1, assetLoader.getSubmitted());
+        int barWidth = 400, barHeight = 20;
+        int barX = WIDTH / 2 - barWidth / 2, barY = HEIGHT / 2;
+
+        g.setColor(Color.BLACK);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        g.setColor(Color.WHITE);
+        g.setFont(LOADING_FONT);
+        g.drawString("Loading level " + level + "...", barX, barY - 15);
+        g.drawRect(barX, barY, barWidth, barHeight);
+        g.fillRect(barX, barY, barWidth * done / total, barHeight);
+        g.drawString(assetLoader.getLastLoaded(), barX, barY + barHeight + 25);
+    }
+
+    /**
+     * Starts the simulation thread, which moves everything and updates the game state, and the
+     * render thread, which draws what the simulation last published.
+     */
+    private void startObstacleMovement() {
+        gameLoop = new GameLoop(this::updateGame, game.getTickRate());
+        renderLoop = new RenderLoop(this::renderFrame, frameCap());
+        gameLoop.start();  // Start the game loop
+        renderLoop.start();
+    }
+
+    /**
+     * The most frames a second worth drawing: the cap set with -Dcrossey.fpsCap, or else as many
+     * as the display shows, or else one per simulation step.
+     */
+    private int frameCap() {
+        if (FPS_CAP != null) return FPS_CAP;
+        GraphicsConfiguration config = getGraphicsConfiguration();
+        int refresh = config == null ? DisplayMode.REFRESH_RATE_UNKNOWN
+                : config.getDevice().getDisplayMode().getRefreshRate();
+        return refresh != DisplayMode.REFRESH_RATE_UNKNOWN ? refresh : game.getTickRate();
+    }
+
+    /**
+     * Advances the game by one fixed step and publishes the result. Runs on the simulation thread.
+     */
+    private void updateGame() {
+        if (!isLevelReady(game.getLevel())) return;  // Hold the game until this level's assets are in
+        if (startedLevel != game.getLevel()) {
+            startLevel();
+        }
+        if (!profiler.isActive()) {
+            game.step();
+            publishSnapshot();
+            return;
+        }
+        game.setTimingCollisions(true);
+        long start = System.nanoTime();
+        game.step();
+        long collision = game.takeCollisionNanos();
+        profiler.add(FrameProfiler.Phase.UPDATE, System.nanoTime() - start - collision);
+        profiler.add(FrameProfiler.Phase.COLLISION, collision);
+        profiler.tick();
+        game.setTimingCollisions(false);
+        publishSnapshot();
+    }
+
+    /**
+     * Copies the game into the snapshot the render thread will pick up next, and into the state
+     * stream if there is one; saves the score once the game is over. Simulation thread only.
+     */
+    private void publishSnapshot() {
+        snapshots.back().copyFrom(game);
+        snapshots.publish();
+        if (stateRecorder != null) {
+            stateRecorder.record(game);
+        }
+        if (scores != null && !scoreSaved && game.isFinished()) {
+            scores.append(game);  // Committed in the background
+            scoreSaved = true;
+        }
+    }
+
+    /**
+     * Called on the first step of a level once its assets are loaded; switches the background sounds.
+     */
+    private void startLevel() {
+        startedLevel = game.getLevel();
+        AudioEngine.Track highwayTrafficTrack = assets.track(Asset.HIGHWAY_TRAFFIC_LOOP);
+        AudioEngine.Track trainTrack = assets.track(Asset.TRAIN_LOOP);
+
+        // Play highway traffic sound during level 1
+        if (startedLevel == 1 && highwayTrafficTrack != null) {
+            audio.loop(highwayTrafficTrack);
+        }
+
+        // Stop highway traffic sound and start the train sound in level 2
+        if (startedLevel == 2) {
+            audio.stop(highwayTrafficTrack);
+            audio.loop(trainTrack);
+        }
+
+        // Stop train sound in level 3
+        if (startedLevel == 3) {
+            audio.stop(trainTrack);
+        }
+
+        retainAssets(startedLevel);  // Drop the last level's assets and start on the next level's
+        System.out.println("Level " + startedLevel + " started, assets in memory: " + assets.describe());
+    }
+
+    // KeyListener methods to handle player input
+    @Override
+    public void keyPressed(KeyEvent e) {
+        int key = e.getKeyCode();
+        if (key == KeyEvent.VK_W) input.add(GameAction.MOVE_UP);  // Move up
+        if (key == KeyEvent.VK_A) input.add(GameAction.MOVE_LEFT);  // Move left
+        if (key == KeyEvent.VK_D) input.add(GameAction.MOVE_RIGHT);  // Move right
+        if (key == KeyEvent.VK_S) input.add(GameAction.SHIELD);
+        if (key == KeyEvent.VK_SPACE) input.add(GameAction.FIRE);  // Fire projectile if the spacebar is pressed
+        if (key == KeyEvent.VK_UP) input.add(GameAction.NEXT_CAT);  // Cycle through cats when the UP key is pressed
+        if (key == KeyEvent.VK_P) input.add(GameAction.PAUSE);  // Pause or resume
+        if (key == KeyEvent.VK_F3) profiler.toggleOverlay();  // Frame time overlay
+    }
+
+    /**
+     * Play the selected cat's meowing sound.
+     */
+    private void playMeowingSound(int catIndex) {
+        Asset meow = MEOWS[catIndex];
+        // Play the meow on a free voice, once it's loaded if this cat hasn't been picked lately
+        assets.fetch(meow).thenRun(() -> audio.play(assets.effect(meow), MEOW_PRIORITY));
+    }
+    @Override public void keyReleased(KeyEvent e) {}  // Not used
+    @Override public void keyTyped(KeyEvent e) {}  // Not used
+
+    /**
+     * Main method to start the game.
+     */
+    public static void main(String[] args) {
+        SwingUtilities.invokeLater(() -> {
+            CrosseyRoadFinalGame frame = new CrosseyRoadFinalGame();
+            GraphicsDevice device = frame.getGraphicsConfiguration().getDevice();
+            if (FULLSCREEN && device.isFullScreenSupported()) {
+                device.setFullScreenWindow(frame);  // Exclusive; the frame is scaled up to the display mode
+            } else if (FULLSCREEN) {
+                frame.setExtendedState(JFrame.MAXIMIZED_BOTH);  // Next best thing: a borderless maximised window
+                frame.setVisible(true);
+            } else {
+                frame.setVisible(true);
+            }
+        });
+    }
+}
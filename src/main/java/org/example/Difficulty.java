@@ -0,0 +1,32 @@
+package org.example;
+
+/**
+ * The tunable numbers behind a level: how many obstacles spawn and where, how fast they move,
+ * and how many power-ups there are. {@link #DEFAULT} is the game as shipped.
+ *
+ * @param roadObstacles  obstacles on the road and neighborhood levels
+ * @param trainObstacles trains on the train level
+ * @param spawnTop       top of the band road and neighborhood obstacles spawn in
+ * @param spawnHeight    height of that band
+ * @param obstacleSpeed  cars and squirrels, in pixels per second
+ * @param trainSpeed     trains, in pixels per second
+ * @param powerUpPairs   health and speed power-ups placed per level, one of each per pair
+ */
+public record Difficulty(int roadObstacles, int trainObstacles, int spawnTop, int spawnHeight,
+                         int obstacleSpeed, int trainSpeed, int powerUpPairs) {
+
+    public static final Difficulty DEFAULT = new Difficulty(15, 5, 150, 300,
+            GameSimulation.OBSTACLE_SPEED, GameSimulation.TRAIN_SPEED, 2);
+
+    public Difficulty {
+        if (roadObstacles < 0 || trainObstacles < 0 || spawnHeight <= 0 || powerUpPairs < 0) {
+            throw new IllegalArgumentException("Obstacle and power-up counts can't be negative and the spawn band can't be empty");
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("road=%d train=%d spawn=%d+%d speed=%d trainSpeed=%d powerUps=%d",
+                roadObstacles, trainObstacles, spawnTop, spawnHeight, obstacleSpeed, trainSpeed, powerUpPairs);
+    }
+}
@@ -0,0 +1,327 @@
+package org.example;
+
+/**
+ * The lanes of endless mode, generated CHUNK_LANES lanes at a time as the player climbs.
+ * World rows are numbered upwards from the start row 0, and row r covers the 60 pixels from
+ * {@link #rowTop(int)} down, with y growing downwards as on screen (so it goes negative).
+ * Only RING_CHUNKS chunks exist at once: the one behind the player's chunk, the player's own and
+ * the ones ahead. They sit in fixed slots of a ring buffer, so when the player reaches a new chunk
+ * the chunk that fell behind is overwritten with the next one ahead, and memory and per-tick work
+ * stay the same however far the player gets. A chunk is generated from the seed and its number
+ * alone, so a seed always gives the same track.
+ * Lanes on screen move every tick. The others catch up every few ticks in one bigger step, which
+ * lands them exactly where moving every tick would have, since travel is kept in whole
+ * speed x tick units rather than rounded per tick.
+ */
+public class EndlessTrack {
+
+    public static final int CHUNK_LANES = 8;
+    public static final int RING_CHUNKS = 4;  // One behind the player's chunk, its own and two ahead
+    public static final int RING_LANES = CHUNK_LANES * RING_CHUNKS;
+    public static final int MAX_PER_LANE = 6;
+
+    // Lane types
+    public static final byte GRASS = 0, ROAD = 1, RAIL = 2;
+
+    private static final int WIDTH = GameSimulation.WIDTH, HEIGHT = GameSimulation.HEIGHT;
+    private static final int LANE_HEIGHT = GameSimulation.LANE_HEIGHT;
+    private static final int OBSTACLE_HEIGHT = GameSimulation.OBSTACLE_HEIGHT;
+    private static final int CAR_WIDTH = GameSimulation.CAR_WIDTH, CAR_HEIGHT = GameSimulation.CAR_HEIGHT;
+    private static final int TRAIN_WIDTH = GameSimulation.TRAIN_WIDTH, TRAIN_HEIGHT = GameSimulation.TRAIN_HEIGHT;
+    private static final int OBSTACLE_OFFSET = (LANE_HEIGHT - OBSTACLE_HEIGHT) / 2;  // Obstacles run along the middle of a lane
+    private static final int WRAP = 200;              // Stretch off the left edge obstacles come back through
+    private static final int SPAN = WIDTH + WRAP;     // Distance an obstacle travels before it is back where it was
+    private static final int OFFSCREEN_INTERVAL = 8;  // Ticks between moves of lanes nobody can see
+    private static final int RAMP_CHUNKS = 20;        // Chunks over which speed and traffic build up to their maximum
+
+    private final long seed;
+    private final int tickRate;
+    private final Difficulty difficulty;
+    private final PowerUpStore powerUps;
+
+    private int chunk = 0;   // Chunk the player is in; the ring holds chunk - 1 to chunk + RING_CHUNKS - 2
+    private long tick = 0;
+    private long random;     // SplitMix64 state while a chunk is generated
+
+    // One entry per ring slot; row r lives in slot floorMod(r, RING_LANES)
+    private final int[] row = new int[RING_LANES];
+    private final byte[] type = new byte[RING_LANES];
+    private final int[] speed = new int[RING_LANES];          // Pixels per second, to the right
+    private final int[] count = new int[RING_LANES];
+    private final long[] travel = new long[RING_LANES];       // Pixels x tickRate moved but not applied yet
+    private final long[] updatedTick = new long[RING_LANES];  // Tick the lane was last moved to
+
+    // MAX_PER_LANE entries per slot, obstacle k of slot s at s * MAX_PER_LANE + k
+    private final int[] x = new int[RING_LANES * MAX_PER_LANE];
+    private final int[] prevX = new int[RING_LANES * MAX_PER_LANE];  // X on the previous tick, for interpolation
+    private final int[] sprite = new int[RING_LANES * MAX_PER_LANE];
+
+    /**
+     * Generates the first chunks of the track for the seed, placing their power-ups in the store.
+     */
+    public EndlessTrack(long seed, int tickRate, Difficulty difficulty, PowerUpStore powerUps) {
+        this.seed = seed;
+        this.tickRate = tickRate;
+        this.difficulty = difficulty;
+        this.powerUps = powerUps;
+        for (int c = -1; c <= RING_CHUNKS - 2; c++) {
+            generate(c);
+        }
+    }
+
+    /**
+     * Copies the lanes and obstacles of another track, e.g. for a snapshot the renderer can read
+     * while the simulation moves on. The copy is for reading; it keeps its own seed and settings.
+     */
+    public void copyFrom(EndlessTrack other) {
+        chunk = other.chunk;
+        tick = other.tick;
+        random = other.random;
+        System.arraycopy(other.row, 0, row, 0, RING_LANES);
+        System.arraycopy(other.type, 0, type, 0, RING_LANES);
+        System.arraycopy(other.speed, 0, speed, 0, RING_LANES);
+        System.arraycopy(other.count, 0, count, 0, RING_LANES);
+        System.arraycopy(other.travel, 0, travel, 0, RING_LANES);
+        System.arraycopy(other.updatedTick, 0, updatedTick, 0, RING_LANES);
+        System.arraycopy(other.x, 0, x, 0, x.length);
+        System.arraycopy(other.prevX, 0, prevX, 0, prevX.length);
+        System.arraycopy(other.sprite, 0, sprite, 0, sprite.length);
+    }
+
+    /**
+     * World row a y coordinate is in.
+     */
+    public static int rowOf(int y) {
+        return Math.floorDiv(HEIGHT - 1 - y, LANE_HEIGHT);
+    }
+
+    /**
+     * Y of the top of a world row.
+     */
+    public static int rowTop(int row) {
+        return HEIGHT - (row + 1) * LANE_HEIGHT;
+    }
+
+    /**
+     * Moves the ring along once the player has climbed into a new chunk: every chunk left more than
+     * one behind is replaced by a new one ahead, and its power-ups are dropped.
+     */
+    public void follow(int playerRow) {
+        int target = Math.floorDiv(playerRow, CHUNK_LANES);
+        while (chunk < target) {
+            chunk++;
+            generate(chunk + RING_CHUNKS - 2);  // Takes the slots of chunk - 2
+            int bottom = rowTop((chunk - 1) * CHUNK_LANES) + LANE_HEIGHT;  // Below the oldest chunk kept
+            for (int i = powerUps.size() - 1; i >= 0; i--) {
+                if (powerUps.getY(i) >= bottom) {
+                    powerUps.remove(i);
+                }
+            }
+        }
+    }
+
+    /**
+     * Y the player restarts from after a crash: the grass lane at the start of their chunk.
+     */
+    public int getCheckpointY() {
+        return rowTop(chunk * CHUNK_LANES);
+    }
+
+    /**
+     * Moves the obstacles by one tick. Lanes overlapping the view starting at viewTop move now,
+     * the others every few ticks.
+     */
+    public void update(int viewTop) {
+        tick++;
+        for (int slot = 0; slot < RING_LANES; slot++) {
+            int top = rowTop(row[slot]);
+            boolean visible = top < viewTop + HEIGHT && top + LANE_HEIGHT > viewTop;
+            // Off-screen lanes take turns so their catch-up work is spread over the ticks
+            if (visible || (tick + slot) % OFFSCREEN_INTERVAL == 0) {
+                advance(slot);
+            }
+        }
+    }
+
+    // Brings one lane up to the current tick
+    private void advance(int slot) {
+        long ticks = tick - updatedTick[slot];
+        updatedTick[slot] = tick;
+        travel[slot] += speed[slot] * ticks;
+        int step = (int) (travel[slot] / tickRate);  // Whole pixels to move
+        travel[slot] -= (long) step * tickRate;
+        int first = slot * MAX_PER_LANE, end = first + count[slot];
+        for (int i = first; i < end; i++) {
+            int newX = x[i] + step;
+            if (newX >= WIDTH) {
+                newX -= SPAN;  // Wrap around, no interpolating across the screen
+                prevX[i] = newX;
+            } else {
+                prevX[i] = ticks == 1 ? x[i] : newX;  // Lanes that just came into view start without blending
+            }
+            x[i] = newX;
+        }
+    }
+
+    /**
+     * Returns the obstacle overlapping the given rectangle, as an index for the getters below,
+     * or -1 if there is none. Only lanes in view are exact; the rest may be a few ticks behind.
+     */
+    public int firstHit(int x, int y, int width, int height) {
+        return firstHit(x, y, width, height, null, null);
+    }
+
+    /**
+     * Returns the obstacle whose sprite overlaps the shape drawn at (x, y) pixel for pixel, or -1
+     * if there is none. Cars use the highway masks and trains the train masks; the masks are only
+     * compared for obstacles whose box overlaps the shape's.
+     */
+    public int firstHit(int x, int y, SpriteMask shape, CollisionMasks masks) {
+        return firstHit(x, y, shape.width, shape.height, shape, masks);
+    }
+
+    private int firstHit(int x, int y, int width, int height, SpriteMask shape, CollisionMasks masks) {
+        for (int r = rowOf(y + height - 1); r <= rowOf(y); r++) {
+            int slot = slotOf(r);
+            if (slot < 0) continue;
+            boolean rail = type[slot] == RAIL;
+            int oy = rowTop(r) + OBSTACLE_OFFSET;
+            int ow = rail ? TRAIN_WIDTH : CAR_WIDTH, oh = rail ? TRAIN_HEIGHT : CAR_HEIGHT;
+            int first = slot * MAX_PER_LANE, end = first + count[slot];
+            for (int i = first; i < end; i++) {
+                if (LaneIndex.intersects(x, y, width, height, this.x[i], oy, ow, oh)
+                        && (shape == null || hits(shape, x, y, rail ? masks.train : masks.highway, i, oy))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private boolean hits(SpriteMask shape, int x, int y, SpriteMask[] masks, int i, int oy) {
+        return SpriteMask.overlaps(shape, x, y, masks[sprite[i] % masks.length], this.x[i], oy);
+    }
+
+    /**
+     * Removes an obstacle returned by {@link #firstHit}, moving the last one in its lane into its place.
+     */
+    public void remove(int i) {
+        int slot = i / MAX_PER_LANE;
+        int last = slot * MAX_PER_LANE + --count[slot];
+        x[i] = x[last];
+        prevX[i] = prevX[last];
+        sprite[i] = sprite[last];
+    }
+
+    /**
+     * Ring slot holding a world row, or -1 if that row isn't generated right now.
+     */
+    public int slotOf(int r) {
+        int slot = Math.floorMod(r, RING_LANES);
+        return row[slot] == r ? slot : -1;
+    }
+
+    public byte getType(int slot) {
+        return type[slot];
+    }
+
+    public int getCount(int slot) {
+        return count[slot];
+    }
+
+    /**
+     * Y of the obstacles in a slot's lane.
+     */
+    public int getObstacleY(int slot) {
+        return rowTop(row[slot]) + OBSTACLE_OFFSET;
+    }
+
+    /**
+     * Width the obstacles in a slot's lane are drawn and collide at.
+     */
+    public int getObstacleWidth(int slot) {
+        return type[slot] == RAIL ? TRAIN_WIDTH : CAR_WIDTH;
+    }
+
+    /**
+     * Index of obstacle k of a slot, for the getters below.
+     */
+    public static int obstacle(int slot, int k) {
+        return slot * MAX_PER_LANE + k;
+    }
+
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getSprite(int i) {
+        return sprite[i];
+    }
+
+    /**
+     * X to draw obstacle i at, blended between the previous and current tick.
+     */
+    public int renderX(int i, double alpha) {
+        return (int) Math.round(prevX[i] + (x[i] - prevX[i]) * alpha);
+    }
+
+    /**
+     * Fills the slots of chunk c with its lanes, obstacles and power-up.
+     * Chunks start with a grass lane, which is where the player restarts after a crash.
+     */
+    private void generate(int c) {
+        random = seed ^ (c * 0xD1B54A32D192ED03L);
+        int ramp = Math.max(0, Math.min(c, RAMP_CHUNKS));
+        for (int lane = 0; lane < CHUNK_LANES; lane++) {
+            int r = c * CHUNK_LANES + lane;
+            int slot = Math.floorMod(r, RING_LANES);
+            row[slot] = r;
+            count[slot] = 0;
+            travel[slot] = 0;
+            updatedTick[slot] = tick;
+
+            int roll = nextInt(8);
+            if (c < 0 || lane == 0 || roll == 0) {
+                type[slot] = GRASS;  // Behind the start, checkpoints and the odd breather
+                speed[slot] = 0;
+                continue;
+            }
+            int wanted;
+            if (roll == 1) {
+                type[slot] = RAIL;
+                speed[slot] = difficulty.trainSpeed() * (100 + 5 * ramp) / 100;
+                wanted = 1 + nextInt(1 + ramp / 10);
+            } else {
+                type[slot] = ROAD;
+                speed[slot] = difficulty.obstacleSpeed() * (100 + 5 * ramp) / 100 * (80 + nextInt(41)) / 100;
+                wanted = Math.max(1, difficulty.roadObstacles() / GameSimulation.LANE_COUNT) + nextInt(1 + ramp / 5);
+            }
+            int n = Math.min(MAX_PER_LANE, wanted);
+            // One obstacle per equal share of the lane, so they never overlap while they all move together
+            int spacing = SPAN / n;
+            for (int k = 0; k < n; k++) {
+                int i = slot * MAX_PER_LANE + k;
+                x[i] = -WRAP + k * spacing + nextInt(spacing - getObstacleWidth(slot));
+                prevX[i] = x[i];
+                sprite[i] = nextInt(4);
+            }
+            count[slot] = n;
+        }
+
+        if (c > 0 && nextInt(4) < difficulty.powerUpPairs()) {
+            int r = c * CHUNK_LANES + 1 + nextInt(CHUNK_LANES - 1);
+            int px = nextInt(WIDTH - PowerUpStore.SIZE);
+            powerUps.add(px, rowTop(r) + (LANE_HEIGHT - PowerUpStore.SIZE) / 2,
+                    PowerUpType.fromCode(nextInt(PowerUpType.COUNT)));
+        }
+    }
+
+    // SplitMix64, so generating a chunk needs no Random object
+    private int nextInt(int bound) {
+        long z = (random += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z ^= z >>> 31;
+        return (int) ((z >>> 1) % bound);
+    }
+}
@@ -0,0 +1,49 @@
+package org.example;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event for one rendered frame, with the time spent in each phase.
+ * Enable it in a recording with e.g. -XX:StartFlightRecording and look under "Crossey Road".
+ */
+@Name("org.example.Frame")
+@Label("Frame")
+@Category("Crossey Road")
+@Description("Time spent in each phase of one rendered frame")
+@StackTrace(false)
+class FrameEvent extends Event {
+
+    @Label("Frame Time")
+    @Description("Time since the previous frame was shown")
+    @Timespan
+    long frameTime;
+
+    @Label("Update")
+    @Description("Simulation steps, not counting collisions")
+    @Timespan
+    long update;
+
+    @Label("Collision")
+    @Timespan
+    long collision;
+
+    @Label("Render")
+    @Description("Drawing into the back buffer")
+    @Timespan
+    long render;
+
+    @Label("Present")
+    @Description("Showing the back buffer and syncing with the display")
+    @Timespan
+    long present;
+
+    @Label("Ticks")
+    @Description("Simulation steps run since the previous frame")
+    int ticks;
+}
@@ -0,0 +1,202 @@
+package org.example;
+
+import java.awt.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Measures where each frame's time goes (update, collision, render, present). Update and
+ * collision times come from the simulation thread and are charged to whichever frame the render
+ * thread is working on. Timings go into histograms shown by a toggleable overlay, and into a Flight Recorder
+ * event per frame while a recording has that event enabled. When neither is on, the only cost
+ * is one clock read per frame, which is also how it notices a recording being started.
+ */
+public class FrameProfiler {
+
+    /**
+     * The parts of a frame that are timed separately.
+     */
+    public enum Phase { UPDATE, COLLISION, RENDER, PRESENT }
+
+    private static final Phase[] PHASES = Phase.values();
+    private static final long WINDOW_NANOS = 1_000_000_000L;  // Overlay numbers cover the last second
+    private static final Font OVERLAY_FONT = new Font(Font.MONOSPACED, Font.PLAIN, 12);
+    private static final Color OVERLAY_BACKGROUND = new Color(0, 0, 0, 160);
+
+    private final LatencyHistogram frameTimes = new LatencyHistogram();
+    private final LatencyHistogram[] phaseTimes = new LatencyHistogram[PHASES.length];
+    private final AtomicLongArray frameNanos = new AtomicLongArray(PHASES.length);  // Current frame's time per phase
+    private final AtomicInteger frameTicks = new AtomicInteger();                    // Steps run during the current frame
+    private final long[] lastFrameNanos = new long[PHASES.length];  // The frame being recorded, render thread only
+
+    private volatile boolean overlayVisible = false;  // Toggled from the EDT
+    private volatile boolean recording = false;        // Whether a JFR recording wants frame events
+    private final FrameEvent probe = new FrameEvent(); // Only used to ask whether the event is enabled
+
+    private long lastFrameEnd = System.nanoTime();
+    private long windowStart = lastFrameEnd;
+    private int windowTicks, windowFrames;
+    private long gcCount, gcMillis;      // Collector totals at the start of the window
+    private long gcPauses, gcPauseMillis;  // Collections during the last window
+    private final List<GarbageCollectorMXBean> collectors = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private volatile String[] overlayLines = {"Collecting frame times..."};  // Rebuilt once per window
+
+    public FrameProfiler() {
+        for (int i = 0; i < PHASES.length; i++) {
+            phaseTimes[i] = new LatencyHistogram();
+        }
+        sampleCollectors();
+    }
+
+    /**
+     * Whether anything is being measured. Callers skip reading the clock when this is false.
+     */
+    public boolean isActive() {
+        return overlayVisible || recording;
+    }
+
+    /**
+     * Shows or hides the overlay. Safe to call from any thread.
+     */
+    public void toggleOverlay() {
+        overlayVisible = !overlayVisible;
+    }
+
+    public boolean isOverlayVisible() {
+        return overlayVisible;
+    }
+
+    /**
+     * Adds time spent in a phase to the current frame. Safe to call from any thread.
+     */
+    public void add(Phase phase, long nanos) {
+        frameNanos.addAndGet(phase.ordinal(), nanos);
+    }
+
+    /**
+     * Counts one simulation step for the ticks per second figure. Safe to call from any thread.
+     */
+    public void tick() {
+        frameTicks.incrementAndGet();
+    }
+
+    /**
+     * Closes the current frame once it has been shown: records its phases and emits its event.
+     * Render thread only.
+     */
+    public void endFrame() {
+        long now = System.nanoTime();
+        long frameTime = now - lastFrameEnd;
+        lastFrameEnd = now;
+
+        // Take and reset in one go, so steps finishing meanwhile count towards the next frame
+        for (int i = 0; i < PHASES.length; i++) {
+            lastFrameNanos[i] = frameNanos.getAndSet(i, 0);
+        }
+        int ticks = frameTicks.getAndSet(0);
+        if (isActive()) {
+            frameTimes.record(frameTime);
+            for (int i = 0; i < PHASES.length; i++) {
+                phaseTimes[i].record(lastFrameNanos[i]);
+            }
+            windowTicks += ticks;
+            windowFrames++;
+            if (recording) {
+                commitEvent(frameTime, ticks);
+            }
+        }
+
+        if (now - windowStart >= WINDOW_NANOS) {
+            sampleCollectors();
+            if (overlayVisible) {
+                overlayLines = buildOverlay(now - windowStart);
+            }
+            frameTimes.reset();
+            for (LatencyHistogram histogram : phaseTimes) {
+                histogram.reset();
+            }
+            windowStart = now;
+            windowTicks = 0;
+            windowFrames = 0;
+            recording = probe.isEnabled();  // Picks up recordings started or stopped since the last window
+        }
+    }
+
+    /**
+     * Draws the overlay in the top right corner if it is visible.
+     */
+    public void drawOverlay(Graphics g, int screenWidth) {
+        if (!overlayVisible) return;
+        String[] lines = overlayLines;
+        g.setFont(OVERLAY_FONT);
+        FontMetrics fm = g.getFontMetrics();
+        int width = 0;
+        for (String line : lines) {
+            width = Math.max(width, fm.stringWidth(line));
+        }
+        int x = screenWidth - width - 20, y = 10;
+        g.setColor(OVERLAY_BACKGROUND);
+        g.fillRect(x - 6, y, width + 12, lines.length * fm.getHeight() + 8);
+        g.setColor(Color.WHITE);
+        for (int i = 0; i < lines.length; i++) {
+            g.drawString(lines[i], x, y + 4 + fm.getAscent() + i * fm.getHeight());
+        }
+    }
+
+    private void commitEvent(long frameTime, int ticks) {
+        FrameEvent event = new FrameEvent();
+        event.frameTime = frameTime;
+        event.update = lastFrameNanos[Phase.UPDATE.ordinal()];
+        event.collision = lastFrameNanos[Phase.COLLISION.ordinal()];
+        event.render = lastFrameNanos[Phase.RENDER.ordinal()];
+        event.present = lastFrameNanos[Phase.PRESENT.ordinal()];
+        event.ticks = ticks;
+        event.commit();
+    }
+
+    /**
+     * Works out how many collections ran, and for how long, since the last sample.
+     */
+    private void sampleCollectors() {
+        long count = 0, millis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            count += Math.max(0, collector.getCollectionCount());
+            millis += Math.max(0, collector.getCollectionTime());
+        }
+        gcPauses = count - gcCount;
+        gcPauseMillis = millis - gcMillis;
+        gcCount = count;
+        gcMillis = millis;
+    }
+
+    /**
+     * Turns the last window's histograms and GC counts into overlay text.
+     */
+    private String[] buildOverlay(long windowNanos) {
+        double seconds = windowNanos / 1e9;
+        return new String[] {
+                String.format("frame  p50 %5.2f  p99 %5.2f  max %5.2f ms",
+                        ms(frameTimes.valueAtPercentile(50)), ms(frameTimes.valueAtPercentile(99)), ms(frameTimes.getMax())),
+                String.format("fps %4.0f   ticks/s %4.0f", windowFrames / seconds, windowTicks / seconds),
+                phaseLine(Phase.UPDATE, "update"),
+                phaseLine(Phase.COLLISION, "collide"),
+                phaseLine(Phase.RENDER, "render"),
+                phaseLine(Phase.PRESENT, "present"),
+                String.format("gc     %d pauses, %d ms", gcPauses, gcPauseMillis),
+        };
+    }
+
+    private String phaseLine(Phase phase, String name) {
+        LatencyHistogram histogram = phaseTimes[phase.ordinal()];
+        return String.format("%-7s p50 %5.2f  p99 %5.2f  max %5.2f ms", name,
+                ms(histogram.valueAtPercentile(50)), ms(histogram.valueAtPercentile(99)), ms(histogram.getMax()));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1e6;
+    }
+}
@@ -0,0 +1,14 @@
+package org.example;
+
+/**
+ * Everything a player can do, independent of which key or device triggered it.
+ */
+public enum GameAction {
+    MOVE_UP,     // W
+    MOVE_LEFT,   // A
+    MOVE_RIGHT,  // D
+    SHIELD,      // S
+    FIRE,        // Space
+    NEXT_CAT,    // Up arrow
+    PAUSE        // P
+}
@@ -0,0 +1,102 @@
+package org.example;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Fixed-timestep simulation loop running on its own thread. Steps are run on a fixed schedule
+ * no matter how long frames take to draw, since drawing happens on a separate {@link RenderLoop}
+ * thread; the two only meet through the snapshots the update step publishes.
+ */
+public class GameLoop implements Runnable {
+
+    // Most simulation steps to catch up on at once before dropping time (avoids a spiral of death)
+    private static final int MAX_CATCH_UP_STEPS = 5;
+    // Sleep this much less than needed and spin the rest, since parkNanos usually oversleeps
+    private static final long SPIN_NANOS = 1_000_000L;
+
+    private final Runnable update;  // One simulation step
+    private final int tickRate;     // Simulation steps per second
+    private final long stepNanos;   // Length of one simulation step
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * Creates a loop that calls update tickRate times per second.
+     */
+    public GameLoop(Runnable update, int tickRate) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        }
+        this.update = update;
+        this.tickRate = tickRate;
+        this.stepNanos = 1_000_000_000L / tickRate;
+    }
+
+    /**
+     * Number of simulation steps per second.
+     */
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Length of one simulation step in nanoseconds.
+     */
+    public long getStepNanos() {
+        return stepNanos;
+    }
+
+    /**
+     * Starts the loop thread.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "simulation");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.NORM_PRIORITY + 1);  // Ticks on time matter more than frames
+        thread.start();
+    }
+
+    /**
+     * Asks the loop thread to finish after the current step.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        long nextStep = System.nanoTime();
+        while (running) {
+            // Never try to catch up on more than a few steps after a long stall
+            long now = System.nanoTime();
+            if (now - nextStep > stepNanos * MAX_CATCH_UP_STEPS) {
+                nextStep = now - stepNanos * MAX_CATCH_UP_STEPS;
+            }
+            while (running && now - nextStep >= 0) {
+                update.run();
+                nextStep += stepNanos;
+                now = System.nanoTime();
+            }
+            sleepUntil(nextStep);
+        }
+    }
+
+    /**
+     * Sleeps until the deadline, parking for most of it and spinning the last bit.
+     */
+    private void sleepUntil(long deadline) {
+        long remaining = deadline - System.nanoTime();
+        if (remaining > SPIN_NANOS) {
+            LockSupport.parkNanos(remaining - SPIN_NANOS);
+        }
+        while (running && System.nanoTime() - deadline < 0) {
+            Thread.onSpinWait();
+        }
+    }
+}
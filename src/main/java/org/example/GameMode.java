@@ -0,0 +1,18 @@
+package org.example;
+
+/**
+ * Which game is played.
+ */
+public enum GameMode {
+    LEVELS,   // The three levels against the clock, ending at the house
+    ENDLESS;  // Procedurally generated lanes that go on until the player runs out of health
+
+    private static final GameMode[] VALUES = values();
+
+    /**
+     * The mode stored under the given code, see {@link #ordinal()}.
+     */
+    public static GameMode fromCode(int code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,378 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws a game simulation: the level, its obstacles, the player, power-ups and on-screen messages.
+ * It only needs a Graphics to draw into, so it works the same on the window's back buffer and on
+ * an offscreen image in a headless JVM. The images it draws are looked up in an {@link AssetCache}
+ * every frame; anything not loaded yet, or already released, is simply skipped.
+ */
+public class GameRenderer {
+
+    private static final int WIDTH = GameSimulation.WIDTH, HEIGHT = GameSimulation.HEIGHT;
+    private static final int PLAYER_WIDTH = GameSimulation.PLAYER_WIDTH, PLAYER_HEIGHT = GameSimulation.PLAYER_HEIGHT;
+
+    //Constants for the level 3 ending house image
+    private static final int HOUSE_WIDTH = GameSimulation.HOUSE_WIDTH;
+    private static final int HOUSE_HEIGHT = GameSimulation.HOUSE_HEIGHT;
+    private static final int HOUSE_X = GameSimulation.HOUSE_X;
+    private static final int HOUSE_Y = GameSimulation.HOUSE_Y;
+
+    private final GameView game;  // Drawn by draw(g, alpha)
+    private GameView view;        // What the current draw call is drawing
+    private final Color background;  // Shows wherever a background image is missing
+    private final StaticLayerCache staticLayer = new StaticLayerCache(WIDTH, HEIGHT, this::paintStaticLayer);
+    private final AssetCache assets;  // Every image drawn comes from here, null until loaded
+    private static final Asset[] CATS = {Asset.YODA, Asset.ALPHA, Asset.EXPLORER};
+
+    //ending image for when the player wins
+    static final int WIN_IMAGE_WIDTH = 400, WIN_IMAGE_HEIGHT = 300;
+
+    // On-screen sprite sizes, the sizes obstacles collide at
+    static final int CAR_DRAW_WIDTH = GameSimulation.CAR_WIDTH, CAR_DRAW_HEIGHT = GameSimulation.CAR_HEIGHT;
+    static final int TRAIN_DRAW_WIDTH = GameSimulation.TRAIN_WIDTH, TRAIN_DRAW_HEIGHT = GameSimulation.TRAIN_HEIGHT;
+
+    private final SpriteCache spriteCache;
+    private final BufferedImage[] laneStrips = new BufferedImage[3];  // Endless mode lanes, by EndlessTrack lane type
+    private QualityTier quality = QualityTier.FULL;
+
+    // On-screen text, rendered once up front instead of laid out every frame
+    private static final Color WIN_BACKGROUND = new Color(200, 200, 200);
+    private static final Color SHIELD_COLOR = new Color(0, 255, 255, 100);
+    private final HudFont bannerFont, winFont, messageFont;
+    private final BufferedImage gameOverText, pausedText, winText;
+    private final HudField speedBoostField;
+    private String shownMessage;              // Health message currently rendered into shownMessageImage
+    private BufferedImage shownMessageImage;
+
+    /**
+     * Creates a renderer for the game with its own unlimited asset cache over the default asset
+     * pack or loose files, for tools that call {@link #loadAll()}.
+     */
+    public GameRenderer(GameView game, GraphicsConfiguration gc, Color background) {
+        this(game, gc, background, new AssetCache(AssetSource.open(), gc, AudioEngine.silent(), new AssetLoader(1), Long.MAX_VALUE));
+    }
+
+    /**
+     * Creates a renderer for the game that draws images from assets. Text is made compatible
+     * with gc, or with a plain ARGB image when gc is null (headless).
+     */
+    public GameRenderer(GameView game, GraphicsConfiguration gc, Color background, AssetCache assets) {
+        this.game = game;
+        this.background = background;
+        this.assets = assets;
+        this.spriteCache = new SpriteCache(gc);
+        bannerFont = new HudFont(new Font("Arial", Font.BOLD, 36), Color.WHITE, spriteCache);
+        gameOverText = bannerFont.render("Game Over!");
+        pausedText = bannerFont.render("Paused");
+        winFont = new HudFont(new Font("Arial", Font.BOLD, 48), Color.BLACK, spriteCache);
+        winText = winFont.render("WELCOME HOME KITTY!");
+        messageFont = new HudFont(new Font("Arial", Font.BOLD, 15), Color.GREEN, spriteCache);
+        speedBoostField = new HudField(new HudFont(new Font("Arial", Font.BOLD, 20), Color.RED, spriteCache),
+                "Speed Boost: ", "s", spriteCache);
+        for (byte type = EndlessTrack.GRASS; type <= EndlessTrack.RAIL; type++) {
+            laneStrips[type] = spriteCache.opaque(WIDTH, GameSimulation.LANE_HEIGHT);
+        }
+        paintLaneStrips();
+    }
+
+    /**
+     * Draws at the given tier from the next frame on. Layers the tier changes are painted again
+     * once, when they are next drawn. Call it from the thread that draws.
+     */
+    public void setQuality(QualityTier tier) {
+        QualityTier old = quality;
+        quality = tier;
+        if (tier.translucent != old.translucent || tier.filtered != old.filtered || tier.laneMarkers != old.laneMarkers) {
+            staticLayer.invalidate();
+        }
+        if (tier.laneMarkers != old.laneMarkers) {
+            paintLaneStrips();
+        }
+        staticLayer.setScale(tier.renderScale);
+    }
+
+    public QualityTier getQuality() {
+        return quality;
+    }
+
+    /**
+     * Draws the level, power-ups and on-screen messages for the current state of the game.
+     * Alpha is how far we are between the last two steps.
+     */
+    public void draw(Graphics g, double alpha) {
+        draw(g, game, alpha);
+    }
+
+    /**
+     * Draws the given view of the game, e.g. a snapshot taken by the simulation thread.
+     */
+    public void draw(Graphics g, GameView view, double alpha) {
+        this.view = view;
+        g.setColor(background);
+        g.fillRect(0, 0, WIDTH, HEIGHT);
+        drawGame(g, alpha);  // Draw everything
+        // Draws health powerups and speedboosts, which share the fish treat image
+        PowerUpStore powerUps = view.getPowerUps();
+        BufferedImage powerUpSprite = assets.image(Asset.FISH_TREAT);
+        int camera = view.getCameraY();
+        for (int i = 0; i < powerUps.size(); i++) {
+            int y = powerUps.getY(i) - camera;
+            boolean onScreen = y + PowerUpStore.SIZE > 0 && y < HEIGHT;  // Endless mode keeps some out of view
+            if (onScreen && powerUpSprite != null) {
+                g.drawImage(powerUpSprite, powerUps.getX(i), y, null);
+            }
+        }
+        if (view.isSpeedBoostActive()) {
+            speedBoostField.draw(g, view.getSpeedBoostTimeLeft(), WIDTH - 200, 20);
+        }
+        String healthMessage = view.getHealthMessage();
+        if (!healthMessage.isEmpty()) {
+            if (!healthMessage.equals(shownMessage)) {
+                shownMessage = healthMessage;  // Only rendered again when the text changes
+                shownMessageImage = messageFont.render(healthMessage);
+            }
+            int messageX = (800 / 2) - 60; // Centered in window width
+            int messageY = 50; // Positioned near the top
+            messageFont.draw(g, shownMessageImage, messageX, messageY);
+        }
+    }
+
+    private void drawGame(Graphics g, double alpha) {
+        if (view.hasWon()) {
+            // Fill background with a visible color (e.g., light gray)
+            g.setColor(WIN_BACKGROUND);
+            g.fillRect(0, 0, WIDTH, HEIGHT);
+
+            int imgWidth = WIN_IMAGE_WIDTH;
+            int imgHeight = WIN_IMAGE_HEIGHT;
+            int x = WIDTH / 2 - imgWidth / 2;
+            int y = HEIGHT / 2 - imgHeight / 2;
+
+
+            BufferedImage winImage = assets.image(Asset.WIN_IMAGE);
+            if (winImage != null) {
+                g.drawImage(winImage, x, y, imgWidth, imgHeight, null);
+            }
+
+            // Then draw the "You Win!" text on top
+            int textX = WIDTH / 2 - winText.getWidth() / 2;
+            int textY = y + imgHeight + 50;  // Position below the image
+            winFont.draw(g, winText, textX, textY);
+
+            return;
+        }
+
+        // Background, lanes and house come pre-composited in one image
+        int level = view.getLevel();
+        int camera = view.getCameraY();
+        if (view.isEndless()) {
+            drawEndless(g, alpha, camera);  // Scrolls, so it can't use the static layer
+        } else {
+            staticLayer.draw(g, ((Graphics2D) g).getDeviceConfiguration(), level);
+            if (level == 1) {
+                drawRoadLevel(g, alpha);
+            } else if (level == 2) {
+                drawTrainLevel(g, alpha);
+            } else if (level == 3) {
+                drawNeighborhoodLevel(g, alpha);
+            }
+        }
+
+        int playerX = view.getPlayerX(), playerY = view.getPlayerY() - camera;
+        BufferedImage catSprite = assets.image(CATS[view.getSelectedCat()]);
+        if (catSprite != null) {
+            g.drawImage(catSprite, playerX, playerY, null);
+        } else {
+            g.setColor(Color.ORANGE);
+            g.fillRect(playerX, playerY, PLAYER_WIDTH, PLAYER_HEIGHT);
+        }
+
+        ProjectilePool projectiles = view.getProjectiles();
+        g.setColor(Color.GREEN);
+        for (int i = 0; i < projectiles.size(); i++) {
+            g.fillRect(projectiles.renderX(i, alpha), projectiles.renderY(i, alpha) - camera,
+                    GameSimulation.PROJECTILE_WIDTH, GameSimulation.PROJECTILE_HEIGHT);
+        }
+
+        if (view.isShieldActive() && quality.translucent) {
+            g.setColor(SHIELD_COLOR);
+            g.fillOval(playerX - 10, playerY - 10, PLAYER_WIDTH + 20, PLAYER_HEIGHT + 20);
+        } else if (view.isShieldActive()) {
+            g.setColor(Color.CYAN);  // An outline costs no blending
+            g.drawOval(playerX - 10, playerY - 10, PLAYER_WIDTH + 20, PLAYER_HEIGHT + 20);
+        }
+
+        if (view.isGameOver()) {
+            bannerFont.draw(g, gameOverText, WIDTH / 2 - 100, HEIGHT / 2);
+        }
+
+        if (view.isPaused()) {
+            bannerFont.draw(g, pausedText, WIDTH / 2 - 60, HEIGHT / 2);
+        }
+    }
+
+    /**
+     * Paints everything in a level that doesn't move into the static layer.
+     * Only called when the level changes or the cached layer has been lost.
+     */
+    private void paintStaticLayer(Graphics2D g2d, int level) {
+        g2d.setColor(background);
+        g2d.fillRect(0, 0, WIDTH, HEIGHT);
+        g2d.setRenderingHint(RenderingHints.KEY_INTERPOLATION, quality.filtered
+                ? RenderingHints.VALUE_INTERPOLATION_BILINEAR : RenderingHints.VALUE_INTERPOLATION_NEAREST_NEIGHBOR);
+        if (level == 1) {
+            g2d.drawImage(assets.image(Asset.ROAD_BACKGROUND), 0, 0, WIDTH, HEIGHT, null);
+            paintLanes(g2d, true);
+        } else if (level == 2) {
+            g2d.drawImage(assets.image(Asset.TRAIN_BACKGROUND), 0, 0, WIDTH, HEIGHT, null);
+            paintLanes(g2d, false);
+        } else if (level == 3) {
+            g2d.drawImage(assets.image(Asset.NEIGHBORHOOD_BACKGROUND), 0, 0, WIDTH, HEIGHT, null);
+            paintLanes(g2d, false);
+            // Draw the house at the top of the screen
+            BufferedImage houseImage = assets.image(Asset.HOUSE);
+            if (houseImage != null) {
+                g2d.drawImage(houseImage, HOUSE_X, HOUSE_Y, HOUSE_WIDTH, HOUSE_HEIGHT, null);
+            }
+        }
+    }
+
+    /**
+     * Paints the lanes, translucent unless the quality tier says otherwise, with dashed center
+     * lines on the road level if the tier has them.
+     */
+    private void paintLanes(Graphics2D g2d, boolean centerLines) {
+        centerLines &= quality.laneMarkers;
+        int laneHeight = 60;
+        int laneCount = 7;
+        int startY = 120;
+
+        for (int i = 0; i < laneCount; i++) {
+            int y = startY + i * laneHeight;
+
+            // Translucent dark gray lane
+            g2d.setComposite(quality.translucent ? AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 0.6f)
+                    : AlphaComposite.SrcOver);
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.fillRect(0, y, WIDTH, laneHeight);
+
+            if (centerLines) {
+                // Solid white dashed center lines
+                g2d.setComposite(AlphaComposite.getInstance(AlphaComposite.SRC_OVER, 1f));
+                g2d.setColor(Color.WHITE);
+                for (int x = 0; x < WIDTH; x += 40) {
+                    g2d.fillRect(x, y + laneHeight / 2 - 2, 20, 4);
+                }
+            }
+        }
+        g2d.setComposite(AlphaComposite.SrcOver);
+    }
+
+    private void paintLaneStrips() {
+        for (byte type = EndlessTrack.GRASS; type <= EndlessTrack.RAIL; type++) {
+            Graphics2D g2d = laneStrips[type].createGraphics();
+            try {
+                paintLaneStrip(g2d, type);
+            } finally {
+                g2d.dispose();
+            }
+        }
+    }
+
+    /**
+     * Paints one endless mode lane: plain grass, a road with a dashed center line, or a track.
+     */
+    private void paintLaneStrip(Graphics2D g2d, byte type) {
+        int laneHeight = GameSimulation.LANE_HEIGHT;
+        if (type == EndlessTrack.ROAD) {
+            g2d.setColor(Color.DARK_GRAY);
+            g2d.fillRect(0, 0, WIDTH, laneHeight);
+            g2d.setColor(Color.WHITE);
+            if (quality.laneMarkers) {
+                for (int x = 0; x < WIDTH; x += 40) {
+                    g2d.fillRect(x, laneHeight / 2 - 2, 20, 4);
+                }
+            }
+        } else if (type == EndlessTrack.RAIL) {
+            g2d.setColor(new Color(110, 90, 70));
+            g2d.fillRect(0, 0, WIDTH, laneHeight);
+            g2d.setColor(new Color(70, 50, 35));
+            for (int x = 0; x < WIDTH; x += 24) {
+                g2d.fillRect(x, 10, 10, laneHeight - 20);  // Sleepers
+            }
+            g2d.setColor(Color.LIGHT_GRAY);
+            g2d.fillRect(0, 16, WIDTH, 4);
+            g2d.fillRect(0, laneHeight - 20, WIDTH, 4);
+        } else {
+            g2d.setColor(new Color(80, 150, 60));
+            g2d.fillRect(0, 0, WIDTH, laneHeight);
+        }
+    }
+
+    /**
+     * Draws the endless track from the camera: only the rows on screen, and in them only the
+     * obstacles that are not in the stretch off the edge where they wrap around.
+     */
+    private void drawEndless(Graphics g, double alpha, int camera) {
+        EndlessTrack track = view.getTrack();
+        BufferedImage[] highwayFrames = assets.frames(Asset.HIGHWAY_SPRITES), trainFrames = assets.frames(Asset.TRAIN_SPRITES);
+        int bottomRow = EndlessTrack.rowOf(camera + HEIGHT - 1), topRow = EndlessTrack.rowOf(camera);
+        for (int row = bottomRow; row <= topRow; row++) {
+            int slot = track.slotOf(row);
+            byte type = slot < 0 ? EndlessTrack.GRASS : track.getType(slot);
+            g.drawImage(laneStrips[type], 0, EndlessTrack.rowTop(row) - camera, null);
+        }
+        for (int row = bottomRow; row <= topRow; row++) {
+            int slot = track.slotOf(row);
+            if (slot < 0) continue;
+            BufferedImage[] frames = track.getType(slot) == EndlessTrack.RAIL ? trainFrames : highwayFrames;
+            if (frames == null) continue;
+            int y = track.getObstacleY(slot) - camera;
+            for (int k = 0; k < track.getCount(slot); k++) {
+                int i = EndlessTrack.obstacle(slot, k);
+                BufferedImage frame = frames[track.getSprite(i) % frames.length];
+                int x = track.renderX(i, alpha);
+                if (frame != null && x + frame.getWidth() > 0 && x < WIDTH) {
+                    g.drawImage(frame, x, y, null);
+                }
+            }
+        }
+    }
+
+    private void drawRoadLevel(Graphics g, double alpha) {
+        drawObstacles(g, alpha, assets.frames(Asset.HIGHWAY_SPRITES));
+    }
+
+    private void drawTrainLevel(Graphics g, double alpha) {
+        drawObstacles(g, alpha, assets.frames(Asset.TRAIN_SPRITES));
+    }
+
+    private void drawNeighborhoodLevel(Graphics g, double alpha) {
+        drawObstacles(g, alpha, assets.frames(Asset.SQUIRREL_SPRITES));
+    }
+
+    /**
+     * Draws every obstacle using its pre-scaled frame from the sprite cache.
+     */
+    private void drawObstacles(Graphics g, double alpha, BufferedImage[] frames) {
+        if (frames == null) return;
+        ObstacleStore obstacles = view.getObstacles();
+        for (int i = 0; i < obstacles.size(); i++) {
+            BufferedImage frame = frames[obstacles.getSprite(i) % frames.length];  // Keep the index within the sheet
+            if (frame != null) {
+                g.drawImage(frame, obstacles.renderX(i, alpha), obstacles.getY(i), null);
+            }
+        }
+    }
+
+    /**
+     * Loads every image right away on the calling thread, for tools that draw without a loading
+     * screen. An image that fails to load is reported and left out.
+     */
+    public void loadAll() {
+        assets.loadImagesNow();
+    }
+}
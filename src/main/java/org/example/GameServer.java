@@ -0,0 +1,250 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+/**
+ * Headless server that hosts many independent games in one process, each played by a remote
+ * client over {@link ServerProtocol}. The server owns every game: clients only send their key
+ * presses, it picks the seeds and runs the same rules as the desktop game, so its results can be
+ * trusted for a leaderboard.
+ *
+ * <p>One I/O thread handles every connection with a selector, never blocking on a client. The
+ * games are stepped by a shared {@link TickScheduler}; after each tick the I/O thread sends
+ * every client its new state.
+ *
+ * <pre>
+ * java -cp target/classes org.example.GameServer --port=7777 --workers=3 --tickRate=60
+ * </pre>
+ * Workers are tick threads on top of the scheduler's own, by default one per core besides it.
+ * With --scores=crossey-scores.log every finished game is saved to that {@link ScoreStore}.
+ */
+public class GameServer implements Runnable {
+
+    private static final long STATS_MILLIS = 5000;
+
+    private final ServerSocketChannel server;
+    private final Selector selector;
+    private final TickScheduler scheduler;
+    private final SplittableRandom seeds;       // I/O thread only
+    private final ScoreStore scores;            // Null if finished games aren't saved
+    private final CollisionMasks masks;         // Every session's game collides with these
+    private final List<ServerSession> sessions = new ArrayList<>();  // I/O thread only
+    private int nextId = 1;
+    private volatile boolean flushRequested = false;
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * Opens the listening socket; nothing is accepted or ticked until start.
+     */
+    public GameServer(InetSocketAddress address, int tickRate, int workers, Difficulty difficulty, long seed) throws IOException {
+        this(address, tickRate, workers, difficulty, seed, null);
+    }
+
+    /**
+     * Opens the listening socket and saves every finished game to scores, which may be null. The
+     * games collide with the masks of the game's own sprites, so a missing sprite fails here rather
+     * than on the first connection.
+     */
+    public GameServer(InetSocketAddress address, int tickRate, int workers, Difficulty difficulty, long seed,
+                      ScoreStore scores) throws IOException {
+        this(address, tickRate, workers, difficulty, seed, scores, CollisionMasks.shared());
+    }
+
+    /**
+     * Opens the listening socket for games that collide with the given masks, saving every
+     * finished one to scores, which may be null.
+     */
+    public GameServer(InetSocketAddress address, int tickRate, int workers, Difficulty difficulty, long seed,
+                      ScoreStore scores, CollisionMasks masks) throws IOException {
+        this.masks = masks;
+        this.selector = Selector.open();
+        this.server = ServerSocketChannel.open();
+        server.bind(address, 1024);
+        server.configureBlocking(false);
+        server.register(selector, SelectionKey.OP_ACCEPT);
+        this.scheduler = new TickScheduler(tickRate, difficulty, workers, this::requestFlush);
+        this.seeds = new SplittableRandom(seed);
+        this.scores = scores;
+    }
+
+    /**
+     * Port the server listens on, useful when it was bound to port 0.
+     */
+    public int getPort() throws IOException {
+        return ((InetSocketAddress) server.getLocalAddress()).getPort();
+    }
+
+    public TickScheduler getScheduler() {
+        return scheduler;
+    }
+
+    /**
+     * Starts the I/O thread and the tick scheduler.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "server-io");
+        thread.setDaemon(true);
+        thread.start();
+        scheduler.start();
+    }
+
+    /**
+     * Stops ticking and disconnects every client.
+     */
+    public synchronized void stop() {
+        running = false;
+        scheduler.stop();
+        selector.wakeup();
+    }
+
+    // Called by the scheduler after every tick
+    private void requestFlush() {
+        flushRequested = true;
+        selector.wakeup();
+    }
+
+    @Override
+    public void run() {
+        try {
+            while (running) {
+                selector.select(this::handle);
+                if (flushRequested) {
+                    flushRequested = false;
+                    for (int i = sessions.size() - 1; i >= 0; i--) {
+                        flush(sessions.get(i));
+                    }
+                }
+            }
+        } catch (IOException e) {
+            System.err.println("Server stopped: " + e.getMessage());
+        } finally {
+            for (int i = sessions.size() - 1; i >= 0; i--) {
+                close(sessions.get(i));
+            }
+            try {
+                server.close();
+                selector.close();
+            } catch (IOException ignored) {
+                // Shutting down anyway
+            }
+        }
+    }
+
+    private void handle(SelectionKey key) {
+        if (!key.isValid()) return;
+        if (key.isAcceptable()) {
+            accept();
+            return;
+        }
+        ServerSession session = (ServerSession) key.attachment();
+        try {
+            if (key.isReadable() && !session.read(seeds.nextLong())) {
+                close(session);
+                return;
+            }
+            if (key.isValid() && key.isWritable()) {
+                session.flush();
+            }
+        } catch (IOException e) {
+            close(session);
+        }
+    }
+
+    private void accept() {
+        try {
+            SocketChannel channel;
+            while ((channel = server.accept()) != null) {
+                channel.configureBlocking(false);
+                channel.setOption(StandardSocketOptions.TCP_NODELAY, true);  // States are small and due now
+                SelectionKey key = channel.register(selector, SelectionKey.OP_READ);
+                ServerSession session = new ServerSession(nextId++, channel, key, scores, masks);
+                key.attach(session);
+                sessions.add(session);
+                scheduler.add(session);
+            }
+        } catch (IOException e) {
+            System.err.println("Could not accept a connection: " + e.getMessage());
+        }
+    }
+
+    private void flush(ServerSession session) {
+        try {
+            session.flush();
+        } catch (IOException e) {
+            close(session);
+        }
+    }
+
+    private void close(ServerSession session) {
+        if (session.isClosed()) return;
+        session.close();
+        int i = sessions.indexOf(session);
+        int last = sessions.size() - 1;
+        sessions.set(i, sessions.get(last));  // Order doesn't matter
+        sessions.remove(last);
+    }
+
+    public static void main(String[] args) throws Exception {
+        int port = 7777;
+        int workers = Math.max(0, Runtime.getRuntime().availableProcessors() - 1);
+        int tickRate = 60;
+        long seed = System.nanoTime();
+        String scoresFile = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.println("Unknown argument " + arg + ", expected --name=value");
+                System.exit(2);
+            }
+            String name = arg.substring(2, eq), value = arg.substring(eq + 1);
+            switch (name) {
+                case "port": port = Integer.parseInt(value); break;
+                case "workers": workers = Integer.parseInt(value); break;
+                case "tickRate": tickRate = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                case "scores": scoresFile = value; break;
+                default:
+                    System.err.println("Unknown option --" + name);
+                    System.exit(2);
+            }
+        }
+
+        ScoreStore scores = scoresFile != null ? ScoreStore.open(new File(scoresFile)) : null;
+        if (scores != null) {
+            Runtime.getRuntime().addShutdownHook(new Thread(scores::close, "score-store"));
+        }
+        CollisionMasks masks = CollisionMasks.load(AssetSource.open());
+        GameServer server = new GameServer(new InetSocketAddress(port), tickRate, workers, Difficulty.DEFAULT, seed, scores, masks);
+        server.start();
+        System.out.printf("Listening on port %d, %d ticks/s on %d threads%n", server.getPort(), tickRate,
+                server.getScheduler().getThreadCount());
+        TickScheduler.Stats stats = new TickScheduler.Stats();
+        ScoreStore.Stats scoreStats = new ScoreStore.Stats();
+        while (true) {
+            Thread.sleep(STATS_MILLIS);
+            server.getScheduler().takeStats(stats);
+            System.out.printf("%d sessions, %.0f ticks/s, tick p50 %.2f ms p99 %.2f ms max %.2f ms, %d late, "
+                            + "%.2f cores busy, %d states dropped%n",
+                    stats.sessions, stats.ticks / stats.seconds, stats.tickP50 / 1e6, stats.tickP99 / 1e6,
+                    stats.tickMax / 1e6, stats.overruns, stats.coresBusy(), stats.droppedStates);
+            if (scores != null) {
+                scores.takeStats(scoreStats);
+                System.out.printf("%d runs saved in %d commits, commit p99 %.2f ms, %d runs in the log%n",
+                        scoreStats.records, scoreStats.commits, scoreStats.commitP99 / 1e6, scoreStats.logRecords);
+            }
+        }
+    }
+}
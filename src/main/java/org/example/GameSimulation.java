@@ -0,0 +1,699 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * The rules of the game without any display: player movement, obstacles, power-ups,
+ * projectiles, collisions, levels and the countdown. In endless mode the levels and the
+ * countdown are replaced by an {@link EndlessTrack} the camera scrolls up along.
+ * Each call to {@link #step()} advances the game by one fixed tick. Time is counted in ticks and
+ * randomness and input are injected, so a run can be repeated exactly and stepped as fast as the
+ * CPU allows. Everything that expires (countdown, cooldown, boosts, shield, messages) is a timer
+ * on one wheel advanced by the tick.
+ * Once a level has been set up, stepping allocates nothing.
+ */
+public class GameSimulation implements GameView {
+
+    // Constants for the playing field and object dimensions
+    public static final int WIDTH = 800, HEIGHT = 600;
+    public static final int PLAYER_WIDTH = 50, PLAYER_HEIGHT = 50;
+    public static final int OBSTACLE_WIDTH = 40, OBSTACLE_HEIGHT = 30;
+    // Obstacles are drawn and collide bigger than that: cars and squirrels 1.3x, trains wider still
+    public static final int CAR_WIDTH = (int) (OBSTACLE_WIDTH * 1.3), CAR_HEIGHT = (int) (OBSTACLE_HEIGHT * 1.3);
+    public static final int TRAIN_WIDTH = (int) (OBSTACLE_WIDTH * 1.8), TRAIN_HEIGHT = (int) (OBSTACLE_HEIGHT * 1.5);
+    public static final int PROJECTILE_WIDTH = 5, PROJECTILE_HEIGHT = 10;
+    public static final int BASE_PLAYER_SPEED = 10;  // Pixels per key press
+    public static final int PROJECTILE_SPEED = 500;  // Pixels per second
+    public static final int OBSTACLE_SPEED = 200, TRAIN_SPEED = 300;  // Pixels per second
+    public static final int MAX_HEALTH = 3;
+    public static final int LAST_LEVEL = 3;
+
+    // The playing field is 7 lanes of 60 pixels starting at y = 120
+    public static final int LANE_TOP = 120, LANE_HEIGHT = 60, LANE_COUNT = 7;
+    private static final int[] TRACK_Y = {150, 210, 270, 330, 390, 450, 510};  // Train Y positions
+
+    //Constants for the level 3 ending house
+    public static final int HOUSE_WIDTH = 200;
+    public static final int HOUSE_HEIGHT = 150;
+    public static final int HOUSE_X = WIDTH / 2 - HOUSE_WIDTH / 2;
+    public static final int HOUSE_Y = 10;
+
+    // Durations in milliseconds of simulated time, turned into ticks when scheduled
+    public static final int SHIELD_DURATION = 5000;         // Shield lasts for 5 seconds
+    public static final int FIRE_COOLDOWN = 500;            // Time between shots
+    public static final int SPEED_BOOST_DURATION = 6000;    // Counts down 5..0, one step a second
+    public static final int RAPID_FIRE_COOLDOWN = 100;      // Time between shots with rapid fire
+    public static final int WEAPON_DURATION = 8000;         // Rapid fire and spread shot last for 8 seconds
+    public static final int HEALTH_MESSAGE_DURATION = 2000; // Show for 2 seconds
+    public static final int TIME_LIMIT = 60;                // Seconds to finish the game
+
+    public static final int MAX_PROJECTILES = 256;          // Shots in flight at once, more are dropped
+    public static final int SPREAD_DRIFT = 150;             // Sideways speed of the outer spread shots, pixels per second
+
+    private static final int CAMERA_LEAD = HEIGHT - 240;    // Endless camera keeps the player this far below the top
+
+    private final int tickRate;              // Ticks per simulated second
+    private final Difficulty difficulty;     // Obstacle counts, speeds and power-ups
+    private final GameMode mode;
+    private final EndlessTrack track;        // Lanes of endless mode, null when playing the levels
+    private final TimerWheel timers = new TimerWheel();  // Only advances while the game is running
+    private final InputSource input;
+    private final Random rand;               // Only source of randomness, seeded for repeatable runs
+    private final CollisionMasks masks;      // Sprite shapes for pixel-exact collisions
+    private SimulationListener listener = SimulationListener.NONE;
+
+    private long tick = 0;  // Ticks stepped so far
+
+    // Game state variables
+    private int level = 1;  // Current game level
+    private int health = MAX_HEALTH;  // Player's health
+    private int score = 0;  // Player's score
+    private boolean gameOver = false;  // Out of health or out of time
+    private boolean paused = false;
+    private boolean won = false;  // Reached the house
+    private int remainingTime = TIME_LIMIT;  // Countdown in seconds
+
+    // Player position (Starting position of the player within each level)
+    private int playerX = WIDTH / 2;
+    private int playerY = HEIGHT - 60;
+    private int playerSpeed = BASE_PLAYER_SPEED;
+    private boolean fireReady = true;  // False during the cooldown after a shot
+
+    // Endless mode: top of the view in world coordinates, and the highest row reached
+    private int cameraY = 0;
+    private int bestRow = 0;
+
+    private int selectedCat = 0;  // 0: Yoda, 1: Alpha, 2: Explorer
+
+    // Shield, speed boost and health message, each ended by its timer
+    private boolean shieldActive = false;
+    private boolean speedBoostActive = false;
+    private long speedBoostStartTick;  // Wheel tick the current boost started on
+    private boolean rapidFire = false, spreadShot = false;  // Weapon power-ups
+    private String healthMessage = "";
+
+    // Handles of the pending timers, so a new shield or boost can restart them
+    private int countdownTimer = -1, shieldTimer = -1, speedBoostTimer = -1, healthMessageTimer = -1;
+    private int rapidFireTimer = -1, spreadShotTimer = -1;
+
+    // Timer actions, created once so scheduling doesn't allocate
+    private final Runnable countdownAction = this::countDown;
+    private final Runnable fireReadyAction = () -> fireReady = true;
+    private final Runnable shieldEndAction = () -> shieldActive = false;
+    private final Runnable speedBoostEndAction = () -> {
+        speedBoostActive = false;
+        playerSpeed = BASE_PLAYER_SPEED;  // Reset speed
+    };
+    private final Runnable healthMessageEndAction = () -> healthMessage = "";  // Clear message when time expires
+    private final Runnable rapidFireEndAction = () -> rapidFire = false;
+    private final Runnable spreadShotEndAction = () -> spreadShot = false;
+
+    // Fractional pixels carried over between ticks so speeds stay exact at any tick rate
+    private double obstacleTravel, projectileTravel;
+
+    // Optional timing of the collision phase, for the frame profiler
+    private boolean timingCollisions = false;
+    private long collisionNanos;
+
+    // Obstacles (indexed by lane for collisions), power-ups and projectiles, stored as primitive arrays
+    private final ObstacleStore obstacles = new ObstacleStore(16, LANE_TOP, LANE_HEIGHT, LANE_COUNT);
+    private final PowerUpStore powerUps = new PowerUpStore(4);
+    private final ProjectilePool projectiles = new ProjectilePool(MAX_PROJECTILES);
+    private final int[] hitObstacles = new int[MAX_PROJECTILES];  // Obstacles shot this tick, removed after the pass
+
+    /**
+     * Creates a simulation stepped tickRate times per simulated second, at the default difficulty.
+     */
+    public GameSimulation(long seed, int tickRate, InputSource input) {
+        this(seed, tickRate, Difficulty.DEFAULT, input);
+    }
+
+    /**
+     * Creates a simulation stepped tickRate times per simulated second with the given difficulty.
+     */
+    public GameSimulation(long seed, int tickRate, Difficulty difficulty, InputSource input) {
+        this(seed, tickRate, difficulty, GameMode.LEVELS, input);
+    }
+
+    /**
+     * Creates a simulation of the given mode stepped tickRate times per simulated second, colliding
+     * with the masks of the game's own sprites ({@link CollisionMasks#shared()}). Throws
+     * IllegalStateException if those can't be loaded.
+     */
+    public GameSimulation(long seed, int tickRate, Difficulty difficulty, GameMode mode, InputSource input) {
+        this(seed, tickRate, difficulty, mode, input, CollisionMasks.shared());
+    }
+
+    /**
+     * Creates a simulation of the given mode stepped tickRate times per simulated second, colliding
+     * with the given masks. A run only plays out the same again with the same masks.
+     */
+    public GameSimulation(long seed, int tickRate, Difficulty difficulty, GameMode mode, InputSource input,
+                          CollisionMasks masks) {
+        if (tickRate <= 0) {
+            throw new IllegalArgumentException("tickRate must be positive: " + tickRate);
+        }
+        this.tickRate = tickRate;
+        this.difficulty = difficulty;
+        this.mode = mode;
+        this.input = input;
+        this.masks = masks;
+        this.rand = new Random(seed);
+        if (mode == GameMode.ENDLESS) {
+            track = new EndlessTrack(seed, tickRate, difficulty, powerUps);  // No countdown, it runs until health is gone
+        } else {
+            track = null;
+            countdownTimer = timers.schedule(ticks(1000), countdownAction);
+            createObstacles();  // Create initial obstacles
+        }
+    }
+
+    public void setListener(SimulationListener listener) {
+        this.listener = listener != null ? listener : SimulationListener.NONE;
+    }
+
+    /**
+     * Advances the game by one tick: applies this tick's input, then moves everything, resolves
+     * collisions and runs the timers that are due. While paused only the input is applied.
+     */
+    public void step() {
+        tick++;
+        GameAction action;
+        while ((action = input.poll(tick)) != null) {
+            apply(action);
+        }
+        if (isFinished() || paused) return;
+
+        if (track != null) {
+            followPlayer();
+        }
+        moveObstacles();
+        moveProjectiles();
+        if (timingCollisions) {
+            long start = System.nanoTime();
+            checkCollisions();
+            collisionNanos += System.nanoTime() - start;
+        } else {
+            checkCollisions();
+        }
+        if (!isFinished()) {
+            timers.advance();
+        }
+    }
+
+    /**
+     * Turns timing of the collision phase on or off. Timing never changes the outcome of a step.
+     */
+    public void setTimingCollisions(boolean timingCollisions) {
+        this.timingCollisions = timingCollisions;
+    }
+
+    /**
+     * Nanoseconds spent checking collisions since the last call, while timing was on.
+     */
+    public long takeCollisionNanos() {
+        long nanos = collisionNanos;
+        collisionNanos = 0;
+        return nanos;
+    }
+
+    /**
+     * Whether the game has ended, by winning or losing.
+     */
+    public boolean isFinished() {
+        return gameOver || won;
+    }
+
+    /**
+     * Applies one player action to the game state.
+     */
+    private void apply(GameAction action) {
+        if (action == GameAction.PAUSE) {
+            if (!isFinished()) paused = !paused;
+            return;
+        }
+        if (paused) return;  // Everything else waits until the game is resumed
+        switch (action) {
+            case MOVE_UP:
+                if (playerY > -10 || track != null) playerY -= playerSpeed;  // Endless mode has no top
+                break;
+            case MOVE_LEFT:
+                if (playerX > 0) playerX -= playerSpeed;
+                break;
+            case MOVE_RIGHT:
+                if (playerX + PLAYER_WIDTH < WIDTH) playerX += playerSpeed;
+                break;
+            case SHIELD:
+                activateShield();
+                break;
+            case FIRE:
+                // Only one shot every half second, or every tenth of a second with rapid fire
+                if (fireReady) {
+                    int x = playerX + PLAYER_WIDTH / 2;
+                    projectiles.add(x, playerY, 0);
+                    if (spreadShot) {
+                        projectiles.add(x, playerY, -SPREAD_DRIFT);
+                        projectiles.add(x, playerY, SPREAD_DRIFT);
+                    }
+                    fireReady = false;
+                    timers.schedule(ticks(rapidFire ? RAPID_FIRE_COOLDOWN : FIRE_COOLDOWN), fireReadyAction);
+                }
+                break;
+            case NEXT_CAT:
+                selectedCat = (selectedCat + 1) % 3;  // Cycle cat selection
+                listener.onCatChanged(selectedCat);
+                break;
+        }
+    }
+
+    /**
+     * Drops the countdown by a second, ending the game when it runs out.
+     */
+    private void countDown() {
+        remainingTime--;
+        listener.onTimeChanged(remainingTime);
+        if (remainingTime <= 0) {
+            gameOver = true;
+            listener.onTimeUp();
+        } else {
+            countdownTimer = timers.schedule(ticks(1000), countdownAction);
+        }
+    }
+
+    /**
+     * Stops the countdown so the game never runs out of time, for benchmarks and tools.
+     */
+    void stopCountdown() {
+        timers.cancel(countdownTimer);
+    }
+
+    /**
+     * Number of ticks covering the given milliseconds of simulated time, at least one.
+     */
+    private long ticks(long millis) {
+        return Math.max(1, (millis * tickRate + 999) / 1000);
+    }
+
+    /**
+     * Scores every row the player climbs to for the first time, moves the camera with the player
+     * and lets the endless track generate what lies ahead.
+     */
+    private void followPlayer() {
+        int row = EndlessTrack.rowOf(playerY + PLAYER_HEIGHT / 2);
+        if (row > bestRow) {
+            score += 10 * (row - bestRow);
+            bestRow = row;
+            listener.onScoreChanged(score);
+        }
+        track.follow(row);
+        moveCamera();
+    }
+
+    // Keeps the player in the lower part of the view, never showing anything below the start
+    private void moveCamera() {
+        cameraY = Math.min(0, playerY - CAMERA_LEAD);
+    }
+
+    /**
+     * Moves obstacles across the screen based on game level.
+     */
+    private void moveObstacles() {
+        if (track != null) {
+            track.update(cameraY);
+            return;
+        }
+        int speed = (level == 2) ? difficulty.trainSpeed() : difficulty.obstacleSpeed();  // Set speed based on level
+        obstacleTravel += (double) speed / tickRate;
+        int step = (int) obstacleTravel;  // Whole pixels to move this tick
+        obstacleTravel -= step;
+        for (int i = 0; i < obstacles.size(); i++) {
+            if (obstacles.getX(i) + step > WIDTH) {
+                obstacles.teleport(i, -rand.nextInt(400));  // Wrap around without interpolating across the screen
+            } else {
+                obstacles.translate(i, step);
+            }
+        }
+        obstacles.finishMoves();  // Only wrapped obstacles changed places in the lane index
+    }
+
+    /**
+     * Moves the projectiles upward, dropping the ones that leave the screen.
+     */
+    private void moveProjectiles() {
+        if (projectiles.size() > 0) {
+            projectileTravel += (double) PROJECTILE_SPEED / tickRate;
+            int step = (int) projectileTravel;  // All shots fly at the same speed
+            projectileTravel -= step;
+            projectiles.move(step, tickRate, cameraY, WIDTH);
+        }
+    }
+
+    private void activateShield() {
+        shieldActive = true;
+        timers.cancel(shieldTimer);  // Activating again restarts the shield's time
+        shieldTimer = timers.schedule(ticks(SHIELD_DURATION), shieldEndAction);
+    }
+
+    /**
+     * Whether the shield is protecting the player right now.
+     */
+    public boolean isShieldActive() {
+        return shieldActive;
+    }
+
+    /**
+     * Creates new obstacles at random positions.
+     */
+    private void createObstacles() {
+        obstacles.clear();  // Clear existing obstacles
+        if (level == 2) {  // Train level
+            for (int i = 0; i < difficulty.trainObstacles(); i++) {
+                int y = TRACK_Y[rand.nextInt(TRACK_Y.length)];  // Randomize obstacle Y position
+                int x = -rand.nextInt(WIDTH);  // Randomize obstacle X position
+                int spriteIndex = rand.nextInt(4); // Fixed sprite per obstacle
+                obstacles.add(x, y, TRAIN_WIDTH, TRAIN_HEIGHT, spriteIndex);
+            }
+        } else { // Other levels
+            for (int i = 0; i < difficulty.roadObstacles(); i++) {
+                int x = rand.nextInt(WIDTH);  // Random X position
+                int y = difficulty.spawnTop() + rand.nextInt(difficulty.spawnHeight());  // Random Y position
+                int spriteIndex = rand.nextInt(4); // Fixed sprite per obstacle
+                obstacles.add(x, y, CAR_WIDTH, CAR_HEIGHT, spriteIndex);
+            }
+        }
+    }
+
+    /**
+     * Places the health and speed power-ups for a new level.
+     */
+    private void createPowerUps() {
+        powerUps.clear(); // Remove previous power-ups
+
+        // Generate power-ups at random positions, a health and a speed one per pair
+        for (int i = 0; i < difficulty.powerUpPairs(); i++) {
+            int x = rand.nextInt(WIDTH - PowerUpStore.SIZE);
+            int y = rand.nextInt(HEIGHT - PowerUpStore.SIZE);
+            powerUps.add(x, y, PowerUpType.HEALTH);
+            powerUps.add(x, y, PowerUpType.SPEED);
+        }
+    }
+
+    /**
+     * Checks for collisions between player, obstacles, power-ups and the projectile, and for level changes.
+     */
+    private void checkCollisions() {
+        if (level == LAST_LEVEL
+                && LaneIndex.intersects(playerX, playerY, PLAYER_WIDTH, PLAYER_HEIGHT, HOUSE_X, HOUSE_Y, HOUSE_WIDTH, HOUSE_HEIGHT)) {
+            won = true;
+            return;
+        }
+
+        // Detect when player collects a power-up
+        for (int i = 0; i < powerUps.size(); i++) {
+            if (LaneIndex.intersects(playerX, playerY, PLAYER_WIDTH, PLAYER_HEIGHT,
+                    powerUps.getX(i), powerUps.getY(i), PowerUpStore.SIZE, PowerUpStore.SIZE)) {
+                switch (powerUps.getType(i)) {
+                    case HEALTH:
+                        health = Math.min(health + 1, MAX_HEALTH); // Ensure health doesn't exceed max
+                        listener.onHealthChanged(health);
+                        healthMessage = "Health Restored!";
+                        timers.cancel(healthMessageTimer);
+                        healthMessageTimer = timers.schedule(ticks(HEALTH_MESSAGE_DURATION), healthMessageEndAction);
+                        break;
+                    case SPEED:
+                        // Double speed; another boost while one is running restarts it rather than stacking
+                        playerSpeed = BASE_PLAYER_SPEED * 2;
+                        speedBoostActive = true;
+                        speedBoostStartTick = timers.now();
+                        timers.cancel(speedBoostTimer);
+                        speedBoostTimer = timers.schedule(ticks(SPEED_BOOST_DURATION), speedBoostEndAction);
+                        break;
+                    case RAPID_FIRE:
+                        rapidFire = true;
+                        timers.cancel(rapidFireTimer);
+                        rapidFireTimer = timers.schedule(ticks(WEAPON_DURATION), rapidFireEndAction);
+                        break;
+                    case SPREAD_SHOT:
+                        spreadShot = true;
+                        timers.cancel(spreadShotTimer);
+                        spreadShotTimer = timers.schedule(ticks(WEAPON_DURATION), spreadShotEndAction);
+                        break;
+                }
+                powerUps.remove(i); // Remove collected power-up
+                break;
+            }
+        }
+
+        // Check for player collisions with obstacles, only in the lanes the player overlaps
+        if (firstObstacleHit(playerX, playerY, masks.cats[selectedCat]) >= 0) {
+            if (isShieldActive()) {
+                return;
+            }
+            health--;
+            listener.onHealthChanged(health);
+            listener.onCrash();
+            resetPlayerPosition();
+            if (health <= 0) {
+                gameOver = true;
+            }
+            return;
+        }
+
+        // Check for projectiles hitting obstacles
+        if (projectiles.size() > 0) {
+            shootObstacles();
+        }
+
+        // Check if player leveled up
+        if (playerY < 0 && track == null) {
+            level++;
+            listener.onLevelChanged(level);
+            if (level > LAST_LEVEL) {
+                won = true;  // Game win condition
+                return;
+            }
+            loadLevel(level);
+        }
+    }
+
+    /**
+     * Sets up a level from scratch: player back at the start, new obstacles and power-ups.
+     */
+    void loadLevel(int level) {
+        this.level = level;
+        resetPlayerPosition();
+        createObstacles();
+        createPowerUps();
+    }
+
+    /**
+     * Tests every projectile against the obstacles in one pass. Obstacles that were hit are only
+     * collected during the pass and removed together afterwards, so the obstacle indexes stay
+     * valid while testing, and two shots hitting the same obstacle on one tick score it once.
+     */
+    private void shootObstacles() {
+        int hits = 0;
+        // Backwards, so a removal only moves in a projectile that has already been tested
+        for (int i = projectiles.size() - 1; i >= 0; i--) {
+            int hit = firstObstacleHit(projectiles.getX(i), projectiles.getY(i), masks.projectile);
+            if (hit >= 0) {
+                hitObstacles[hits++] = hit;
+                projectiles.remove(i);
+            }
+        }
+        if (hits == 0) return;
+
+        // Highest index first: a swap-remove only moves in the last obstacle, which is never one still to remove
+        Arrays.sort(hitObstacles, 0, hits);
+        for (int h = hits - 1; h >= 0; h--) {
+            if (h < hits - 1 && hitObstacles[h] == hitObstacles[h + 1]) continue;  // Already removed
+            if (track != null) {
+                track.remove(hitObstacles[h]);
+            } else {
+                obstacles.remove(hitObstacles[h]);
+            }
+            score += 10;
+        }
+        listener.onScoreChanged(score);
+    }
+
+    /**
+     * Returns the obstacle whose sprite overlaps the shape drawn at (x, y), from whichever store
+     * the mode uses, or -1. Boxes are tested first and masks only where boxes overlap.
+     */
+    private int firstObstacleHit(int x, int y, SpriteMask shape) {
+        return track != null ? track.firstHit(x, y, shape, masks) : obstacles.firstHit(x, y, shape, masks.obstacles(level));
+    }
+
+    /**
+     * Whether an obstacle's box overlaps the given rectangle, in world coordinates.
+     */
+    public boolean isObstacleAt(int x, int y, int width, int height) {
+        return (track != null ? track.firstHit(x, y, width, height) : obstacles.firstHit(x, y, width, height)) >= 0;
+    }
+
+    /**
+     * Resets the player's position to the starting point, or in endless mode to the last checkpoint.
+     */
+    private void resetPlayerPosition() {
+        playerX = WIDTH / 2;
+        if (track != null) {
+            playerY = track.getCheckpointY();
+            moveCamera();
+        } else {
+            playerY = HEIGHT - 60;
+        }
+    }
+
+    /**
+     * Moves the player straight up to the given row of the endless track, generating everything
+     * on the way, for benchmarks and tools.
+     */
+    void skipToRow(int row) {
+        playerY = EndlessTrack.rowTop(row);
+        bestRow = Math.max(bestRow, row);
+        track.follow(row);
+        moveCamera();
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public Difficulty getDifficulty() {
+        return difficulty;
+    }
+
+    public GameMode getMode() {
+        return mode;
+    }
+
+    public boolean isEndless() {
+        return track != null;
+    }
+
+    /**
+     * Lanes of endless mode, or null when playing the levels. Only read it from the thread that
+     * steps the simulation.
+     */
+    public EndlessTrack getTrack() {
+        return track;
+    }
+
+    /**
+     * Top of the view in world coordinates; always 0 outside endless mode.
+     */
+    public int getCameraY() {
+        return cameraY;
+    }
+
+    /**
+     * Highest row the player has reached in endless mode.
+     */
+    public int getDistance() {
+        return bestRow;
+    }
+
+    public int getLevel() {
+        return level;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Whether the game is paused, which also holds every timer.
+     */
+    public boolean isPaused() {
+        return paused;
+    }
+
+    public boolean isGameOver() {
+        return gameOver;
+    }
+
+    public boolean hasWon() {
+        return won;
+    }
+
+    public int getRemainingTime() {
+        return remainingTime;
+    }
+
+    public int getPlayerX() {
+        return playerX;
+    }
+
+    public int getPlayerY() {
+        return playerY;
+    }
+
+    public int getPlayerSpeed() {
+        return playerSpeed;
+    }
+
+    public int getSelectedCat() {
+        return selectedCat;
+    }
+
+    /**
+     * Live projectile pool; only read it from the thread that steps the simulation.
+     */
+    public ProjectilePool getProjectiles() {
+        return projectiles;
+    }
+
+    public boolean isRapidFireActive() {
+        return rapidFire;
+    }
+
+    public boolean isSpreadShotActive() {
+        return spreadShot;
+    }
+
+    /**
+     * Whether a speed boost is running, i.e. its countdown should be shown.
+     */
+    public boolean isSpeedBoostActive() {
+        return speedBoostActive;
+    }
+
+    /**
+     * Seconds shown on the speed boost countdown: 5 for the first two seconds, then down to 0.
+     */
+    public int getSpeedBoostTimeLeft() {
+        long elapsedSeconds = (timers.now() - speedBoostStartTick) / tickRate;
+        return (int) Math.max(0, 5 - Math.max(0, elapsedSeconds - 1));
+    }
+
+    /**
+     * The health message if it is still being shown, otherwise an empty string.
+     */
+    public String getHealthMessage() {
+        return healthMessage;
+    }
+
+    /**
+     * Live obstacle store; only read it from the thread that steps the simulation.
+     */
+    public ObstacleStore getObstacles() {
+        return obstacles;
+    }
+
+    /**
+     * Live power-up store; only read it from the thread that steps the simulation.
+     */
+    public PowerUpStore getPowerUps() {
+        return powerUps;
+    }
+}
@@ -0,0 +1,97 @@
+package org.example;
+
+/**
+ * A copy of everything the renderer draws, taken by the simulation thread right after a tick.
+ * The render thread draws from a snapshot while the simulation steps on, so neither ever waits
+ * for the other. Snapshots are reused: {@link #copyFrom} overwrites one in place and only
+ * allocates when a store has to grow past anything it held before.
+ */
+public class GameSnapshot implements GameView {
+
+    private final ObstacleStore obstacles = new ObstacleStore(16, GameSimulation.LANE_TOP,
+            GameSimulation.LANE_HEIGHT, GameSimulation.LANE_COUNT);
+    private final PowerUpStore powerUps = new PowerUpStore(4);
+    private final ProjectilePool projectiles = new ProjectilePool(GameSimulation.MAX_PROJECTILES);
+    private final EndlessTrack track;  // Null when playing the levels
+
+    private long tick;
+    private long takenNanos;  // System.nanoTime() when the copy was taken
+    private int level, score, health, remainingTime, distance;
+    private int playerX, playerY, selectedCat, cameraY, speedBoostTimeLeft;
+    private boolean won, gameOver, paused, shieldActive, speedBoostActive;
+    private String healthMessage = "";
+
+    /**
+     * Creates an empty snapshot able to hold copies of the given game.
+     */
+    public GameSnapshot(GameSimulation game) {
+        track = game.isEndless() ? new EndlessTrack(0, game.getTickRate(), game.getDifficulty(), powerUps) : null;
+    }
+
+    /**
+     * Overwrites this snapshot with the game's current state. Call it on the simulation thread.
+     */
+    public void copyFrom(GameSimulation game) {
+        tick = game.getTick();
+        takenNanos = System.nanoTime();
+        level = game.getLevel();
+        score = game.getScore();
+        health = game.getHealth();
+        remainingTime = game.getRemainingTime();
+        distance = game.getDistance();
+        playerX = game.getPlayerX();
+        playerY = game.getPlayerY();
+        selectedCat = game.getSelectedCat();
+        cameraY = game.getCameraY();
+        speedBoostTimeLeft = game.getSpeedBoostTimeLeft();
+        won = game.hasWon();
+        gameOver = game.isGameOver();
+        paused = game.isPaused();
+        shieldActive = game.isShieldActive();
+        speedBoostActive = game.isSpeedBoostActive();
+        healthMessage = game.getHealthMessage();  // Strings are immutable, sharing is safe
+        obstacles.copyFrom(game.getObstacles());
+        powerUps.copyFrom(game.getPowerUps());
+        projectiles.copyFrom(game.getProjectiles());
+        if (track != null) {
+            track.copyFrom(game.getTrack());
+        }
+    }
+
+    /**
+     * Tick the snapshot was taken after.
+     */
+    public long getTick() {
+        return tick;
+    }
+
+    /**
+     * How far the game has got towards its next tick at time now, from 0 to 1, assuming ticks
+     * come stepNanos apart. Used to interpolate between this tick and the one before it.
+     */
+    public double alpha(long now, long stepNanos) {
+        return Math.max(0, Math.min(1, (double) (now - takenNanos) / stepNanos));
+    }
+
+    @Override public int getLevel() { return level; }
+    @Override public boolean isEndless() { return track != null; }
+    @Override public boolean hasWon() { return won; }
+    @Override public boolean isGameOver() { return gameOver; }
+    @Override public boolean isPaused() { return paused; }
+    @Override public int getScore() { return score; }
+    @Override public int getHealth() { return health; }
+    @Override public int getRemainingTime() { return remainingTime; }
+    @Override public int getDistance() { return distance; }
+    @Override public int getPlayerX() { return playerX; }
+    @Override public int getPlayerY() { return playerY; }
+    @Override public int getSelectedCat() { return selectedCat; }
+    @Override public boolean isShieldActive() { return shieldActive; }
+    @Override public boolean isSpeedBoostActive() { return speedBoostActive; }
+    @Override public int getSpeedBoostTimeLeft() { return speedBoostTimeLeft; }
+    @Override public String getHealthMessage() { return healthMessage; }
+    @Override public int getCameraY() { return cameraY; }
+    @Override public ObstacleStore getObstacles() { return obstacles; }
+    @Override public PowerUpStore getPowerUps() { return powerUps; }
+    @Override public ProjectilePool getProjectiles() { return projectiles; }
+    @Override public EndlessTrack getTrack() { return track; }
+}
@@ -0,0 +1,63 @@
+package org.example;
+
+/**
+ * What the renderer and HUD need to draw a game. Implemented by the live {@link GameSimulation}
+ * and by {@link GameSnapshot}, a copy of it taken after a tick that another thread can draw
+ * while the simulation moves on.
+ */
+public interface GameView {
+
+    int getLevel();
+
+    boolean isEndless();
+
+    boolean hasWon();
+
+    boolean isGameOver();
+
+    boolean isPaused();
+
+    int getScore();
+
+    int getHealth();
+
+    int getRemainingTime();
+
+    /**
+     * Highest row reached in endless mode.
+     */
+    int getDistance();
+
+    int getPlayerX();
+
+    int getPlayerY();
+
+    int getSelectedCat();
+
+    boolean isShieldActive();
+
+    boolean isSpeedBoostActive();
+
+    int getSpeedBoostTimeLeft();
+
+    /**
+     * The health message if it is still being shown, otherwise an empty string.
+     */
+    String getHealthMessage();
+
+    /**
+     * Top of the view in world coordinates; always 0 outside endless mode.
+     */
+    int getCameraY();
+
+    ObstacleStore getObstacles();
+
+    PowerUpStore getPowerUps();
+
+    ProjectilePool getProjectiles();
+
+    /**
+     * Lanes of endless mode, or null when playing the levels.
+     */
+    EndlessTrack getTrack();
+}
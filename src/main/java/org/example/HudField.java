@@ -0,0 +1,54 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * A number between a fixed label and suffix, such as "Score: 120" or "Speed Boost: 5s", kept as
+ * one image that is only redrawn when the number changes. Every other frame it costs one int
+ * comparison and one image copy.
+ */
+public class HudField {
+
+    private final HudFont font;
+    private final BufferedImage label, suffix;
+    private final BufferedImage image;  // Label, current value and suffix
+    private int value;
+    private boolean drawn = false;      // Whether image holds anything yet
+
+    public HudField(HudFont font, String label, String suffix, SpriteCache sprites) {
+        this.font = font;
+        this.label = font.render(label);
+        this.suffix = suffix.isEmpty() ? null : font.render(suffix);
+        int width = this.label.getWidth() + font.maxNumberWidth() + (this.suffix != null ? this.suffix.getWidth() : 0);
+        this.image = sprites.translucent(width, font.getHeight());
+    }
+
+    /**
+     * Draws the field showing the given value with its baseline at y.
+     */
+    public void draw(Graphics g, int value, int x, int baseline) {
+        if (!drawn || value != this.value) {
+            redraw(value);
+        }
+        font.draw(g, image, x, baseline);
+    }
+
+    private void redraw(int value) {
+        Graphics2D g = image.createGraphics();
+        try {
+            g.setComposite(AlphaComposite.Clear);
+            g.fillRect(0, 0, image.getWidth(), image.getHeight());
+            g.setComposite(AlphaComposite.SrcOver);
+            g.drawImage(label, 0, 0, null);
+            int end = font.drawNumber(g, value, label.getWidth(), font.getAscent());
+            if (suffix != null) {
+                g.drawImage(suffix, end, 0, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        this.value = value;
+        drawn = true;
+    }
+}
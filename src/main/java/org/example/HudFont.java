@@ -0,0 +1,128 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * A font in one color, pre-rendered for on-screen text that is drawn every frame. Fixed text is
+ * rendered once into an image by {@link #render(String)}, and the digits 0 to 9 sit side by side
+ * in one strip so numbers can be put together by copying pieces of it. Either way, drawing is a
+ * plain image copy: no Strings, no glyph layout and no allocation per frame.
+ */
+public class HudFont {
+
+    private static final int MAX_DIGITS = 10;  // Enough for any int
+
+    private final Font font;
+    private final Color color;
+    private final SpriteCache sprites;
+    private final FontMetrics fm;
+    private final int ascent, height;
+
+    private final BufferedImage digitStrip;
+    private final int[] digitX = new int[10], digitWidth = new int[10];
+    private final int[] digitBuffer = new int[MAX_DIGITS];  // Digits of the number being drawn, lowest first
+
+    /**
+     * Renders the digit strip for the font and color, making images compatible through sprites.
+     */
+    public HudFont(Font font, Color color, SpriteCache sprites) {
+        this.font = font;
+        this.color = color;
+        this.sprites = sprites;
+        fm = metrics(font);
+        ascent = fm.getAscent();
+        height = fm.getHeight();
+
+        int x = 0;
+        for (int d = 0; d < 10; d++) {
+            digitX[d] = x;
+            digitWidth[d] = fm.charWidth('0' + d);
+            x += digitWidth[d];
+        }
+        digitStrip = render("0123456789");
+    }
+
+    public int getAscent() {
+        return ascent;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    /**
+     * Widest number this font can draw, for sizing images that hold one.
+     */
+    public int maxNumberWidth() {
+        int widest = 0;
+        for (int width : digitWidth) {
+            widest = Math.max(widest, width);
+        }
+        return widest * MAX_DIGITS;
+    }
+
+    /**
+     * Width the text takes up in this font.
+     */
+    public int stringWidth(String text) {
+        return fm.stringWidth(text);
+    }
+
+    /**
+     * Renders text once into an image as tall as the font, with the baseline at {@link #getAscent()}.
+     */
+    public BufferedImage render(String text) {
+        BufferedImage image = sprites.translucent(Math.max(1, stringWidth(text)), height);
+        Graphics2D g = image.createGraphics();
+        try {
+            // Rendered only once, so pay for smooth edges
+            g.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+            g.setFont(font);
+            g.setColor(color);
+            g.drawString(text, 0, ascent);
+        } finally {
+            g.dispose();
+        }
+        return image;
+    }
+
+    /**
+     * Draws text rendered by {@link #render(String)} with its baseline at the given y.
+     */
+    public void draw(Graphics g, BufferedImage text, int x, int baseline) {
+        g.drawImage(text, x, baseline - ascent, null);
+    }
+
+    /**
+     * Draws a number (negative ones as 0) from the digit strip with its baseline at the given y,
+     * and returns the x just past its last digit.
+     */
+    public int drawNumber(Graphics g, int value, int x, int baseline) {
+        int count = 0;
+        int rest = Math.max(0, value);
+        do {
+            digitBuffer[count++] = rest % 10;
+            rest /= 10;
+        } while (rest > 0);
+        int top = baseline - ascent;
+        for (int i = count - 1; i >= 0; i--) {
+            int d = digitBuffer[i];
+            g.drawImage(digitStrip, x, top, x + digitWidth[d], top + height,
+                    digitX[d], 0, digitX[d] + digitWidth[d], height, null);
+            x += digitWidth[d];
+        }
+        return x;
+    }
+
+    // Metrics without a screen to draw on
+    private static FontMetrics metrics(Font font) {
+        BufferedImage scratch = new BufferedImage(1, 1, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = scratch.createGraphics();
+        try {
+            return g.getFontMetrics(font);
+        } finally {
+            g.dispose();
+        }
+    }
+}
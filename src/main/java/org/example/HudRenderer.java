@@ -0,0 +1,54 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Draws the score, health, timer and cat description in the top left corner, straight onto the
+ * game surface. All text is pre-rendered: the numbers are {@link HudField}s that only redraw
+ * when their value changes, and the cat descriptions are rendered once up front.
+ */
+public class HudRenderer {
+
+    private static final int LEFT = 10, ROW_HEIGHT = 20;  // Rows start at y = 10, 40, 70 and 100
+
+    private final HudFont font;
+    private final HudField score, health, time, row;
+    private final BufferedImage prompt;
+    private final BufferedImage[] catDescriptions;
+
+    /**
+     * Pre-renders everything the HUD shows. The prompt is shown until a cat has been picked.
+     */
+    public HudRenderer(Font font, Color color, String prompt, String[] catDescriptions, SpriteCache sprites) {
+        this.font = new HudFont(font, color, sprites);
+        score = new HudField(this.font, "Score: ", "", sprites);
+        health = new HudField(this.font, "Health: ", "", sprites);
+        time = new HudField(this.font, "Time: ", "", sprites);
+        row = new HudField(this.font, "Row: ", "", sprites);  // Endless mode has no countdown
+        this.prompt = this.font.render(prompt);
+        this.catDescriptions = new BufferedImage[catDescriptions.length];
+        for (int i = 0; i < catDescriptions.length; i++) {
+            this.catDescriptions[i] = this.font.render(catDescriptions[i]);
+        }
+    }
+
+    /**
+     * Draws the HUD for a view of the game. Cat is the cat whose description to show, or -1 for the prompt.
+     */
+    public void draw(Graphics g, GameView game, int cat) {
+        score.draw(g, game.getScore(), LEFT, baseline(10));
+        health.draw(g, game.getHealth(), LEFT, baseline(40));
+        font.draw(g, cat < 0 ? prompt : catDescriptions[cat], LEFT, baseline(70));
+        if (game.isEndless()) {
+            row.draw(g, game.getDistance(), LEFT, baseline(100));
+        } else {
+            time.draw(g, game.getRemainingTime(), LEFT, baseline(100));
+        }
+    }
+
+    // Baseline that centers a line of text vertically in the row starting at top, as a JLabel would
+    private int baseline(int top) {
+        return top + (ROW_HEIGHT - font.getHeight()) / 2 + font.getAscent();
+    }
+}
@@ -0,0 +1,96 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Input source that passes another source's actions through unchanged and writes each one,
+ * with the tick it was applied on, to a replay file. Together with the seed and tick rate this
+ * is enough to run the same session again exactly. The file is flushed about once a second,
+ * so a crash loses at most the last second of input. If writing fails, recording stops and the
+ * game carries on.
+ */
+public class InputRecorder implements InputSource {
+
+    private final InputSource source;
+    private final int tickRate;
+    private OutputStream out;     // Null once closed or after a write error
+    private long lastEventTick;   // Tick of the last event written, deltas are taken from it
+    private long lastTick;        // Latest tick polled
+    private long lastFlushTick;
+
+    /**
+     * Starts recording a session with the given seed, tick rate and mode into the file.
+     */
+    public InputRecorder(InputSource source, File file, long seed, int tickRate, GameMode mode) throws IOException {
+        this.source = source;
+        this.tickRate = tickRate;
+        OutputStream stream = new BufferedOutputStream(new FileOutputStream(file), 4096);
+        DataOutputStream header = new DataOutputStream(stream);
+        header.writeInt(ReplayFormat.MAGIC);
+        header.writeByte(ReplayFormat.VERSION);
+        header.writeByte(mode.ordinal());
+        writeVarLong(stream, tickRate);
+        header.writeLong(seed);
+        header.flush();
+        this.out = stream;
+    }
+
+    @Override
+    public synchronized GameAction poll(long tick) {
+        GameAction action = source.poll(tick);
+        lastTick = tick;
+        if (out == null) return action;
+        try {
+            if (action != null) {
+                writeEvent(tick, action.ordinal());
+            }
+            if (tick - lastFlushTick >= tickRate) {
+                out.flush();
+                lastFlushTick = tick;
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeQuietly();
+        }
+        return action;
+    }
+
+    /**
+     * Writes the end marker and closes the file. Safe to call more than once and from any thread.
+     */
+    public synchronized void close() {
+        if (out == null) return;
+        try {
+            writeEvent(lastTick, ReplayFormat.END);
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        out = null;
+    }
+
+    private void writeEvent(long tick, int code) throws IOException {
+        writeVarLong(out, (tick - lastEventTick) << ReplayFormat.CODE_BITS | code);
+        lastEventTick = tick;
+    }
+
+    private void closeQuietly() {
+        try {
+            out.close();
+        } catch (IOException ignored) {}
+        out = null;
+    }
+
+    private static void writeVarLong(OutputStream out, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+}
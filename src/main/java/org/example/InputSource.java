@@ -0,0 +1,17 @@
+package org.example;
+
+/**
+ * Supplies the player's actions to the simulation, one tick at a time.
+ */
+public interface InputSource {
+
+    /**
+     * An input source that never does anything.
+     */
+    InputSource NONE = tick -> null;
+
+    /**
+     * Returns the next action to apply on the given tick, or null once there are none left for it.
+     */
+    GameAction poll(long tick);
+}
@@ -0,0 +1,190 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Broad-phase collision index for the lane-based playing field.
+ * Obstacles are bucketed by the lane their top edge is in, and each bucket is kept sorted by x,
+ * so a query only looks at the lanes it overlaps and binary-searches to the right spot in each.
+ * Obstacles only ever move sideways, so keeping a bucket sorted after a move is usually free.
+ * Buckets hold obstacle indexes into an {@link ObstacleStore}; the store keeps each obstacle's
+ * lane and position in its bucket and tells the index when an obstacle's index changes.
+ */
+public class LaneIndex {
+
+    private final ObstacleStore store;
+    private final int laneTop;     // Y where the first lane starts
+    private final int laneHeight;
+    private final int[][] buckets;
+    private final int[] sizes;
+    private int maxWidth, maxHeight;  // Largest obstacle seen, bounds how far back a query must look
+
+    /**
+     * Creates an index over the store for laneCount lanes of laneHeight pixels starting at laneTop.
+     * Anything above or below the lanes goes into the first or last bucket.
+     */
+    public LaneIndex(ObstacleStore store, int laneTop, int laneHeight, int laneCount) {
+        this.store = store;
+        this.laneTop = laneTop;
+        this.laneHeight = laneHeight;
+        this.buckets = new int[laneCount][16];
+        this.sizes = new int[laneCount];
+    }
+
+    /**
+     * Removes every obstacle from the index.
+     */
+    public void clear() {
+        Arrays.fill(sizes, 0);
+        maxWidth = 0;
+        maxHeight = 0;
+    }
+
+    /**
+     * Copies the buckets of an index over the same lanes, for {@link ObstacleStore#copyFrom}.
+     */
+    void copyFrom(LaneIndex other) {
+        for (int lane = 0; lane < buckets.length; lane++) {
+            int size = other.sizes[lane];
+            if (buckets[lane].length < size) {
+                buckets[lane] = new int[other.buckets[lane].length];
+            }
+            System.arraycopy(other.buckets[lane], 0, buckets[lane], 0, size);
+            sizes[lane] = size;
+        }
+        maxWidth = other.maxWidth;
+        maxHeight = other.maxHeight;
+    }
+
+    /**
+     * Lane a y coordinate falls in, clamped to the lanes that exist.
+     */
+    public int laneOf(int y) {
+        int lane = Math.floorDiv(y - laneTop, laneHeight);
+        return Math.max(0, Math.min(buckets.length - 1, lane));
+    }
+
+    /**
+     * Adds obstacle i at its current position.
+     */
+    public void add(int i) {
+        int lane = laneOf(store.y[i]);
+        if (sizes[lane] == buckets[lane].length) {
+            buckets[lane] = Arrays.copyOf(buckets[lane], sizes[lane] * 2);
+        }
+        int slot = sizes[lane]++;
+        buckets[lane][slot] = i;
+        store.lane[i] = lane;
+        siftLeft(buckets[lane], slot);
+        maxWidth = Math.max(maxWidth, store.width[i]);
+        maxHeight = Math.max(maxHeight, store.height[i]);
+    }
+
+    /**
+     * Removes obstacle i from the index.
+     */
+    public void remove(int i) {
+        int[] bucket = buckets[store.lane[i]];
+        int size = --sizes[store.lane[i]];
+        int[] slots = store.slot;
+        for (int s = slots[i]; s < size; s++) {
+            bucket[s] = bucket[s + 1];
+            slots[bucket[s]] = s;
+        }
+    }
+
+    /**
+     * Points the index at obstacle i after the store moved it to index i.
+     * Its lane and slot must already have been copied along with it.
+     */
+    public void renumber(int i) {
+        buckets[store.lane[i]][store.slot[i]] = i;
+    }
+
+    /**
+     * Restores every bucket's order after many obstacles moved at once. When they all moved by
+     * the same amount only the ones that wrapped around are out of place, so this is one pass
+     * of comparisons plus a shift for each wrapped obstacle.
+     */
+    public void resort() {
+        for (int lane = 0; lane < buckets.length; lane++) {
+            int[] bucket = buckets[lane];
+            for (int s = 1; s < sizes[lane]; s++) {
+                siftLeft(bucket, s);
+            }
+        }
+    }
+
+    /**
+     * Returns the index of an obstacle overlapping the given rectangle, or -1 if there is none.
+     */
+    public int firstHit(int x, int y, int width, int height) {
+        return firstHit(x, y, width, height, null, null);
+    }
+
+    /**
+     * Returns the index of an obstacle whose mask overlaps the shape drawn at (x, y), or -1 if
+     * there is none. Obstacle i is drawn with masks[sprite % masks.length]; the masks are only
+     * compared for obstacles whose box overlaps the shape's.
+     */
+    public int firstHit(int x, int y, SpriteMask shape, SpriteMask[] masks) {
+        return firstHit(x, y, shape.width, shape.height, shape, masks);
+    }
+
+    private int firstHit(int x, int y, int width, int height, SpriteMask shape, SpriteMask[] masks) {
+        int[] xs = store.x, ys = store.y, widths = store.width, heights = store.height, sprites = store.sprite;
+        int firstLane = laneOf(y - maxHeight + 1);
+        int lastLane = laneOf(y + height - 1);
+        for (int lane = firstLane; lane <= lastLane; lane++) {
+            int[] bucket = buckets[lane];
+            int size = sizes[lane];
+            // Nothing starting at or before x - maxWidth can reach x
+            for (int s = firstAfter(bucket, size, x - maxWidth); s < size; s++) {
+                int i = bucket[s];
+                if (xs[i] >= x + width) break;  // Sorted, so nothing further can overlap
+                if (intersects(x, y, width, height, xs[i], ys[i], widths[i], heights[i])
+                        && (shape == null || SpriteMask.overlaps(shape, x, y, masks[sprites[i] % masks.length], xs[i], ys[i]))) {
+                    return i;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Same test as Rectangle.intersects, without needing Rectangle objects.
+     */
+    static boolean intersects(int ax, int ay, int aw, int ah, int bx, int by, int bw, int bh) {
+        return aw > 0 && ah > 0 && bw > 0 && bh > 0
+                && ax < bx + bw && bx < ax + aw && ay < by + bh && by < ay + ah;
+    }
+
+    // Position of the first obstacle in the bucket whose x is greater than the given x
+    private int firstAfter(int[] bucket, int size, int x) {
+        int[] xs = store.x;
+        int low = 0, high = size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (xs[bucket[mid]] <= x) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Moves the obstacle at slot towards the front until its left neighbour is not greater
+    private void siftLeft(int[] bucket, int slot) {
+        int[] xs = store.x, slots = store.slot;
+        int i = bucket[slot];
+        int x = xs[i];
+        while (slot > 0 && xs[bucket[slot - 1]] > x) {
+            bucket[slot] = bucket[slot - 1];
+            slots[bucket[slot]] = slot;
+            slot--;
+        }
+        bucket[slot] = i;
+        slots[i] = slot;
+    }
+}
@@ -0,0 +1,84 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size histogram of durations in nanoseconds, in the style of HdrHistogram: values are
+ * counted in log-linear buckets (each power of two split into 16 equal steps), so every recorded
+ * value is kept to within about 6% using a few hundred longs and recording never allocates.
+ * Not thread-safe; record and read it from one thread.
+ */
+public class LatencyHistogram {
+
+    private static final int SUB_BITS = 5;
+    private static final int SUB_COUNT = 1 << SUB_BITS;       // Values below this get a bucket each
+    private static final int HALF_COUNT = SUB_COUNT / 2;      // Steps per power of two above that
+    private static final int MAX_SHIFT = 32;                  // Largest bucket tops out around 2^37 ns (over two minutes)
+    private static final int BUCKETS = SUB_COUNT + MAX_SHIFT * HALF_COUNT;
+
+    private final long[] counts = new long[BUCKETS];
+    private long total;
+    private long max;
+
+    /**
+     * Counts one duration. Negative values count as zero; huge ones go into the last bucket.
+     */
+    public void record(long nanos) {
+        long value = Math.max(0, nanos);
+        counts[bucketOf(value)]++;
+        total++;
+        max = Math.max(max, value);
+    }
+
+    public long getCount() {
+        return total;
+    }
+
+    /**
+     * Largest value recorded, exactly.
+     */
+    public long getMax() {
+        return max;
+    }
+
+    /**
+     * Smallest value that at least the given percentage (0 to 100) of the recorded values are
+     * at or below, rounded up to the top of its bucket. Zero if nothing has been recorded.
+     */
+    public long valueAtPercentile(double percentile) {
+        if (total == 0) return 0;
+        long wanted = Math.max(1, (long) Math.ceil(total * Math.min(100, percentile) / 100));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts[i];
+            if (seen >= wanted) {
+                return Math.min(max, highestValueIn(i));
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Forgets everything recorded so far.
+     */
+    public void reset() {
+        Arrays.fill(counts, 0);
+        total = 0;
+        max = 0;
+    }
+
+    private static int bucketOf(long value) {
+        if (value < SUB_COUNT) return (int) value;
+        int shift = 63 - Long.numberOfLeadingZeros(value) - (SUB_BITS - 1);  // Keeps the top SUB_BITS bits
+        if (shift > MAX_SHIFT) return BUCKETS - 1;
+        int step = (int) (value >>> shift) - HALF_COUNT;
+        return SUB_COUNT + (shift - 1) * HALF_COUNT + step;
+    }
+
+    private static long highestValueIn(int bucket) {
+        if (bucket < SUB_COUNT) return bucket;
+        int shift = (bucket - SUB_COUNT) / HALF_COUNT + 1;
+        long step = (bucket - SUB_COUNT) % HALF_COUNT + HALF_COUNT;
+        return ((step + 1) << shift) - 1;
+    }
+}
@@ -0,0 +1,242 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.StandardSocketOptions;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Load test for {@link GameServer}: connects many clients over loopback, each played by a random
+ * bot, and reports how well the server keeps up. Clients connect gradually over the ramp, then
+ * everything is measured for the given number of seconds. Clients whose game ends start another.
+ *
+ * <p>Without --port it starts a server in the same process, so it can also report the server's
+ * tick times and how many sessions one core can tick; the clients share the machine with it, so
+ * run the server on its own (and pass --host and --port) for figures without them.
+ *
+ * <pre>
+ * java -cp target/classes org.example.LoadGenerator --sessions=2000 --ramp=5 --seconds=20 --workers=1
+ * </pre>
+ * Other options: --host, --port, --tickRate and --mode (levels or endless) for the embedded server,
+ * --reaction (ticks between bot decisions), --seed, and --scores to save the embedded server's
+ * finished games to a {@link ScoreStore} and report how fast they are committed.
+ */
+public class LoadGenerator {
+
+    private static final int IN_BYTES = 64 * 1024;
+
+    // One connected client
+    private static final class Client {
+        final SocketChannel channel;
+        final ByteBuffer in = ByteBuffer.allocate(IN_BYTES);
+        final ByteBuffer out = ByteBuffer.allocate(256);
+        final BotPlayer bot;
+        long lastState;  // System.nanoTime() the last state arrived, 0 before the first
+
+        Client(SocketChannel channel, BotPlayer bot) {
+            this.channel = channel;
+            this.bot = bot;
+        }
+    }
+
+    private final InetSocketAddress address;
+    private final GameMode mode;
+    private final int reaction;
+    private final long seed;
+    private final Selector selector = Selector.open();
+    private final List<Client> clients = new ArrayList<>();
+
+    // Figures for the measured stretch
+    private final LatencyHistogram stateIntervals = new LatencyHistogram();
+    private long states, bytes, games;
+    private boolean measuring = false;
+
+    public LoadGenerator(InetSocketAddress address, GameMode mode, int reaction, long seed) throws IOException {
+        this.address = address;
+        this.mode = mode;
+        this.reaction = reaction;
+        this.seed = seed;
+    }
+
+    /**
+     * Connects one more client and starts its first game.
+     */
+    private void connect() throws IOException {
+        SocketChannel channel = SocketChannel.open(address);
+        channel.setOption(StandardSocketOptions.TCP_NODELAY, true);
+        channel.configureBlocking(false);
+        Client client = new Client(channel, new BotPlayer(BotPlayer.Strategy.RANDOM, seed + clients.size(), reaction));
+        channel.register(selector, SelectionKey.OP_READ, client);
+        clients.add(client);
+        ServerProtocol.writeHello(client.out, mode);
+        send(client);
+    }
+
+    /**
+     * Handles messages for up to the given time.
+     */
+    private void poll(long millis) throws IOException {
+        selector.select(key -> {
+            Client client = (Client) key.attachment();
+            try {
+                read(client);
+            } catch (IOException e) {
+                throw new IllegalStateException("Lost connection to the server: " + e.getMessage(), e);
+            }
+        }, Math.max(1, millis));
+    }
+
+    private void read(Client client) throws IOException {
+        ByteBuffer in = client.in;
+        int read = client.channel.read(in);
+        if (read < 0) throw new IOException("server closed the connection");
+        if (measuring) bytes += read;
+        in.flip();
+        int length;
+        while ((length = ServerProtocol.frameLength(in)) >= 0) {
+            int start = in.position() + 2;
+            if (in.get(start) == ServerProtocol.STATE) {
+                onState(client, in.getInt(start + 1), in.get(start + 6));
+            }
+            in.position(start + length);
+        }
+        in.compact();
+        send(client);
+    }
+
+    private void onState(Client client, long tick, int flags) {
+        long now = System.nanoTime();
+        if (measuring) {
+            states++;
+            if (client.lastState != 0) stateIntervals.record(now - client.lastState);
+        }
+        client.lastState = now;
+        if ((flags & (ServerProtocol.FLAG_WON | ServerProtocol.FLAG_GAME_OVER)) != 0) {
+            if (measuring) games++;
+            client.lastState = 0;  // The pause before the next game isn't a late state
+            ServerProtocol.writeHello(client.out, mode);
+            return;
+        }
+        GameAction action = client.bot.poll(tick);
+        if (action != null) {
+            ServerProtocol.writeInput(client.out, action);
+        }
+    }
+
+    private void send(Client client) throws IOException {
+        if (client.out.position() == 0) return;
+        client.out.flip();
+        client.channel.write(client.out);  // A few bytes; the rest goes next time if the socket is full
+        client.out.compact();
+    }
+
+    private void startMeasuring() {
+        stateIntervals.reset();
+        states = bytes = games = 0;
+        measuring = true;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String host = "127.0.0.1";
+        int port = 0;
+        int sessions = 1000;
+        double ramp = 5, seconds = 20;
+        int workers = Math.max(0, Runtime.getRuntime().availableProcessors() - 1);
+        int tickRate = 60;
+        int reaction = 6;
+        long seed = 1;
+        GameMode mode = GameMode.LEVELS;
+        String scoresFile = null;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.println("Unknown argument " + arg + ", expected --name=value");
+                System.exit(2);
+            }
+            String name = arg.substring(2, eq), value = arg.substring(eq + 1);
+            switch (name) {
+                case "host": host = value; break;
+                case "port": port = Integer.parseInt(value); break;
+                case "sessions": sessions = Integer.parseInt(value); break;
+                case "ramp": ramp = Double.parseDouble(value); break;
+                case "seconds": seconds = Double.parseDouble(value); break;
+                case "workers": workers = Integer.parseInt(value); break;
+                case "tickRate": tickRate = Integer.parseInt(value); break;
+                case "reaction": reaction = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                case "mode": mode = GameMode.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "scores": scoresFile = value; break;
+                default:
+                    System.err.println("Unknown option --" + name);
+                    System.exit(2);
+            }
+        }
+
+        GameServer server = null;
+        ScoreStore scores = null;
+        if (port == 0) {
+            scores = scoresFile != null ? ScoreStore.open(new File(scoresFile)) : null;
+            server = new GameServer(new InetSocketAddress(host, 0), tickRate, workers, Difficulty.DEFAULT, seed, scores,
+                    CollisionMasks.load(AssetSource.open()));
+            server.start();
+            port = server.getPort();
+            System.out.printf("Started a server on port %d, %d ticks/s on %d threads%n", port, tickRate,
+                    server.getScheduler().getThreadCount());
+        }
+
+        LoadGenerator load = new LoadGenerator(new InetSocketAddress(host, port), mode, reaction, seed);
+        System.out.printf("Connecting %d clients over %.0f s%n", sessions, ramp);
+        long start = System.nanoTime();
+        long rampNanos = (long) (ramp * 1e9);
+        while (load.clients.size() < sessions) {
+            long due = rampNanos <= 0 ? sessions : (System.nanoTime() - start) * sessions / rampNanos + 1;
+            while (load.clients.size() < Math.min(due, sessions)) {
+                load.connect();
+            }
+            load.poll(1);
+        }
+
+        TickScheduler.Stats stats = new TickScheduler.Stats();
+        ScoreStore.Stats scoreStats = new ScoreStore.Stats();
+        if (server != null) server.getScheduler().takeStats(stats);  // Only count the measured stretch
+        if (scores != null) scores.takeStats(scoreStats);
+        load.startMeasuring();
+        long measureStart = System.nanoTime(), measureEnd = measureStart + (long) (seconds * 1e9);
+        long now;
+        while ((now = System.nanoTime()) < measureEnd) {
+            load.poll((measureEnd - now) / 1_000_000);
+        }
+        double measured = (System.nanoTime() - measureStart) / 1e9;
+
+        System.out.printf("Clients: %d, %.1f states/s each (expected %d), %.1f KB/s each, %d games finished%n",
+                sessions, load.states / measured / sessions, tickRate, load.bytes / measured / sessions / 1024, load.games);
+        System.out.printf("State interval: p50 %.2f ms, p99 %.2f ms, max %.2f ms (one tick is %.2f ms)%n",
+                load.stateIntervals.valueAtPercentile(50) / 1e6, load.stateIntervals.valueAtPercentile(99) / 1e6,
+                load.stateIntervals.getMax() / 1e6, 1000.0 / tickRate);
+        if (server != null) {
+            server.getScheduler().takeStats(stats);
+            System.out.printf("Server ticks: %.1f/s, p50 %.2f ms, p99 %.2f ms, max %.2f ms, %d late, %d states dropped%n",
+                    stats.ticks / stats.seconds, stats.tickP50 / 1e6, stats.tickP99 / 1e6, stats.tickMax / 1e6,
+                    stats.overruns, stats.droppedStates);
+            double cores = stats.coresBusy();
+            System.out.printf("Ticking took %.3f cores: about %.0f sessions per core at %d ticks/s%n",
+                    cores, cores > 0 ? stats.sessions / cores : 0, tickRate);
+            server.stop();
+        }
+        if (scores != null) {
+            scores.takeStats(scoreStats);
+            System.out.printf("Scores: %.1f runs/s saved in %.1f commits/s (up to %d runs each), commit p50 %.2f ms, "
+                            + "p99 %.2f ms, max %.2f ms%n",
+                    scoreStats.records / scoreStats.seconds, scoreStats.commits / scoreStats.seconds, scoreStats.maxBatch,
+                    scoreStats.commitP50 / 1e6, scoreStats.commitP99 / 1e6, scoreStats.commitMax / 1e6);
+            scores.close();
+        }
+    }
+}
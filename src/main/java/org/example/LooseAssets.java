@@ -0,0 +1,88 @@
+package org.example;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+
+/**
+ * Assets read straight from their source files, decoding and scaling each one as it is asked
+ * for. Slow next to an {@link AssetPack}, but it needs no build step, and the asset packer uses
+ * it to produce exactly the pixels the game would otherwise make at startup.
+ */
+public class LooseAssets implements AssetSource {
+
+    private final File directory;
+    private final SpriteCache sprites = new SpriteCache(null);  // Plain premultiplied ARGB images
+
+    public LooseAssets(File directory) {
+        this.directory = directory;
+    }
+
+    @Override
+    public BufferedImage image(Asset asset) throws IOException {
+        BufferedImage source = ImageIO.read(file(asset));
+        if (source == null) {
+            throw new IOException("Unreadable image format in " + file(asset) + " for " + asset);
+        }
+        if (!asset.isSheet()) {
+            return sprites.scaled(source, asset.drawWidth, asset.drawHeight);
+        }
+        BufferedImage[] frames = sprites.slice(source, asset.frameWidth, asset.frameHeight,
+                asset.columns, asset.rows, asset.drawWidth, asset.drawHeight);
+        BufferedImage sheet = sprites.translucent(asset.imageWidth(), asset.imageHeight());
+        Graphics2D g = sheet.createGraphics();
+        try {
+            for (int i = 0; i < frames.length; i++) {
+                // Frames past the edge of the source sheet stay transparent
+                g.drawImage(frames[i], (i % asset.columns) * asset.drawWidth, (i / asset.columns) * asset.drawHeight, null);
+            }
+        } finally {
+            g.dispose();
+        }
+        return sheet;
+    }
+
+    @Override
+    public AudioEngine.Effect effect(Asset asset, AudioEngine audio) throws IOException {
+        try {
+            return audio.loadEffect(file(asset));
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio format in " + file(asset) + " for " + asset, e);
+        }
+    }
+
+    @Override
+    public AudioEngine.Track track(Asset asset, AudioEngine audio) throws IOException {
+        try {
+            return audio.loadTrack(file(asset));
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio format in " + file(asset) + " for " + asset, e);
+        }
+    }
+
+    /**
+     * Decodes a sound to PCM in the audio engine's format, for the asset packer.
+     */
+    public byte[] pcm(Asset asset) throws IOException {
+        try {
+            return AudioEngine.decode(file(asset));
+        } catch (UnsupportedAudioFileException e) {
+            throw new IOException("Unsupported audio format in " + file(asset) + " for " + asset, e);
+        }
+    }
+
+    /**
+     * The asset's source file, which must exist.
+     */
+    private File file(Asset asset) throws FileNotFoundException {
+        File file = new File(directory, asset.file);
+        if (!file.isFile()) {
+            throw new FileNotFoundException("Missing " + file + " for " + asset);
+        }
+        return file;
+    }
+}
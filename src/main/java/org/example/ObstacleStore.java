@@ -0,0 +1,199 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * All obstacles of the current level, kept as parallel primitive arrays (one array per field)
+ * instead of one object per obstacle. Obstacles are addressed by index from 0 to size() - 1;
+ * removing one moves the last obstacle into its place, so indexes are only stable until the
+ * next removal. Nothing here allocates once the arrays have grown to the level's obstacle count.
+ */
+public class ObstacleStore {
+
+    private int size;
+
+    // One entry per obstacle, package-private so the lane index can read them directly
+    int[] x, y, width, height, sprite;
+    int[] prevX;        // X on the previous tick, for interpolation
+    int[] lane, slot;   // Where the lane index keeps each obstacle
+
+    private final LaneIndex index;
+
+    /**
+     * Creates an empty store indexed by laneCount lanes of laneHeight pixels starting at laneTop.
+     */
+    public ObstacleStore(int capacity, int laneTop, int laneHeight, int laneCount) {
+        capacity = Math.max(1, capacity);
+        x = new int[capacity];
+        y = new int[capacity];
+        width = new int[capacity];
+        height = new int[capacity];
+        sprite = new int[capacity];
+        prevX = new int[capacity];
+        lane = new int[capacity];
+        slot = new int[capacity];
+        index = new LaneIndex(this, laneTop, laneHeight, laneCount);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds an obstacle and returns its index.
+     */
+    public int add(int x, int y, int width, int height, int sprite) {
+        if (size == this.x.length) {
+            grow();
+        }
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.width[i] = width;
+        this.height[i] = height;
+        this.sprite[i] = sprite;
+        this.prevX[i] = x;
+        index.add(i);
+        return i;
+    }
+
+    /**
+     * Replaces the obstacle at index i with a new one, without interpolating from the old one.
+     */
+    public void set(int i, int x, int y, int width, int height, int sprite) {
+        index.remove(i);
+        this.x[i] = x;
+        this.y[i] = y;
+        this.width[i] = width;
+        this.height[i] = height;
+        this.sprite[i] = sprite;
+        this.prevX[i] = x;
+        index.add(i);
+    }
+
+    /**
+     * Removes the obstacle at index i by moving the last obstacle into its place.
+     */
+    public void remove(int i) {
+        index.remove(i);
+        int last = --size;
+        if (i != last) {
+            x[i] = x[last];
+            y[i] = y[last];
+            width[i] = width[last];
+            height[i] = height[last];
+            sprite[i] = sprite[last];
+            prevX[i] = prevX[last];
+            lane[i] = lane[last];
+            slot[i] = slot[last];
+            index.renumber(i);
+        }
+    }
+
+    /**
+     * Removes every obstacle, keeping the arrays for reuse.
+     */
+    public void clear() {
+        size = 0;
+        index.clear();
+    }
+
+    /**
+     * Makes this store an exact copy of other, lane index included, e.g. for a snapshot the
+     * renderer can read while the simulation moves on. Only allocates if other holds more
+     * obstacles than this store ever has; both stores must use the same lanes.
+     */
+    public void copyFrom(ObstacleStore other) {
+        while (x.length < other.size) {
+            grow();
+        }
+        size = other.size;
+        System.arraycopy(other.x, 0, x, 0, size);
+        System.arraycopy(other.y, 0, y, 0, size);
+        System.arraycopy(other.width, 0, width, 0, size);
+        System.arraycopy(other.height, 0, height, 0, size);
+        System.arraycopy(other.sprite, 0, sprite, 0, size);
+        System.arraycopy(other.prevX, 0, prevX, 0, size);
+        System.arraycopy(other.lane, 0, lane, 0, size);
+        System.arraycopy(other.slot, 0, slot, 0, size);
+        index.copyFrom(other.index);
+    }
+
+    /**
+     * Moves obstacle i sideways by dx. Call {@link #finishMoves()} once all moves of a tick are done.
+     */
+    public void translate(int i, int dx) {
+        prevX[i] = x[i];
+        x[i] += dx;
+    }
+
+    /**
+     * Puts obstacle i at a new x without interpolating from its old one (e.g. when it wraps around).
+     * Call {@link #finishMoves()} once all moves of a tick are done.
+     */
+    public void teleport(int i, int newX) {
+        x[i] = newX;
+        prevX[i] = newX;
+    }
+
+    /**
+     * Brings the lane index up to date after a round of translate/teleport calls.
+     */
+    public void finishMoves() {
+        index.resort();
+    }
+
+    /**
+     * Returns the index of an obstacle overlapping the given rectangle, or -1 if there is none.
+     */
+    public int firstHit(int x, int y, int width, int height) {
+        return index.firstHit(x, y, width, height);
+    }
+
+    /**
+     * Returns the index of an obstacle whose sprite overlaps the shape drawn at (x, y) pixel for
+     * pixel, or -1 if there is none. See {@link LaneIndex#firstHit(int, int, SpriteMask, SpriteMask[])}.
+     */
+    public int firstHit(int x, int y, SpriteMask shape, SpriteMask[] masks) {
+        return index.firstHit(x, y, shape, masks);
+    }
+
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getY(int i) {
+        return y[i];
+    }
+
+    public int getWidth(int i) {
+        return width[i];
+    }
+
+    public int getHeight(int i) {
+        return height[i];
+    }
+
+    public int getSprite(int i) {
+        return sprite[i];
+    }
+
+    /**
+     * X to draw obstacle i at, blended between the previous and current tick.
+     */
+    public int renderX(int i, double alpha) {
+        return (int) Math.round(prevX[i] + (x[i] - prevX[i]) * alpha);
+    }
+
+    private void grow() {
+        int capacity = x.length * 2;
+        x = Arrays.copyOf(x, capacity);
+        y = Arrays.copyOf(y, capacity);
+        width = Arrays.copyOf(width, capacity);
+        height = Arrays.copyOf(height, capacity);
+        sprite = Arrays.copyOf(sprite, capacity);
+        prevX = Arrays.copyOf(prevX, capacity);
+        lane = Arrays.copyOf(lane, capacity);
+        slot = Arrays.copyOf(slot, capacity);
+    }
+}
@@ -0,0 +1,89 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Power-ups of the current level, kept as parallel primitive arrays like {@link ObstacleStore}.
+ * Removing one moves the last power-up into its place.
+ */
+public class PowerUpStore {
+
+    public static final int SIZE = 30; // Size of power-up
+
+    private int size;
+    private int[] x, y;
+    private byte[] type;  // PowerUpType ordinal
+
+    public PowerUpStore(int capacity) {
+        capacity = Math.max(1, capacity);
+        x = new int[capacity];
+        y = new int[capacity];
+        type = new byte[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Adds a power-up and returns its index.
+     */
+    public int add(int x, int y, PowerUpType type) {
+        if (size == this.x.length) {
+            int capacity = size * 2;
+            this.x = Arrays.copyOf(this.x, capacity);
+            this.y = Arrays.copyOf(this.y, capacity);
+            this.type = Arrays.copyOf(this.type, capacity);
+        }
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.type[i] = (byte) type.ordinal();
+        return i;
+    }
+
+    /**
+     * Removes the power-up at index i by moving the last one into its place.
+     */
+    public void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        type[i] = type[last];
+    }
+
+    /**
+     * Makes this store an exact copy of other, only allocating if other holds more power-ups
+     * than this store ever has.
+     */
+    public void copyFrom(PowerUpStore other) {
+        if (x.length < other.size) {
+            x = new int[other.x.length];
+            y = new int[other.y.length];
+            type = new byte[other.type.length];
+        }
+        size = other.size;
+        System.arraycopy(other.x, 0, x, 0, size);
+        System.arraycopy(other.y, 0, y, 0, size);
+        System.arraycopy(other.type, 0, type, 0, size);
+    }
+
+    /**
+     * Removes every power-up, keeping the arrays for reuse.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getY(int i) {
+        return y[i];
+    }
+
+    public PowerUpType getType(int i) {
+        return PowerUpType.fromCode(type[i]);
+    }
+}
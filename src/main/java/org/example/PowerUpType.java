@@ -0,0 +1,21 @@
+package org.example;
+
+/**
+ * Kinds of power-up the player can collect.
+ */
+public enum PowerUpType {
+    HEALTH,      // Restores one point of health
+    SPEED,       // Doubles the player's speed for a while
+    RAPID_FIRE,  // Shortens the time between shots for a while
+    SPREAD_SHOT; // Fires three shots fanning out for a while
+
+    private static final PowerUpType[] VALUES = values();  // values() copies the array on every call
+    public static final int COUNT = VALUES.length;
+
+    /**
+     * The type stored under the given code, see {@link #ordinal()}.
+     */
+    public static PowerUpType fromCode(int code) {
+        return VALUES[code];
+    }
+}
@@ -0,0 +1,127 @@
+package org.example;
+
+/**
+ * Projectiles in flight, kept in parallel primitive arrays like {@link PowerUpStore} but with a
+ * fixed capacity allocated up front: the pool never grows, and a shot fired while it is full is
+ * dropped. Removing one moves the last projectile into its place, so indexes are only stable
+ * until the next removal. Firing, moving and removing never allocate.
+ */
+public class ProjectilePool {
+
+    private final int capacity;
+    private int size;
+
+    // One entry per projectile
+    private final int[] x, y;
+    private final int[] prevX, prevY;  // Position on the previous tick, for interpolation
+    private final int[] drift;         // Sideways speed in pixels per second, negative to the left
+    private final int[] driftTravel;   // Sideways pixels x tickRate moved but not applied yet
+
+    public ProjectilePool(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        x = new int[this.capacity];
+        y = new int[this.capacity];
+        prevX = new int[this.capacity];
+        prevY = new int[this.capacity];
+        drift = new int[this.capacity];
+        driftTravel = new int[this.capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds a projectile drifting sideways at the given speed. Returns false if the pool is full.
+     */
+    public boolean add(int x, int y, int drift) {
+        if (size == capacity) return false;
+        int i = size++;
+        this.x[i] = x;
+        this.y[i] = y;
+        this.prevX[i] = x;
+        this.prevY[i] = y;
+        this.drift[i] = drift;
+        this.driftTravel[i] = 0;
+        return true;
+    }
+
+    /**
+     * Removes the projectile at index i by moving the last one into its place.
+     */
+    public void remove(int i) {
+        int last = --size;
+        x[i] = x[last];
+        y[i] = y[last];
+        prevX[i] = prevX[last];
+        prevY[i] = prevY[last];
+        drift[i] = drift[last];
+        driftTravel[i] = driftTravel[last];
+    }
+
+    /**
+     * Makes this pool an exact copy of other, which must not hold more than this pool's capacity.
+     */
+    public void copyFrom(ProjectilePool other) {
+        size = Math.min(other.size, capacity);
+        System.arraycopy(other.x, 0, x, 0, size);
+        System.arraycopy(other.y, 0, y, 0, size);
+        System.arraycopy(other.prevX, 0, prevX, 0, size);
+        System.arraycopy(other.prevY, 0, prevY, 0, size);
+        System.arraycopy(other.drift, 0, drift, 0, size);
+        System.arraycopy(other.driftTravel, 0, driftTravel, 0, size);
+    }
+
+    /**
+     * Removes every projectile.
+     */
+    public void clear() {
+        size = 0;
+    }
+
+    /**
+     * Moves every projectile up by dy pixels and sideways by one tick of its drift, and removes
+     * the ones that have left the area between top and the sides of the screen.
+     */
+    public void move(int dy, int tickRate, int top, int screenWidth) {
+        // Backwards, so a removal only moves in a projectile that has already been moved
+        for (int i = size - 1; i >= 0; i--) {
+            driftTravel[i] += drift[i];
+            int dx = driftTravel[i] / tickRate;
+            driftTravel[i] -= dx * tickRate;
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            x[i] += dx;
+            y[i] -= dy;
+            if (y[i] < top || x[i] < 0 || x[i] >= screenWidth) {
+                remove(i);  // Off-screen
+            }
+        }
+    }
+
+    public int getX(int i) {
+        return x[i];
+    }
+
+    public int getY(int i) {
+        return y[i];
+    }
+
+    /**
+     * X to draw projectile i at, blended between the previous and current tick.
+     */
+    public int renderX(int i, double alpha) {
+        return (int) Math.round(prevX[i] + (x[i] - prevX[i]) * alpha);
+    }
+
+    /**
+     * Y to draw projectile i at, blended between the previous and current tick.
+     */
+    public int renderY(int i, double alpha) {
+        return (int) Math.round(prevY[i] + (y[i] - prevY[i]) * alpha);
+    }
+}
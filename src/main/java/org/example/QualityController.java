@@ -0,0 +1,103 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Picks the {@link QualityTier} to render at from how long recent frames took. It steps down a
+ * tier as soon as frames keep overrunning the budget, and back up only after a long stretch of
+ * frames well inside it, so a tier that only just fits isn't left and rejoined every second. A
+ * step up that has to be undone soon after makes the next one wait twice as long. Every change
+ * is logged with the figures behind it. Tiers that save nothing with the window's scaling are
+ * skipped. Render thread only; nothing here allocates per frame.
+ */
+public class QualityController {
+
+    private static final int DOWN_FRAMES = 30;         // Frames judged when stepping down
+    private static final int DOWN_OVERRUNS = 3;        // Overruns among them that mean we can't keep up
+    private static final int UP_BLOCK = 30;            // Headroom is judged a block of frames at a time
+    private static final int UP_SLOW = 3;              // Frames over the headroom a block may have and still count
+    private static final int BASE_UP_FRAMES = 180;     // Frames of headroom in a row before trying the tier above
+    private static final int MAX_UP_FRAMES = BASE_UP_FRAMES * 16;
+    private static final int PROBATION_FRAMES = BASE_UP_FRAMES * 2;  // A step down this soon after a step up undoes it
+    private static final double HEADROOM = 0.6;        // Share of the budget frames must stay under to step up
+
+    private final long budgetNanos, headroomNanos;
+    private final BackBuffer.Scaling scaling;  // Decides which tiers are worth stepping to
+    private QualityTier tier;
+
+    // Overruns among the last DOWN_FRAMES frames, as a ring of flags
+    private final boolean[] overran = new boolean[DOWN_FRAMES];
+    private int next, overruns;
+
+    // Since the last change of tier
+    private int frames;
+    private long nanos;
+    private int blockFrames, blockSlow;  // The current block, slow meaning over the headroom
+    private int headroomFrames;          // In the blocks in a row that had headroom
+
+    private int upFrames = BASE_UP_FRAMES;
+    private boolean probation = false;  // Stepped up less than PROBATION_FRAMES ago
+
+    /**
+     * Starts at the given tier, aiming for frames of at most budgetNanos when presented with the
+     * given scaling.
+     */
+    public QualityController(QualityTier start, long budgetNanos, BackBuffer.Scaling scaling) {
+        this.tier = start;
+        this.budgetNanos = budgetNanos;
+        this.scaling = scaling;
+        this.headroomNanos = (long) (budgetNanos * HEADROOM);
+        System.out.printf("Quality %s, adapting to a %.1f ms frame budget%n", tier, budgetNanos / 1e6);
+    }
+
+    public QualityTier getTier() {
+        return tier;
+    }
+
+    /**
+     * Takes the time the last frame took to render and show, and returns the tier to render the
+     * next one at.
+     */
+    public QualityTier frameDone(long frameNanos) {
+        frames++;
+        nanos += frameNanos;
+        boolean over = frameNanos > budgetNanos;
+        if (overran[next]) overruns--;
+        overran[next] = over;
+        if (over) overruns++;
+        next = (next + 1) % DOWN_FRAMES;
+        blockFrames++;
+        if (frameNanos > headroomNanos) blockSlow++;
+        if (blockFrames == UP_BLOCK) {
+            headroomFrames = blockSlow <= UP_SLOW ? headroomFrames + UP_BLOCK : 0;
+            blockFrames = blockSlow = 0;
+        }
+
+        if (frames >= DOWN_FRAMES && overruns >= DOWN_OVERRUNS && tier.lower(scaling) != tier) {
+            if (probation) {
+                upFrames = Math.min(upFrames * 2, MAX_UP_FRAMES);  // Stepped up too soon; wait longer next time
+            }
+            change(tier.lower(scaling), String.format("%d of the last %d frames over the %.1f ms budget",
+                    overruns, DOWN_FRAMES, budgetNanos / 1e6));
+            probation = false;
+        } else if (headroomFrames >= upFrames && tier.higher(scaling) != tier) {
+            change(tier.higher(scaling), String.format("%d frames in a row mostly under %.1f ms",
+                    headroomFrames, headroomNanos / 1e6));
+            probation = true;
+        } else if (probation && frames >= PROBATION_FRAMES) {
+            probation = false;  // The step up held
+            upFrames = Math.max(BASE_UP_FRAMES, upFrames / 2);
+        }
+        return tier;
+    }
+
+    private void change(QualityTier to, String reason) {
+        System.out.printf("Quality %s -> %s: %s, %.1f ms per frame on average%n", tier, to, reason, nanos / 1e6 / frames);
+        tier = to;
+        // Judge the new tier on its own frames
+        Arrays.fill(overran, false);
+        overruns = 0;
+        frames = blockFrames = blockSlow = headroomFrames = 0;
+        nanos = 0;
+    }
+}
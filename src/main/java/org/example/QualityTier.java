@@ -0,0 +1,67 @@
+package org.example;
+
+/**
+ * How much the renderer spends on a frame, from everything on down to the cheapest picture that
+ * still plays. Each tier keeps the savings of the ones above it; {@link QualityController} moves
+ * between them as frame times allow.
+ */
+public enum QualityTier {
+    FULL(true, true, true, 1),
+    NO_ALPHA(false, true, true, 1),           // Opaque lanes and shield instead of blending them
+    NEAREST(false, false, true, 1),           // Nearest-neighbour scaling of the frame and backgrounds (SMOOTH only)
+    NO_MARKERS(false, false, false, 1),       // Plain lanes without dashed center lines
+    HALF_RESOLUTION(false, false, false, 0.5);  // Frame and backgrounds drawn at half size, then stretched
+
+    private static final QualityTier[] VALUES = values();
+
+    final boolean translucent;   // Blend the lanes and the shield
+    final boolean filtered;      // Bilinear scaling
+    final boolean laneMarkers;   // Dashed center lines on roads
+    final double renderScale;    // Of the frame the game is drawn into
+
+    QualityTier(boolean translucent, boolean filtered, boolean laneMarkers, double renderScale) {
+        this.translucent = translucent;
+        this.filtered = filtered;
+        this.laneMarkers = laneMarkers;
+        this.renderScale = renderScale;
+    }
+
+    /**
+     * Whether this tier saves anything over the one above it when the frame is stretched with the
+     * given scaling. NEAREST doesn't under INTEGER scaling: the frame is stretched nearest-neighbour
+     * already, and the backgrounds are only scaled when a level's static layer is painted.
+     */
+    public boolean savesWith(BackBuffer.Scaling scaling) {
+        return this != NEAREST || scaling == BackBuffer.Scaling.SMOOTH;
+    }
+
+    /**
+     * The next cheaper tier that saves something with the given scaling, or this one if there is none.
+     */
+    public QualityTier lower(BackBuffer.Scaling scaling) {
+        for (int i = ordinal() + 1; i < VALUES.length; i++) {
+            if (VALUES[i].savesWith(scaling)) return VALUES[i];
+        }
+        return this;
+    }
+
+    /**
+     * The next better tier that saves something with the given scaling, or this one if it is FULL.
+     */
+    public QualityTier higher(BackBuffer.Scaling scaling) {
+        for (int i = ordinal() - 1; i >= 0; i--) {
+            if (VALUES[i].savesWith(scaling)) return VALUES[i];
+        }
+        return this;
+    }
+
+    /**
+     * Parses a tier name, any case, or returns null for anything else (e.g. "auto").
+     */
+    public static QualityTier fromName(String name) {
+        for (QualityTier tier : VALUES) {
+            if (tier.name().equalsIgnoreCase(name)) return tier;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,25 @@
+package org.example;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Input source fed from another thread, e.g. key presses on the EDT.
+ * Actions are applied on the next tick after they were added.
+ */
+public class QueuedInput implements InputSource {
+
+    private final Queue<GameAction> pending = new ConcurrentLinkedQueue<>();
+
+    /**
+     * Queues an action for the next tick. Safe to call from any thread.
+     */
+    public void add(GameAction action) {
+        pending.add(action);
+    }
+
+    @Override
+    public GameAction poll(long tick) {
+        return pending.poll();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example;
+
+/**
+ * What a snapshot stream records of one tick: the player, the HUD figures, the obstacles and the
+ * power-ups. The recorder captures one from the game every tick it records, and the reader
+ * decodes into one, which the viewer hands to the renderer like the live game. Projectiles, the
+ * health message and endless mode are not recorded.
+ */
+public class RecordedState implements GameView {
+
+    long tick;
+    int level, selectedCat, health, score, remainingTime, speedBoostTimeLeft;
+    int flags;  // SnapshotFormat.FLAG_ bits
+    int playerX, playerY;
+    int step;   // Pixels every obstacle moved since the previous record
+    final ObstacleStore obstacles = new ObstacleStore(16, GameSimulation.LANE_TOP,
+            GameSimulation.LANE_HEIGHT, GameSimulation.LANE_COUNT);
+    final PowerUpStore powerUps = new PowerUpStore(4);
+    private final ProjectilePool projectiles = new ProjectilePool(1);  // Always empty
+
+    /**
+     * Overwrites this state with the game's current one. Only allocates if the game holds more
+     * obstacles or power-ups than this state ever has.
+     */
+    void capture(GameSimulation game) {
+        tick = game.getTick();
+        level = game.getLevel();
+        selectedCat = game.getSelectedCat();
+        health = game.getHealth();
+        score = game.getScore();
+        remainingTime = game.getRemainingTime();
+        speedBoostTimeLeft = game.getSpeedBoostTimeLeft();
+        flags = (game.hasWon() ? SnapshotFormat.FLAG_WON : 0)
+                | (game.isGameOver() ? SnapshotFormat.FLAG_GAME_OVER : 0)
+                | (game.isPaused() ? SnapshotFormat.FLAG_PAUSED : 0)
+                | (game.isShieldActive() ? SnapshotFormat.FLAG_SHIELD : 0)
+                | (game.isSpeedBoostActive() ? SnapshotFormat.FLAG_SPEED_BOOST : 0);
+        playerX = game.getPlayerX();
+        playerY = game.getPlayerY();
+        obstacles.copyFrom(game.getObstacles());
+        powerUps.copyFrom(game.getPowerUps());
+    }
+
+    /**
+     * Makes this state a copy of other, e.g. to hand a decoded state to another thread.
+     */
+    public void copyFrom(RecordedState other) {
+        tick = other.tick;
+        level = other.level;
+        selectedCat = other.selectedCat;
+        health = other.health;
+        score = other.score;
+        remainingTime = other.remainingTime;
+        speedBoostTimeLeft = other.speedBoostTimeLeft;
+        flags = other.flags;
+        playerX = other.playerX;
+        playerY = other.playerY;
+        step = other.step;
+        obstacles.copyFrom(other.obstacles);
+        powerUps.copyFrom(other.powerUps);
+    }
+
+    public long getTick() {
+        return tick;
+    }
+
+    @Override public int getLevel() { return level; }
+    @Override public boolean isEndless() { return false; }
+    @Override public boolean hasWon() { return (flags & SnapshotFormat.FLAG_WON) != 0; }
+    @Override public boolean isGameOver() { return (flags & SnapshotFormat.FLAG_GAME_OVER) != 0; }
+    @Override public boolean isPaused() { return (flags & SnapshotFormat.FLAG_PAUSED) != 0; }
+    @Override public int getScore() { return score; }
+    @Override public int getHealth() { return health; }
+    @Override public int getRemainingTime() { return remainingTime; }
+    @Override public int getDistance() { return 0; }
+    @Override public int getPlayerX() { return playerX; }
+    @Override public int getPlayerY() { return playerY; }
+    @Override public int getSelectedCat() { return selectedCat; }
+    @Override public boolean isShieldActive() { return (flags & SnapshotFormat.FLAG_SHIELD) != 0; }
+    @Override public boolean isSpeedBoostActive() { return (flags & SnapshotFormat.FLAG_SPEED_BOOST) != 0; }
+    @Override public int getSpeedBoostTimeLeft() { return speedBoostTimeLeft; }
+    @Override public String getHealthMessage() { return ""; }
+    @Override public int getCameraY() { return 0; }
+    @Override public ObstacleStore getObstacles() { return obstacles; }
+    @Override public PowerUpStore getPowerUps() { return powerUps; }
+    @Override public ProjectilePool getProjectiles() { return projectiles; }
+    @Override public EndlessTrack getTrack() { return null; }
+}
@@ -0,0 +1,78 @@
+package org.example;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Draws frames on its own thread, at most fpsCap times per second, parked in between.
+ * It never runs simulation steps, so a slow frame only delays the next frame.
+ */
+public class RenderLoop implements Runnable {
+
+    private final Runnable render;  // Draws and shows one frame
+    private final long frameNanos;  // Minimum time between frames, 0 for uncapped
+
+    private volatile boolean running = false;
+    private Thread thread;
+
+    /**
+     * Creates a loop that calls render at most fpsCap times per second. An fpsCap of 0 or less
+     * renders as fast as possible, which keeps a core busy.
+     */
+    public RenderLoop(Runnable render, int fpsCap) {
+        this.render = render;
+        this.frameNanos = fpsCap > 0 ? 1_000_000_000L / fpsCap : 0;
+    }
+
+    /**
+     * Starts the loop thread.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        thread = new Thread(this, "render");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Asks the loop thread to finish after the current frame.
+     */
+    public synchronized void stop() {
+        running = false;
+        if (thread != null && thread != Thread.currentThread()) {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    @Override
+    public void run() {
+        long deadline = System.nanoTime();
+        while (running) {
+            render.run();
+            deadline = pace(deadline);
+        }
+    }
+
+    /**
+     * Parks until the next frame is due and returns when that was. Deadlines keep a fixed
+     * cadence, so a park that oversleeps is made up by a shorter one next frame instead of
+     * lowering the frame rate; after a frame that ran a whole frame late they start over from
+     * now rather than rendering a burst to catch up. Uncapped loops only yield.
+     */
+    private long pace(long deadline) {
+        if (frameNanos <= 0) {
+            Thread.yield();
+            return deadline;
+        }
+        deadline += frameNanos;
+        long remaining = deadline - System.nanoTime();
+        if (remaining < -frameNanos) {
+            return System.nanoTime();
+        }
+        while (running && remaining > 0) {
+            LockSupport.parkNanos(remaining);
+            remaining = deadline - System.nanoTime();
+        }
+        return deadline;
+    }
+}
@@ -0,0 +1,37 @@
+package org.example;
+
+/**
+ * Layout of a replay file, written by {@link InputRecorder} and read by {@link ReplayInput}.
+ *
+ * <pre>
+ * int     magic        "CRRP"
+ * byte    version
+ * byte    game mode    (GameMode ordinal)
+ * varint  tick rate
+ * long    seed         (8 bytes, big-endian)
+ * varint* events       (tick - previous event's tick) &lt;&lt; 4 | code
+ * </pre>
+ *
+ * The code is the action's ordinal, or {@link #END} for the tick the recording stopped on.
+ * Several actions on one tick have a delta of zero. A file cut short by a crash simply ends
+ * after its last complete event. Varints are 7 bits per byte, low bits first, so a key press
+ * within a second of the previous one takes two bytes.
+ * The version also stands for the rules the session was played under: files from before
+ * version 3 collided with boxes instead of sprite masks, so they can't be replayed.
+ */
+final class ReplayFormat {
+
+    static final int MAGIC = 0x43525250;  // "CRRP"
+    static final int VERSION = 3;
+    static final int CODE_BITS = 4;
+    static final int CODE_MASK = (1 << CODE_BITS) - 1;
+    static final int END = CODE_MASK;
+
+    static {
+        if (GameAction.values().length > END) {
+            throw new AssertionError("Too many actions for the replay format");
+        }
+    }
+
+    private ReplayFormat() {}
+}
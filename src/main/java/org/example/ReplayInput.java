@@ -0,0 +1,119 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Input source that plays back a file written by {@link InputRecorder}. The file is memory-mapped
+ * and decoded one event ahead of the simulation, so even a long session is never read into the
+ * heap as a whole. Create the simulation with {@link #getSeed()} and {@link #getTickRate()} to
+ * get the recorded session back exactly, in {@link #getMode()}.
+ */
+public class ReplayInput implements InputSource {
+
+    private static final GameAction[] ACTIONS = GameAction.values();
+
+    private final ByteBuffer data;
+    private final long seed;
+    private final int tickRate;
+    private final GameMode mode;
+
+    private long nextTick;          // Tick of the next event
+    private int nextCode;           // Its action ordinal, or END
+    private boolean exhausted;      // No events left, either at END or where the file was cut short
+    private long endTick = -1;      // Tick the recording stopped on, if it got to write one
+
+    /**
+     * Opens and maps a replay file and reads its header.
+     */
+    public ReplayInput(File file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());  // Stays valid after closing
+        }
+        try {
+            if (data.getInt() != ReplayFormat.MAGIC) {
+                throw new IOException(file + " is not a replay file");
+            }
+            int version = data.get();
+            if (version >= 1 && version < ReplayFormat.VERSION) {
+                throw new IOException(file + " is a version " + version
+                        + " replay, recorded under box collisions, and would not play out the same");
+            }
+            if (version != ReplayFormat.VERSION) {
+                throw new IOException(file + " has unsupported replay version " + version);
+            }
+            mode = GameMode.fromCode(data.get());
+            tickRate = (int) readVarLong();
+            seed = data.getLong();
+            if (tickRate <= 0) {
+                throw new IOException(file + " has a damaged header");
+            }
+        } catch (RuntimeException e) {
+            throw new IOException(file + " has a damaged header", e);
+        }
+        readNext();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public GameMode getMode() {
+        return mode;
+    }
+
+    /**
+     * Whether every recorded action has been played and the recording's last tick has been reached.
+     */
+    public boolean isFinished(long tick) {
+        return exhausted && tick >= endTick;
+    }
+
+    @Override
+    public GameAction poll(long tick) {
+        if (exhausted || nextTick > tick) return null;
+        GameAction action = ACTIONS[nextCode];
+        readNext();
+        return action;
+    }
+
+    // Decodes the next event, or marks the replay exhausted at END or at a truncated event
+    private void readNext() {
+        if (!data.hasRemaining()) {
+            exhausted = true;
+            return;
+        }
+        long value = readVarLong();
+        if (value < 0) {
+            exhausted = true;  // Cut off in the middle of an event
+            return;
+        }
+        nextTick += value >>> ReplayFormat.CODE_BITS;
+        nextCode = (int) (value & ReplayFormat.CODE_MASK);
+        if (nextCode == ReplayFormat.END) {
+            endTick = nextTick;
+            exhausted = true;
+        } else if (nextCode >= ACTIONS.length) {
+            throw new IllegalStateException("Unknown action " + nextCode + " in replay");
+        }
+    }
+
+    // Reads a varint, or returns -1 if the data ends first
+    private long readVarLong() {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            if (!data.hasRemaining()) return -1;
+            int b = data.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,33 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * Replays recorded sessions headless, as fast as the CPU allows, and prints how each one ended.
+ * Usage: java -cp target/classes org.example.ReplayRunner session.crr [more.crr ...]
+ */
+public class ReplayRunner {
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("Usage: ReplayRunner <replay file>...");
+            System.exit(2);
+        }
+        for (String path : args) {
+            ReplayInput replay = new ReplayInput(new File(path));
+            GameSimulation game = new GameSimulation(replay.getSeed(), replay.getTickRate(), Difficulty.DEFAULT, replay.getMode(), replay);
+            long start = System.nanoTime();
+            while (!replay.isFinished(game.getTick())) {
+                game.step();
+            }
+            double seconds = (System.nanoTime() - start) / 1e9;
+            String progress = game.isEndless() ? "endless, row " + game.getDistance()
+                    : "level " + game.getLevel() + ", time left " + game.getRemainingTime();
+            System.out.printf("%s: %d ticks in %.3f s (%.0f ticks/s), %s, score %d, health %d%s%n",
+                    path, game.getTick(), seconds, game.getTick() / Math.max(seconds, 1e-9),
+                    progress, game.getScore(), game.getHealth(),
+                    game.hasWon() ? ", won" : game.isGameOver() ? ", game over" : "");
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package org.example;
+
+import java.time.Instant;
+
+/**
+ * One finished run on the leaderboard, as returned by {@link ScoreStore}'s queries.
+ */
+public final class ScoreEntry {
+
+    private final long time;
+    private final int score, reached, remainingTime, health, cat;
+    private final GameMode mode;
+    private final boolean won;
+
+    ScoreEntry(long time, int score, int reached, int remainingTime, int health, int cat, GameMode mode, boolean won) {
+        this.time = time;
+        this.score = score;
+        this.reached = reached;
+        this.remainingTime = remainingTime;
+        this.health = health;
+        this.cat = cat;
+        this.mode = mode;
+        this.won = won;
+    }
+
+    /**
+     * When the run finished, in milliseconds since the epoch.
+     */
+    public long getTime() {
+        return time;
+    }
+
+    public int getScore() {
+        return score;
+    }
+
+    /**
+     * Level reached, or the highest row in endless mode.
+     */
+    public int getReached() {
+        return reached;
+    }
+
+    public int getRemainingTime() {
+        return remainingTime;
+    }
+
+    public int getHealth() {
+        return health;
+    }
+
+    public int getCat() {
+        return cat;
+    }
+
+    public GameMode getMode() {
+        return mode;
+    }
+
+    public boolean hasWon() {
+        return won;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%6d  %s %-3d  health %d  time left %-3d  cat %d  %s%s", score,
+                mode == GameMode.ENDLESS ? "row" : "level", reached, health, remainingTime, cat + 1,
+                Instant.ofEpochMilli(time), won ? "  won" : "");
+    }
+}
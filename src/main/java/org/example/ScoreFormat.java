@@ -0,0 +1,125 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+import java.util.zip.CRC32C;
+
+/**
+ * Layout of the high-score log and its index, written and read by {@link ScoreStore}.
+ *
+ * <pre>
+ * log:
+ * int     magic        "CRHS"
+ * byte    version
+ * long    generation   (new for every file, so an index built for another log is never trusted)
+ * record* RECORD_BYTES each:
+ *   long  time         (milliseconds since the epoch)
+ *   int   score
+ *   int   reached      (level, or highest row in endless mode)
+ *   int   remaining time
+ *   byte  health, cat, mode (GameMode ordinal), flags (FLAG_WON)
+ *   int   CRC32C of the 24 bytes before it
+ * </pre>
+ *
+ * Records are only ever appended. One that is cut short or fails its checksum ends the log: it
+ * is the tail of a write the crash interrupted, and is cut off when the log is opened.
+ *
+ * <pre>
+ * index:
+ * int     magic        "CRHI"
+ * int     version
+ * int     k            entries per board
+ * int     day boards
+ * long    generation   of the log it was built from
+ * long    records      log records it includes
+ * int     clean        1 if it was closed after the last commit, 0 while open
+ * ...     zero up to INDEX_HEADER_BYTES
+ * board*  1 overall, CAT_COUNT per cat, then the day boards:
+ *   int   day          (days since the epoch, UTC; day boards only, -1 while unused)
+ *   int   count
+ *   k *   24-byte entries laid out like a record without its checksum, best first
+ * </pre>
+ *
+ * Day boards are a ring holding the most recent days, day % day boards. Boards copy whole
+ * entries rather than pointing into the log, so compacting the log leaves the index valid.
+ */
+final class ScoreFormat {
+
+    static final int LOG_MAGIC = 0x43524853;    // "CRHS"
+    static final int INDEX_MAGIC = 0x43524849;  // "CRHI"
+    static final int VERSION = 1;
+
+    static final int LOG_HEADER_BYTES = 13;
+    static final int ENTRY_BYTES = 24;
+    static final int RECORD_BYTES = ENTRY_BYTES + 4;
+    static final int INDEX_HEADER_BYTES = 64;
+    static final int BOARD_HEADER_BYTES = 8;
+
+    static final int CAT_COUNT = 3;
+    static final int FLAG_WON = 1;
+    static final long DAY_MILLIS = 24L * 60 * 60 * 1000;
+    private static final GameMode[] MODES = GameMode.values();
+
+    // Entry fields, as offsets from the start of an entry
+    static final int TIME = 0, SCORE = 8, REACHED = 12, REMAINING_TIME = 16, HEALTH = 20, CAT = 21, MODE = 22, FLAGS = 23;
+
+    private ScoreFormat() {}
+
+    static long day(long time) {
+        return Math.floorDiv(time, DAY_MILLIS);
+    }
+
+    /**
+     * Writes an entry at the buffer's position, advancing it.
+     */
+    static void putEntry(ByteBuffer out, long time, int score, int reached, int remainingTime,
+                         int health, int cat, int mode, int flags) {
+        out.putLong(time).putInt(score).putInt(reached).putInt(remainingTime)
+                .put((byte) health).put((byte) cat).put((byte) mode).put((byte) flags);
+    }
+
+    /**
+     * Whether an entry at a ranks above one at b: a higher score, or the same score earlier.
+     */
+    static boolean ranksAbove(ByteBuffer a, int aOffset, ByteBuffer b, int bOffset) {
+        int aScore = a.getInt(aOffset + SCORE), bScore = b.getInt(bOffset + SCORE);
+        if (aScore != bScore) return aScore > bScore;
+        return a.getLong(aOffset + TIME) < b.getLong(bOffset + TIME);
+    }
+
+    /**
+     * Inserts the entry at srcOffset into a board of at most k entries, stride bytes apart and
+     * best first, that starts at first and holds count entries. Returns the slot it went into,
+     * or -1 if it doesn't make the board; the caller updates the count.
+     */
+    static int insert(ByteBuffer board, int first, int count, int k, int stride, ByteBuffer src, int srcOffset) {
+        if (count == k && !ranksAbove(src, srcOffset, board, first + (k - 1) * stride)) return -1;
+        int slot = Math.min(count, k - 1);  // The last entry drops off a full board
+        while (slot > 0 && ranksAbove(src, srcOffset, board, first + (slot - 1) * stride)) {
+            int from = first + (slot - 1) * stride;
+            for (int i = 0; i < stride; i += 8) {
+                board.putLong(from + stride + i, board.getLong(from + i));
+            }
+            slot--;
+        }
+        int to = first + slot * stride;
+        board.putLong(to, src.getLong(srcOffset));
+        board.putLong(to + 8, src.getLong(srcOffset + 8));
+        board.putLong(to + 16, src.getLong(srcOffset + 16));
+        return slot;
+    }
+
+    /**
+     * Checksum of the entry part of the record at offset.
+     */
+    static int checksum(CRC32C crc, byte[] records, int offset) {
+        crc.reset();
+        crc.update(records, offset, ENTRY_BYTES);
+        return (int) crc.getValue();
+    }
+
+    static ScoreEntry readEntry(ByteBuffer in, int offset) {
+        return new ScoreEntry(in.getLong(offset + TIME), in.getInt(offset + SCORE), in.getInt(offset + REACHED),
+                in.getInt(offset + REMAINING_TIME), in.get(offset + HEALTH), in.get(offset + CAT),
+                MODES[in.get(offset + MODE)], (in.get(offset + FLAGS) & FLAG_WON) != 0);
+    }
+}
@@ -0,0 +1,171 @@
+package org.example;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The leaderboard's top-K boards, kept in a memory-mapped file next to the log so a query is a
+ * read of at most k entries and reopening the store doesn't have to read the whole log. Entries
+ * are added as their records are committed; see {@link ScoreFormat} for the layout. The file is
+ * only trusted if it was closed cleanly after the last commit; otherwise the store rebuilds it
+ * from the log.
+ */
+final class ScoreIndex {
+
+    private static final int OVERALL = 0, FIRST_CAT = 1, FIRST_DAY = FIRST_CAT + ScoreFormat.CAT_COUNT;
+
+    // Header fields
+    private static final int MAGIC = 0, VERSION = 4, K = 8, DAY_BOARDS = 12, GENERATION = 16, RECORDS = 24, CLEAN = 32;
+
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int k, dayBoards, boardBytes;
+
+    private ScoreIndex(FileChannel channel, MappedByteBuffer map, int k, int dayBoards) {
+        this.channel = channel;
+        this.map = map;
+        this.k = k;
+        this.dayBoards = dayBoards;
+        this.boardBytes = ScoreFormat.BOARD_HEADER_BYTES + k * ScoreFormat.ENTRY_BYTES;
+    }
+
+    /**
+     * Maps the index file, creating it or changing its size to fit k entries per board.
+     */
+    static ScoreIndex open(File file, int k, int dayBoards) throws IOException {
+        long size = ScoreFormat.INDEX_HEADER_BYTES
+                + (long) (FIRST_DAY + dayBoards) * (ScoreFormat.BOARD_HEADER_BYTES + k * ScoreFormat.ENTRY_BYTES);
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() != size) {
+                channel.truncate(0);  // Made for other settings; rebuilt from the log
+            }
+            return new ScoreIndex(channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size), k, dayBoards);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the boards match the given log: built for it, by the same settings, from no more
+     * records than it holds, and closed cleanly.
+     */
+    synchronized boolean matches(long generation, long logRecords) {
+        return map.getInt(MAGIC) == ScoreFormat.INDEX_MAGIC && map.getInt(VERSION) == ScoreFormat.VERSION
+                && map.getInt(K) == k && map.getInt(DAY_BOARDS) == dayBoards && map.getInt(CLEAN) == 1
+                && map.getLong(GENERATION) == generation && map.getLong(RECORDS) <= logRecords;
+    }
+
+    /**
+     * Empties every board, ready to be rebuilt from the log with the given generation.
+     */
+    synchronized void reset(long generation) {
+        map.putInt(MAGIC, ScoreFormat.INDEX_MAGIC);
+        map.putInt(VERSION, ScoreFormat.VERSION);
+        map.putInt(K, k);
+        map.putInt(DAY_BOARDS, dayBoards);
+        map.putLong(GENERATION, generation);
+        map.putLong(RECORDS, 0);
+        for (int board = 0; board < FIRST_DAY + dayBoards; board++) {
+            int base = base(board);
+            map.putInt(base, board < FIRST_DAY ? 0 : -1);
+            map.putInt(base + 4, 0);
+        }
+    }
+
+    /**
+     * Log records the boards include.
+     */
+    synchronized long getRecords() {
+        return map.getLong(RECORDS);
+    }
+
+    synchronized void setRecords(long records) {
+        map.putLong(RECORDS, records);
+    }
+
+    /**
+     * Points the index at a compacted log that holds the same top entries under a new generation.
+     */
+    synchronized void rebase(long generation, long records) {
+        map.putLong(GENERATION, generation);
+        map.putLong(RECORDS, records);
+    }
+
+    /**
+     * Marks the boards as in use, or as closed cleanly, and writes the file out.
+     */
+    synchronized void setClean(boolean clean) {
+        map.putInt(CLEAN, clean ? 1 : 0);
+        map.force();
+    }
+
+    /**
+     * Adds the entry of a committed record to the overall board, its cat's and its day's.
+     */
+    synchronized void add(ByteBuffer records, int offset) {
+        insert(OVERALL, records, offset);
+        int cat = records.get(offset + ScoreFormat.CAT);
+        if (cat >= 0 && cat < ScoreFormat.CAT_COUNT) {
+            insert(FIRST_CAT + cat, records, offset);
+        }
+        int day = (int) ScoreFormat.day(records.getLong(offset + ScoreFormat.TIME));
+        int board = FIRST_DAY + Math.floorMod(day, dayBoards);
+        int base = base(board), boardDay = map.getInt(base);
+        if (boardDay > day) return;  // The ring has moved past this day; the log answers for it
+        if (boardDay < day) {
+            map.putInt(base, day);  // A new day takes over the board of the day dayBoards before it
+            map.putInt(base + 4, 0);
+        }
+        insert(board, records, offset);
+    }
+
+    private void insert(int board, ByteBuffer records, int offset) {
+        int base = base(board), count = map.getInt(base + 4);
+        if (ScoreFormat.insert(map, base + ScoreFormat.BOARD_HEADER_BYTES, count, k, ScoreFormat.ENTRY_BYTES,
+                records, offset) >= 0 && count < k) {
+            map.putInt(base + 4, count + 1);
+        }
+    }
+
+    synchronized List<ScoreEntry> top(int limit) {
+        return read(OVERALL, limit);
+    }
+
+    synchronized List<ScoreEntry> topForCat(int cat, int limit) {
+        return read(FIRST_CAT + cat, limit);
+    }
+
+    /**
+     * The best entries of a day, or null if the ring doesn't hold that day.
+     */
+    synchronized List<ScoreEntry> topForDay(long day, int limit) {
+        int board = FIRST_DAY + (int) Math.floorMod(day, (long) dayBoards);
+        return map.getInt(base(board)) == day ? read(board, limit) : null;
+    }
+
+    private List<ScoreEntry> read(int board, int limit) {
+        int base = base(board), count = Math.min(limit, map.getInt(base + 4));
+        List<ScoreEntry> entries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            entries.add(ScoreFormat.readEntry(map, base + ScoreFormat.BOARD_HEADER_BYTES + i * ScoreFormat.ENTRY_BYTES));
+        }
+        return entries;
+    }
+
+    private int base(int board) {
+        return ScoreFormat.INDEX_HEADER_BYTES + board * boardBytes;
+    }
+
+    void close() throws IOException {
+        channel.close();
+    }
+}
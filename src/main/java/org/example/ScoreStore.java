@@ -0,0 +1,622 @@
+package org.example;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.zip.CRC32C;
+
+/**
+ * Durable leaderboard: every finished run is appended to a checksummed log (see
+ * {@link ScoreFormat}), and the best runs overall, per cat and per day are kept in a
+ * memory-mapped {@link ScoreIndex}, so a query never reads the log unless it asks for a day
+ * older than the index remembers.
+ *
+ * <p>Appending only copies the run into a batch; a committer thread writes the whole batch with
+ * one write and one fsync while the next batch fills, so many sessions finishing at once cost one
+ * disk flush. A run is durable once {@link #awaitDurable} says so. After a crash, the log is cut
+ * back to its last complete record and the index is rebuilt from it. A compactor thread keeps the
+ * log short by rewriting it with only the runs that still make some top K.
+ *
+ * <pre>
+ * java -cp target/classes org.example.ScoreStore --log=crossey-scores.log --top=10 --cat=2
+ * </pre>
+ * The tool prints the top runs, of one cat (--cat) or day (--day=2026-10-18) if given;
+ * --compact=true compacts the log first.
+ */
+public class ScoreStore implements Closeable {
+
+    /** Entries per board, and so the most any query returns. */
+    public static final int K = 100;
+
+    private static final int DAY_BOARDS = 64;           // Days the index answers for; older ones read the log
+    private static final int BATCH_RECORDS = 4096;      // Appenders wait for the committer beyond this
+    private static final long MIN_COMPACT_RECORDS = 100_000;
+    private static final int SCAN_RECORDS = 2048;       // Records read at a time when scanning the log
+
+    private final File file;
+    private final ScoreIndex index;
+
+    // The log, guarded by fileLock: the committer appends, compaction swaps in a shorter file
+    private final Object fileLock = new Object();
+    private FileChannel channel;
+    private FileLock processLock;  // Keeps other processes out of the log
+    private long generation;
+    private long logRecords;
+    private final CRC32C crc = new CRC32C();  // Committer only
+
+    // Group commit, guarded by this: appenders fill pending while the committer writes committing
+    private ByteBuffer pending = ByteBuffer.allocate(BATCH_RECORDS * ScoreFormat.RECORD_BYTES);
+    private ByteBuffer committing = ByteBuffer.allocate(BATCH_RECORDS * ScoreFormat.RECORD_BYTES);
+    private long appended, durable;
+    private boolean closing, failed, compactRequested;
+    private long compactAt;
+    private final Object compactLock = new Object();  // One compaction at a time
+
+    // Figures since the last takeStats, guarded by this
+    private final LatencyHistogram commitTimes = new LatencyHistogram();
+    private long statsRecords, statsStart = System.nanoTime();
+    private int statsMaxBatch, statsCompactions;
+
+    private final Thread committer, compactor;
+
+    private ScoreStore(File file) throws IOException {
+        this.file = file;
+        Files.deleteIfExists(compactFile().toPath());  // Left by a compaction that didn't finish
+        channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        try {
+            processLock = lockLog(channel, file);
+            if (channel.size() < ScoreFormat.LOG_HEADER_BYTES) {
+                channel.truncate(0);
+                generation = writeHeader(channel);
+            } else {
+                generation = readHeader(channel, file);
+            }
+            index = ScoreIndex.open(new File(file.getPath() + ".idx"), K, DAY_BOARDS);
+            recover();
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+        compactAt = Math.max(MIN_COMPACT_RECORDS, 2 * logRecords);
+        committer = new Thread(this::commitLoop, "score-committer");
+        committer.setDaemon(true);
+        committer.start();
+        compactor = new Thread(this::compactLoop, "score-compactor");
+        compactor.setDaemon(true);
+        compactor.setPriority(Thread.MIN_PRIORITY);
+        compactor.start();
+    }
+
+    /**
+     * Opens the log, creating it if needed, and recovers it if the last process using it crashed.
+     * The index lives next to it, in the same name with ".idx" added.
+     */
+    public static ScoreStore open(File file) throws IOException {
+        return new ScoreStore(file);
+    }
+
+    private static FileLock lockLog(FileChannel channel, File file) throws IOException {
+        try {
+            FileLock lock = channel.tryLock();
+            if (lock != null) return lock;
+        } catch (OverlappingFileLockException e) {
+            // Open in this process already
+        }
+        throw new IOException(file + " is in use by another store");
+    }
+
+    private static long writeHeader(FileChannel channel) throws IOException {
+        long generation = new SplittableRandom().nextLong();
+        ByteBuffer header = ByteBuffer.allocate(ScoreFormat.LOG_HEADER_BYTES);
+        header.putInt(ScoreFormat.LOG_MAGIC).put((byte) ScoreFormat.VERSION).putLong(generation).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        channel.force(true);
+        return generation;
+    }
+
+    private static long readHeader(FileChannel channel, File file) throws IOException {
+        ByteBuffer header = ByteBuffer.allocate(ScoreFormat.LOG_HEADER_BYTES);
+        while (header.hasRemaining() && channel.read(header, header.position()) >= 0) {}
+        if (header.getInt(0) != ScoreFormat.LOG_MAGIC) {
+            throw new IOException(file + " is not a high-score log");
+        }
+        if (header.get(4) != ScoreFormat.VERSION) {
+            throw new IOException(file + " has unsupported version " + header.get(4));
+        }
+        return header.getLong(5);
+    }
+
+    /**
+     * Brings the index up to date with the log, rebuilding it unless it was closed cleanly, and
+     * cuts off a record the last process didn't finish writing.
+     */
+    private void recover() throws IOException {
+        long size = channel.size();
+        long stored = (size - ScoreFormat.LOG_HEADER_BYTES) / ScoreFormat.RECORD_BYTES;
+        long from = 0;
+        if (index.matches(generation, stored)) {
+            from = index.getRecords();  // Everything before was checked when it was first indexed
+        } else {
+            index.reset(generation);
+        }
+        long valid = from + scan(channel, from, stored, (records, offset, record) -> index.add(records, offset));
+        long end = offset(valid);
+        if (end != size) {
+            System.err.printf("Cut %d bytes of an unfinished write off the end of %s%n", size - end, file);
+            channel.truncate(end);
+            channel.force(true);
+        }
+        logRecords = valid;
+        index.setRecords(valid);
+        index.setClean(false);  // Rebuilt after a crash, as the boards may be half updated
+    }
+
+    /**
+     * Adds a finished game to the log and returns its sequence number for {@link #awaitDurable}.
+     * Waits only if the committer is a whole batch behind. Returns -1 once the store is closed
+     * or a write has failed.
+     */
+    public long append(GameView game) {
+        return append(System.currentTimeMillis(), game.getScore(), game.isEndless() ? game.getDistance() : game.getLevel(),
+                game.getRemainingTime(), game.getHealth(), game.getSelectedCat(),
+                game.isEndless() ? GameMode.ENDLESS : GameMode.LEVELS, game.hasWon());
+    }
+
+    synchronized long append(long time, int score, int reached, int remainingTime, int health, int cat,
+                             GameMode mode, boolean won) {
+        while (!pending.hasRemaining() && !closing && !failed) {
+            try {
+                wait();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return -1;
+            }
+        }
+        if (closing || failed) return -1;
+        ScoreFormat.putEntry(pending, time, score, reached, remainingTime, health, cat, mode.ordinal(),
+                won ? ScoreFormat.FLAG_WON : 0);
+        pending.putInt(0);  // Checksum, filled in by the committer
+        if (pending.position() == ScoreFormat.RECORD_BYTES) {
+            notifyAll();  // Wake the committer
+        }
+        return ++appended;
+    }
+
+    /**
+     * Waits until the run with the given sequence number is on disk. Returns false if it never
+     * will be, because a write failed or the store was closed before it was committed.
+     */
+    public synchronized boolean awaitDurable(long sequence) throws InterruptedException {
+        while (durable < sequence && !failed && committer.isAlive()) {
+            wait();
+        }
+        return durable >= sequence;
+    }
+
+    /**
+     * The best runs, best first; at most min(limit, K).
+     */
+    public List<ScoreEntry> top(int limit) {
+        return index.top(limit);
+    }
+
+    /**
+     * The best runs with the given cat (0, 1 or 2), best first; at most min(limit, K).
+     */
+    public List<ScoreEntry> topForCat(int cat, int limit) {
+        if (cat < 0 || cat >= ScoreFormat.CAT_COUNT) {
+            throw new IllegalArgumentException("No cat " + cat);
+        }
+        return index.topForCat(cat, limit);
+    }
+
+    /**
+     * The best runs that finished on the given day (UTC), best first; at most min(limit, K).
+     * Days older than the index keeps are read from the log.
+     */
+    public List<ScoreEntry> topForDay(LocalDate day, int limit) throws IOException {
+        List<ScoreEntry> entries = index.topForDay(day.toEpochDay(), limit);
+        if (entries != null) return entries;
+        Board board = new Board(Math.min(limit, K));
+        synchronized (fileLock) {
+            scan(channel, 0, logRecords, (records, offset, record) -> {
+                if (ScoreFormat.day(records.getLong(offset + ScoreFormat.TIME)) == day.toEpochDay()) {
+                    board.add(records, offset, record);
+                }
+            });
+        }
+        return board.entries();
+    }
+
+    // Writes out one batch after another until closed
+    private void commitLoop() {
+        while (true) {
+            ByteBuffer batch;
+            synchronized (this) {
+                while (pending.position() == 0 && !closing) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        closing = true;  // Write what's there and stop
+                    }
+                }
+                if (pending.position() == 0) break;
+                batch = pending;
+                pending = committing;
+                committing = batch;
+                notifyAll();  // Appenders waiting for room
+            }
+            long start = System.nanoTime();
+            int count = batch.position() / ScoreFormat.RECORD_BYTES;
+            long records;
+            try {
+                records = commit(batch, count);
+            } catch (IOException e) {
+                e.printStackTrace();  // Stop accepting runs; the ones already on disk stay
+                synchronized (this) {
+                    failed = true;
+                    notifyAll();
+                }
+                break;
+            }
+            batch.clear();
+            synchronized (this) {
+                durable += count;
+                commitTimes.record(System.nanoTime() - start);
+                statsRecords += count;
+                statsMaxBatch = Math.max(statsMaxBatch, count);
+                if (records >= compactAt) {
+                    compactRequested = true;
+                }
+                notifyAll();  // Waiters for durability, and the compactor
+            }
+        }
+    }
+
+    // Writes and indexes a batch, returning how many records the log now holds
+    private long commit(ByteBuffer batch, int count) throws IOException {
+        byte[] records = batch.array();
+        for (int i = 0; i < count; i++) {
+            int offset = i * ScoreFormat.RECORD_BYTES;
+            batch.putInt(offset + ScoreFormat.ENTRY_BYTES, ScoreFormat.checksum(crc, records, offset));
+        }
+        batch.flip();
+        synchronized (fileLock) {
+            long position = offset(logRecords);
+            while (batch.hasRemaining()) {
+                position += channel.write(batch, position);
+            }
+            channel.force(false);  // The group commit: one flush for every run in the batch
+            for (int i = 0; i < count; i++) {
+                index.add(batch, i * ScoreFormat.RECORD_BYTES);
+            }
+            logRecords += count;
+            index.setRecords(logRecords);
+            return logRecords;
+        }
+    }
+
+    // Compacts whenever the committer asks, until closed
+    private void compactLoop() {
+        while (true) {
+            synchronized (this) {
+                while (!compactRequested && !closing) {
+                    try {
+                        wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                if (closing) return;
+            }
+            try {
+                compact();
+            } catch (IOException e) {
+                e.printStackTrace();  // The log just stays longer; try again when it has doubled
+                synchronized (this) {
+                    compactRequested = false;
+                    compactAt = 2 * compactAt;
+                }
+            }
+        }
+    }
+
+    /**
+     * Rewrites the log with only the runs that are in the top K overall, for their cat or for
+     * their day, which is every run a query can return. Appends carry on meanwhile and only wait
+     * for the moment the new file is swapped in. The compactor thread calls this once the log has
+     * doubled since the last time.
+     */
+    public void compact() throws IOException {
+        synchronized (compactLock) {
+            long prefix;
+            FileChannel source;
+            synchronized (fileLock) {
+                prefix = logRecords;  // Records before this don't change while we read them
+                source = channel;
+            }
+            Board overall = new Board(K);
+            Board[] cats = new Board[ScoreFormat.CAT_COUNT];
+            for (int i = 0; i < cats.length; i++) {
+                cats[i] = new Board(K);
+            }
+            Map<Long, Board> days = new HashMap<>();
+            scan(source, 0, prefix, (records, offset, record) -> {
+                overall.add(records, offset, record);
+                int cat = records.get(offset + ScoreFormat.CAT);
+                if (cat >= 0 && cat < cats.length) cats[cat].add(records, offset, record);
+                days.computeIfAbsent(ScoreFormat.day(records.getLong(offset + ScoreFormat.TIME)), d -> new Board(K))
+                        .add(records, offset, record);
+            });
+            BitSet keep = new BitSet();
+            overall.markKept(keep);
+            for (Board board : cats) board.markKept(keep);
+            for (Board board : days.values()) board.markKept(keep);
+
+            File compacted = compactFile();
+            FileChannel target = FileChannel.open(compacted.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            boolean swapped = false;
+            try {
+                FileLock targetLock = lockLog(target, compacted);
+                long newGeneration = writeHeader(target);
+                long[] written = {0};
+                ByteBuffer one = ByteBuffer.allocate(ScoreFormat.RECORD_BYTES);
+                scan(source, 0, prefix, (records, offset, record) -> {
+                    if (!keep.get((int) record)) return;
+                    one.clear();
+                    one.put(records.array(), offset, ScoreFormat.RECORD_BYTES).flip();
+                    while (one.hasRemaining()) {
+                        target.write(one, offset(written[0]) + one.position());
+                    }
+                    written[0]++;
+                });
+                synchronized (fileLock) {
+                    // Runs committed while we were reading go across as they are
+                    long tail = logRecords - prefix;
+                    long from = offset(prefix), to = offset(written[0]);
+                    while (from < offset(logRecords)) {
+                        long copied = channel.transferTo(from, offset(logRecords) - from, target.position(to));
+                        from += copied;
+                        to += copied;
+                    }
+                    target.force(true);
+                    Files.move(compacted.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                            StandardCopyOption.REPLACE_EXISTING);
+                    FileChannel old = channel;
+                    channel = target;
+                    processLock = targetLock;
+                    generation = newGeneration;
+                    logRecords = written[0] + tail;
+                    index.rebase(generation, logRecords);
+                    swapped = true;
+                    try {
+                        old.close();  // Also releases its lock
+                    } catch (IOException ignored) {
+                        // Replaced anyway
+                    }
+                    syncDirectory();
+                }
+            } catch (IOException | RuntimeException e) {
+                if (!swapped) {
+                    target.close();
+                    Files.deleteIfExists(compacted.toPath());
+                }
+                throw e;
+            }
+            synchronized (this) {
+                compactRequested = false;
+                compactAt = Math.max(MIN_COMPACT_RECORDS, 2 * logRecords);
+                statsCompactions++;
+            }
+        }
+    }
+
+    private File compactFile() {
+        return new File(file.getPath() + ".compact");
+    }
+
+    // Makes the rename itself durable, where the platform allows syncing a directory
+    private void syncDirectory() {
+        File dir = file.getAbsoluteFile().getParentFile();
+        try (FileChannel directory = FileChannel.open(dir.toPath(), StandardOpenOption.READ)) {
+            directory.force(true);
+        } catch (IOException e) {
+            // Not supported here; the rename is still atomic
+        }
+    }
+
+    private static long offset(long record) {
+        return ScoreFormat.LOG_HEADER_BYTES + record * ScoreFormat.RECORD_BYTES;
+    }
+
+    // Called for every valid record a scan reads, with the record at offset in records
+    private interface RecordVisitor {
+        void visit(ByteBuffer records, int offset, long record) throws IOException;
+    }
+
+    /**
+     * Reads records from up to to and checks their checksums, stopping at the first one that is
+     * cut short or damaged. Returns the number of valid records read.
+     */
+    private static long scan(FileChannel channel, long from, long to, RecordVisitor visitor) throws IOException {
+        CRC32C crc = new CRC32C();
+        ByteBuffer chunk = ByteBuffer.allocate(SCAN_RECORDS * ScoreFormat.RECORD_BYTES);
+        long record = from;
+        while (record < to) {
+            chunk.clear().limit((int) Math.min(chunk.capacity(), (to - record) * ScoreFormat.RECORD_BYTES));
+            long position = offset(record);
+            while (chunk.hasRemaining()) {
+                int read = channel.read(chunk, position + chunk.position());
+                if (read < 0) break;
+            }
+            int count = chunk.position() / ScoreFormat.RECORD_BYTES;
+            for (int i = 0; i < count; i++, record++) {
+                int offset = i * ScoreFormat.RECORD_BYTES;
+                if (chunk.getInt(offset + ScoreFormat.ENTRY_BYTES) != ScoreFormat.checksum(crc, chunk.array(), offset)) {
+                    return record - from;
+                }
+                visitor.visit(chunk, offset, record);
+            }
+            if (count < SCAN_RECORDS && record < to) break;  // The file ended early
+        }
+        return record - from;
+    }
+
+    /**
+     * Commits what has been appended, stops the committer and compactor, and marks the index
+     * clean so the next open needn't rebuild it. Safe to call more than once and from any thread.
+     */
+    @Override
+    public void close() {
+        synchronized (this) {
+            if (closing) return;
+            closing = true;
+            notifyAll();
+        }
+        try {
+            committer.join();
+            compactor.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;  // The index stays marked in use and is rebuilt next time
+        }
+        synchronized (fileLock) {
+            try {
+                if (!failed) {
+                    index.setClean(true);
+                }
+                index.close();
+                channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+
+    /**
+     * Figures since the last call, for monitoring ingestion.
+     */
+    public synchronized void takeStats(Stats stats) {
+        long now = System.nanoTime();
+        stats.seconds = (now - statsStart) / 1e9;
+        stats.records = statsRecords;
+        stats.commits = commitTimes.getCount();
+        stats.commitP50 = commitTimes.valueAtPercentile(50);
+        stats.commitP99 = commitTimes.valueAtPercentile(99);
+        stats.commitMax = commitTimes.getMax();
+        stats.maxBatch = statsMaxBatch;
+        stats.compactions = statsCompactions;
+        stats.logRecords = logRecords;
+        commitTimes.reset();
+        statsRecords = 0;
+        statsMaxBatch = 0;
+        statsCompactions = 0;
+        statsStart = now;
+    }
+
+    public static class Stats {
+        public double seconds;
+        public long records;           // Runs committed
+        public long commits, commitP50, commitP99, commitMax;  // Write and fsync of one batch
+        public int maxBatch;           // Most runs in one commit
+        public int compactions;
+        public long logRecords;        // Runs in the log now
+    }
+
+    // The best k runs seen by a scan, with the records they came from
+    private static final class Board {
+        private static final int STRIDE = ScoreFormat.ENTRY_BYTES + 8;  // Entry, then its record number
+
+        final int k;
+        final ByteBuffer slots;
+        int count;
+
+        Board(int k) {
+            this.k = k;
+            this.slots = ByteBuffer.allocate(Math.max(1, k) * STRIDE);
+        }
+
+        void add(ByteBuffer records, int offset, long record) {
+            if (k == 0) return;
+            int slot = ScoreFormat.insert(slots, 0, count, k, STRIDE, records, offset);
+            if (slot < 0) return;
+            slots.putLong(slot * STRIDE + ScoreFormat.ENTRY_BYTES, record);
+            if (count < k) count++;
+        }
+
+        void markKept(BitSet keep) {
+            for (int i = 0; i < count; i++) {
+                keep.set((int) slots.getLong(i * STRIDE + ScoreFormat.ENTRY_BYTES));
+            }
+        }
+
+        List<ScoreEntry> entries() {
+            List<ScoreEntry> list = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                list.add(ScoreFormat.readEntry(slots, i * STRIDE));
+            }
+            return list;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        File log = new File("crossey-scores.log");
+        int top = 10;
+        int cat = -1;
+        LocalDate day = null;
+        boolean compact = false;
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.println("Unknown argument " + arg + ", expected --name=value");
+                System.exit(2);
+            }
+            String name = arg.substring(2, eq), value = arg.substring(eq + 1);
+            switch (name) {
+                case "log": log = new File(value); break;
+                case "top": top = Integer.parseInt(value); break;
+                case "cat": cat = Integer.parseInt(value) - 1; break;  // Cats are numbered from 1 on screen
+                case "day": day = LocalDate.parse(value); break;
+                case "compact": compact = Boolean.parseBoolean(value); break;
+                default:
+                    System.err.println("Unknown option --" + name);
+                    System.exit(2);
+            }
+        }
+        if (day != null && cat >= 0) {
+            System.err.println("Boards are kept per cat or per day, not both");
+            System.exit(2);
+        }
+
+        try (ScoreStore store = ScoreStore.open(log)) {
+            if (compact) {
+                long before = store.logRecords;
+                store.compact();
+                System.out.printf("Compacted %d runs to %d%n", before, store.logRecords);
+            }
+            List<ScoreEntry> entries = day != null ? store.topForDay(day, top)
+                    : cat >= 0 ? store.topForCat(cat, top) : store.top(top);
+            for (int i = 0; i < entries.size(); i++) {
+                System.out.printf("%3d. %s%n", i + 1, entries.get(i));
+            }
+        }
+    }
+}
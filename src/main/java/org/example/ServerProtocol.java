@@ -0,0 +1,182 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Wire format between {@link GameServer} and its clients. Every message is a frame: an unsigned
+ * short holding the length of the rest, a type byte, then the payload, all big-endian.
+ *
+ * <pre>
+ * Client to server
+ *   HELLO    byte mode                   starts a new game in this mode, ending any running one
+ *   INPUT    byte* actions               GameAction ordinals, applied on the server's next tick
+ *
+ * Server to client
+ *   WELCOME  int session, long seed, byte mode, short tick rate
+ *   STATE    int tick, byte level, byte flags, byte cat, byte health, int score,
+ *            short time left, int distance, int camera y, short player x, short player y,
+ *            byte n,  n * byte lane type                                  endless mode only
+ *            short n, n * (short x, short y, short width, byte sprite)    obstacles
+ *            byte n,  n * (short x, short y, byte type)                   power-ups
+ *            short n, n * (short x, short y)                              projectiles
+ * </pre>
+ *
+ * Positions are on screen, i.e. relative to the camera. In endless mode the lanes are the rows in
+ * view from the bottom up, and the obstacles are the ones in those rows. Flags are the FLAG_ bits.
+ * A server sends one STATE per tick while a game runs and a last one when it ends.
+ */
+final class ServerProtocol {
+
+    // Message types
+    static final int HELLO = 1, INPUT = 2;
+    static final int WELCOME = 16, STATE = 17;
+
+    static final int HEADER_BYTES = 3;     // Length and type
+
+    // STATE flags
+    static final int FLAG_WON = 1, FLAG_GAME_OVER = 2, FLAG_PAUSED = 4;
+    static final int FLAG_SHIELD = 8, FLAG_SPEED_BOOST = 16, FLAG_ENDLESS = 32;
+
+    private static final int STATE_FIXED_BYTES = 4 + 4 + 4 + 2 + 4 + 4 + 2 + 2 + 2 + 1 + 2;
+    private static final int VIEW_ROWS = GameSimulation.HEIGHT / GameSimulation.LANE_HEIGHT + 1;
+
+    private ServerProtocol() {}
+
+    /**
+     * Length of the frame at the buffer's position, not counting the length field, or -1 if the
+     * whole frame hasn't arrived yet. Leaves the buffer as it was.
+     */
+    static int frameLength(ByteBuffer in) {
+        if (in.remaining() < 2) return -1;
+        int length = in.getShort(in.position()) & 0xFFFF;
+        return in.remaining() >= 2 + length ? length : -1;
+    }
+
+    static void writeHello(ByteBuffer out, GameMode mode) {
+        int start = begin(out, HELLO);
+        out.put((byte) mode.ordinal());
+        end(out, start);
+    }
+
+    static void writeInput(ByteBuffer out, GameAction action) {
+        int start = begin(out, INPUT);
+        out.put((byte) action.ordinal());
+        end(out, start);
+    }
+
+    static void writeWelcome(ByteBuffer out, int session, long seed, GameMode mode, int tickRate) {
+        int start = begin(out, WELCOME);
+        out.putInt(session);
+        out.putLong(seed);
+        out.put((byte) mode.ordinal());
+        out.putShort((short) tickRate);
+        end(out, start);
+    }
+
+    /**
+     * Most bytes a STATE frame for the game can take, so a sender can check for room first.
+     */
+    static int maxStateBytes(GameView game) {
+        int obstacles = game.isEndless() ? VIEW_ROWS * EndlessTrack.MAX_PER_LANE : game.getObstacles().size();
+        return HEADER_BYTES + STATE_FIXED_BYTES + (game.isEndless() ? 1 + VIEW_ROWS : 0)
+                + 7 * obstacles + 5 * game.getPowerUps().size() + 4 * game.getProjectiles().size();
+    }
+
+    /**
+     * Writes a STATE frame for the game's current tick. The buffer must have maxStateBytes room.
+     */
+    static void writeState(ByteBuffer out, GameSimulation game) {
+        int start = begin(out, STATE);
+        int camera = game.getCameraY();
+        out.putInt((int) game.getTick());
+        out.put((byte) game.getLevel());
+        out.put((byte) flags(game));
+        out.put((byte) game.getSelectedCat());
+        out.put((byte) game.getHealth());
+        out.putInt(game.getScore());
+        out.putShort((short) game.getRemainingTime());
+        out.putInt(game.getDistance());
+        out.putInt(camera);
+        out.putShort((short) game.getPlayerX());
+        out.putShort((short) (game.getPlayerY() - camera));
+
+        EndlessTrack track = game.getTrack();
+        if (track != null) {
+            writeEndless(out, track, camera);
+        } else {
+            ObstacleStore obstacles = game.getObstacles();
+            out.putShort((short) obstacles.size());
+            for (int i = 0; i < obstacles.size(); i++) {
+                out.putShort((short) obstacles.getX(i));
+                out.putShort((short) obstacles.getY(i));
+                out.putShort((short) obstacles.getWidth(i));
+                out.put((byte) obstacles.getSprite(i));
+            }
+        }
+
+        PowerUpStore powerUps = game.getPowerUps();
+        out.put((byte) powerUps.size());
+        for (int i = 0; i < powerUps.size(); i++) {
+            out.putShort((short) powerUps.getX(i));
+            out.putShort((short) (powerUps.getY(i) - camera));
+            out.put((byte) powerUps.getType(i).ordinal());
+        }
+        ProjectilePool projectiles = game.getProjectiles();
+        out.putShort((short) projectiles.size());
+        for (int i = 0; i < projectiles.size(); i++) {
+            out.putShort((short) projectiles.getX(i));
+            out.putShort((short) (projectiles.getY(i) - camera));
+        }
+        end(out, start);
+    }
+
+    /**
+     * Lane types of the rows in view, bottom up, then the obstacles in them.
+     */
+    private static void writeEndless(ByteBuffer out, EndlessTrack track, int camera) {
+        int bottomRow = EndlessTrack.rowOf(camera + GameSimulation.HEIGHT - 1), topRow = EndlessTrack.rowOf(camera);
+        out.put((byte) (topRow - bottomRow + 1));
+        int obstacles = 0;
+        for (int row = bottomRow; row <= topRow; row++) {
+            int slot = track.slotOf(row);
+            out.put(slot < 0 ? EndlessTrack.GRASS : track.getType(slot));
+            if (slot >= 0) obstacles += track.getCount(slot);
+        }
+        out.putShort((short) obstacles);
+        for (int row = bottomRow; row <= topRow; row++) {
+            int slot = track.slotOf(row);
+            if (slot < 0) continue;
+            int y = track.getObstacleY(slot) - camera;
+            for (int k = 0; k < track.getCount(slot); k++) {
+                int i = EndlessTrack.obstacle(slot, k);
+                out.putShort((short) track.getX(i));
+                out.putShort((short) y);
+                out.putShort((short) track.getObstacleWidth(slot));
+                out.put((byte) track.getSprite(i));
+            }
+        }
+    }
+
+    private static int flags(GameView game) {
+        int flags = 0;
+        if (game.hasWon()) flags |= FLAG_WON;
+        if (game.isGameOver()) flags |= FLAG_GAME_OVER;
+        if (game.isPaused()) flags |= FLAG_PAUSED;
+        if (game.isShieldActive()) flags |= FLAG_SHIELD;
+        if (game.isSpeedBoostActive()) flags |= FLAG_SPEED_BOOST;
+        if (game.isEndless()) flags |= FLAG_ENDLESS;
+        return flags;
+    }
+
+    // Leaves room for the length, which end fills in once the payload is written
+    private static int begin(ByteBuffer out, int type) {
+        int start = out.position();
+        out.putShort((short) 0);
+        out.put((byte) type);
+        return start;
+    }
+
+    private static void end(ByteBuffer out, int start) {
+        out.putShort(start, (short) (out.position() - start - 2));
+    }
+}
@@ -0,0 +1,158 @@
+package org.example;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * One client connected to the {@link GameServer} and the game it is playing. The server's I/O
+ * thread reads the client's messages and writes out what is queued for it; a tick worker steps the
+ * game and queues its state. The two only share the input queue, the game to start next and the
+ * outgoing buffer, which is locked for the moment it is filled or drained.
+ */
+public class ServerSession {
+
+    private static final int IN_BYTES = 256;        // Client messages are a few bytes each
+    private static final int OUT_BYTES = 16 * 1024; // A few ticks of state; more and states are dropped
+    private static final GameAction[] ACTIONS = GameAction.values();
+    private static final GameMode[] MODES = GameMode.values();
+    private static final int WELCOME_BYTES = ServerProtocol.HEADER_BYTES + 15;  // Kept free so a new game can always start
+
+    private final int id;
+    private final SocketChannel channel;
+    private final SelectionKey key;
+    private final ByteBuffer in = ByteBuffer.allocate(IN_BYTES);    // I/O thread only
+    private final ByteBuffer out = ByteBuffer.allocate(OUT_BYTES);  // Guarded by this
+    private final QueuedInput input = new QueuedInput();
+    private final ScoreStore scores;  // Null if finished games aren't saved
+    private final CollisionMasks masks;
+
+    // Game asked for by the last HELLO: mode ordinal + 1, or 0 for none. The seed is written first.
+    private final AtomicInteger pendingMode = new AtomicInteger();
+    private volatile long pendingSeed;
+
+    private volatile boolean closed = false;
+    private GameSimulation game;  // Tick worker only
+    private boolean finishSent;   // Tick worker only
+
+    ServerSession(int id, SocketChannel channel, SelectionKey key, ScoreStore scores, CollisionMasks masks) {
+        this.id = id;
+        this.channel = channel;
+        this.key = key;
+        this.scores = scores;
+        this.masks = masks;
+    }
+
+    public int getId() {
+        return id;
+    }
+
+    public boolean isClosed() {
+        return closed;
+    }
+
+    /**
+     * Reads whatever the client has sent and acts on every complete message. Returns false once
+     * the client has disconnected or broken the protocol. I/O thread only.
+     */
+    boolean read(long seed) throws IOException {
+        if (channel.read(in) < 0) return false;
+        in.flip();
+        int length;
+        boolean ok = true;
+        while (ok && (length = ServerProtocol.frameLength(in)) >= 0) {
+            int next = in.position() + 2 + length;
+            in.position(in.position() + 2);
+            ok = length > 0 && handle(in.get(), length - 1, seed);
+            in.position(next);
+        }
+        in.compact();
+        // A frame that can never fit the buffer is a broken client too
+        return ok && in.position() < in.capacity();
+    }
+
+    private boolean handle(int type, int length, long seed) {
+        switch (type) {
+            case ServerProtocol.HELLO:
+                int mode = length == 1 ? in.get() : -1;
+                if (mode < 0 || mode >= MODES.length) return false;
+                pendingSeed = seed;
+                pendingMode.set(mode + 1);
+                return true;
+            case ServerProtocol.INPUT:
+                for (int i = 0; i < length; i++) {
+                    int action = in.get();
+                    if (action < 0 || action >= ACTIONS.length) return false;
+                    input.add(ACTIONS[action]);
+                }
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /**
+     * Runs one tick of the session's game and queues its state for the client: starts the game a
+     * HELLO asked for, then steps the running one. A finished game is saved to the leaderboard
+     * and left alone after its last state is sent. Returns false if the client is too far behind
+     * and the state was dropped. Tick worker only.
+     */
+    boolean tick(int tickRate, Difficulty difficulty) {
+        int mode = pendingMode.getAndSet(0);
+        if (mode != 0) {
+            start(MODES[mode - 1], pendingSeed, tickRate, difficulty);
+        }
+        if (game == null || finishSent) return true;
+        game.step();
+        finishSent = game.isFinished();
+        if (finishSent && scores != null) {
+            scores.append(game);  // Committed in the background with the other sessions' runs
+        }
+        synchronized (this) {
+            if (out.remaining() < ServerProtocol.maxStateBytes(game) + WELCOME_BYTES) {
+                return false;  // The client isn't keeping up; it gets a newer state once it catches up
+            }
+            ServerProtocol.writeState(out, game);
+            return true;
+        }
+    }
+
+    private void start(GameMode mode, long seed, int tickRate, Difficulty difficulty) {
+        while (input.poll(0) != null) {}  // Keys pressed in the last game don't carry over
+        game = new GameSimulation(seed, tickRate, difficulty, mode, input, masks);
+        finishSent = false;
+        synchronized (this) {
+            ServerProtocol.writeWelcome(out, id, seed, mode, tickRate);  // States always leave room for it
+        }
+    }
+
+    /**
+     * Writes as much of the queued output as the socket takes, and asks to be told when it can
+     * take more if some is left. I/O thread only.
+     */
+    void flush() throws IOException {
+        synchronized (this) {
+            if (out.position() == 0) return;
+            out.flip();
+            channel.write(out);
+            out.compact();
+            int ops = out.position() > 0 ? SelectionKey.OP_READ | SelectionKey.OP_WRITE : SelectionKey.OP_READ;
+            if (key.interestOps() != ops) key.interestOps(ops);
+        }
+    }
+
+    /**
+     * Disconnects the client. The scheduler drops the session on its next tick.
+     */
+    void close() {
+        closed = true;
+        key.cancel();
+        try {
+            channel.close();
+        } catch (IOException ignored) {
+            // Closing anyway
+        }
+    }
+}
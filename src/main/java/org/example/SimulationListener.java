@@ -0,0 +1,30 @@
+package org.example;
+
+/**
+ * Notified by the simulation when something happens that a front end may want to show or play.
+ * All methods are called on the thread that steps the simulation.
+ */
+public interface SimulationListener {
+
+    /**
+     * A listener that ignores everything.
+     */
+    SimulationListener NONE = new SimulationListener() {};
+
+    default void onScoreChanged(int score) {}
+
+    default void onHealthChanged(int health) {}
+
+    default void onTimeChanged(int remainingTime) {}
+
+    default void onCatChanged(int cat) {}
+
+    /** The player was hit by an obstacle without a shield. */
+    default void onCrash() {}
+
+    /** The player moved on to another level; a level above 3 means the game was won. */
+    default void onLevelChanged(int level) {}
+
+    /** The countdown ran out. */
+    default void onTimeUp() {}
+}
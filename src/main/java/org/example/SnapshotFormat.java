@@ -0,0 +1,80 @@
+package org.example;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Layout of a snapshot stream, written by {@link SnapshotRecorder} and read by {@link SnapshotReader}.
+ *
+ * <pre>
+ * int     magic        "CRSS"
+ * byte    version
+ * varint  tick rate
+ * block*  byte kind, varint keyframe tick (SEGMENT only), varint length, length bytes of deflate data
+ * </pre>
+ *
+ * A SEGMENT block starts a new deflate stream whose first record is a keyframe, so a reader can
+ * start at any segment; MORE blocks carry on the stream of the segment before them. Each block
+ * ends on a record boundary (the writer sync-flushes), so a file cut short loses at most its last
+ * block. Inflated, a segment is a series of records:
+ *
+ * <pre>
+ * varint  head         tick &lt;&lt; 1 | 1 for a keyframe, (tick - previous record's tick) &lt;&lt; 1 for a delta
+ * keyframe: every field below, in order
+ * delta:    varint mask of the FIELD_ bits that changed, then those fields in order
+ *
+ * LEVEL, CAT, HEALTH     varint
+ * SCORE, TIME, BOOST     zigzag varint, difference from the previous record (keyframes: the value)
+ * FLAGS                  byte of FLAG_ bits
+ * PLAYER_X, PLAYER_Y     zigzag varint, difference (keyframes: the value)
+ * STEP                   zigzag varint, pixels every obstacle moved since the previous record
+ * OBSTACLES              keyframe: varint n, n * (zigzag x, varint y, width, height, sprite)
+ *                        delta:    varint n, varint edits, edits * (varint index &lt;&lt; 1 | full,
+ *                                  full ? zigzag x, varint y, width, height, sprite : zigzag x - predicted x)
+ * POWER_UPS              varint n, n * (zigzag x, varint y, type)
+ * </pre>
+ *
+ * In a delta, every obstacle that isn't edited moved by STEP, which is carried over from the
+ * previous record when it is left out; edits are the ones that wrapped around or were replaced.
+ * When a delta lists OBSTACLES, the ones from index n on are dropped and new ones arrive as full
+ * edits, in index order. Power-ups change rarely and are always sent whole.
+ */
+final class SnapshotFormat {
+
+    static final int MAGIC = 0x43525353;  // "CRSS"
+    static final int VERSION = 1;
+
+    // Block kinds
+    static final int SEGMENT = 1, MORE = 2;
+
+    // Fields, in the order they are written
+    static final int FIELD_LEVEL = 1, FIELD_CAT = 1 << 1, FIELD_HEALTH = 1 << 2, FIELD_SCORE = 1 << 3;
+    static final int FIELD_TIME = 1 << 4, FIELD_BOOST = 1 << 5, FIELD_FLAGS = 1 << 6;
+    static final int FIELD_PLAYER_X = 1 << 7, FIELD_PLAYER_Y = 1 << 8, FIELD_STEP = 1 << 9;
+    static final int FIELD_OBSTACLES = 1 << 10, FIELD_POWER_UPS = 1 << 11;
+
+    // Flags
+    static final int FLAG_WON = 1, FLAG_GAME_OVER = 2, FLAG_PAUSED = 4, FLAG_SHIELD = 8, FLAG_SPEED_BOOST = 16;
+
+    private SnapshotFormat() {}
+
+    static int zigzag(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    static int unzigzag(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    static long readVarLong(ByteBuffer in) {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.get();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    static int readVarInt(ByteBuffer in) {
+        return (int) readVarLong(in);
+    }
+}
@@ -0,0 +1,302 @@
+package org.example;
+
+import java.io.BufferedInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Reads a {@link SnapshotFormat} stream back one recorded tick at a time. A file is indexed by its
+ * keyframes when it is opened, so playback can jump to any of them; a live stream from a socket
+ * is read as it arrives, starting at its first keyframe. A stream cut short, e.g. by a crash,
+ * simply ends after its last complete block.
+ */
+public class SnapshotReader implements Closeable {
+
+    private static final PowerUpType[] POWER_UP_TYPES = PowerUpType.values();
+
+    /**
+     * A place playback can start from.
+     */
+    public static final class Keyframe {
+        public final long tick;
+        final long offset;  // Of its SEGMENT block in the file
+
+        Keyframe(long tick, long offset) {
+            this.tick = tick;
+            this.offset = offset;
+        }
+    }
+
+    private final FileChannel channel;  // Null for a live stream
+    private DataInputStream in;
+    private final int tickRate;
+    private final List<Keyframe> keyframes;
+    private final Inflater inflater = new Inflater();
+    private boolean inSegment = false;  // Skip blocks until the first segment starts
+
+    // Records of the current block, inflated
+    private byte[] inflated = new byte[4096];
+    private ByteBuffer records = ByteBuffer.wrap(inflated, 0, 0);
+    private byte[] compressed = new byte[1024];
+
+    /**
+     * Reads a live stream, e.g. from a socket, starting at its first keyframe.
+     */
+    public SnapshotReader(InputStream stream) throws IOException {
+        this(null, stream, Collections.emptyList());
+    }
+
+    private SnapshotReader(FileChannel channel, InputStream stream, List<Keyframe> keyframes) throws IOException {
+        this.channel = channel;
+        this.in = new DataInputStream(new BufferedInputStream(stream, 4096));
+        this.keyframes = keyframes;
+        if (in.readInt() != SnapshotFormat.MAGIC) {
+            throw new IOException("Not a snapshot stream");
+        }
+        int version = in.readByte();
+        if (version != SnapshotFormat.VERSION) {
+            throw new IOException("Unsupported snapshot stream version " + version);
+        }
+        tickRate = (int) readVarLong(in);
+        if (tickRate <= 0) {
+            throw new IOException("Snapshot stream has a damaged header");
+        }
+    }
+
+    /**
+     * Opens a recording and finds its keyframes. Playback starts at the first one.
+     */
+    public static SnapshotReader open(File file) throws IOException {
+        FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+        try {
+            List<Keyframe> keyframes = index(channel, file);
+            channel.position(0);
+            return new SnapshotReader(channel, Channels.newInputStream(channel), keyframes);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    // Walks the block headers, skipping their data
+    private static List<Keyframe> index(FileChannel channel, File file) throws IOException {
+        List<Keyframe> keyframes = new ArrayList<>();
+        long size = channel.size();
+        ByteBuffer header = ByteBuffer.allocate(32);
+        channel.position(5);
+        readVarLong(new DataInputStream(Channels.newInputStream(channel)));  // Tick rate
+        long position = channel.position();
+        while (position < size) {
+            header.clear();
+            channel.read(header, position);
+            header.flip();
+            try {
+                int kind = header.get();
+                long tick = kind == SnapshotFormat.SEGMENT ? SnapshotFormat.readVarLong(header) : -1;
+                long length = SnapshotFormat.readVarLong(header);
+                long end = position + header.position() + length;
+                if (end > size) break;  // Cut short
+                if (kind == SnapshotFormat.SEGMENT) {
+                    keyframes.add(new Keyframe(tick, position));
+                } else if (kind != SnapshotFormat.MORE) {
+                    throw new IOException(file + " has a damaged block at byte " + position);
+                }
+                position = end;
+            } catch (RuntimeException e) {
+                break;  // Header cut short
+            }
+        }
+        return Collections.unmodifiableList(keyframes);
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Keyframes in tick order; empty for a live stream.
+     */
+    public List<Keyframe> getKeyframes() {
+        return keyframes;
+    }
+
+    /**
+     * Continues playback from a keyframe of this file. The next record read is the keyframe.
+     */
+    public void seek(Keyframe keyframe) throws IOException {
+        if (channel == null) {
+            throw new IllegalStateException("Cannot seek in a live stream");
+        }
+        channel.position(keyframe.offset);
+        in = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel), 4096));
+        records = ByteBuffer.wrap(inflated, 0, 0);
+        inSegment = false;
+    }
+
+    /**
+     * Decodes the next recorded tick into state, which must hold the tick read before it (or
+     * anything, if the next record is a keyframe). Returns false at the end of the stream; for
+     * a live stream, it waits for the next record.
+     */
+    public boolean next(RecordedState state) throws IOException {
+        while (!records.hasRemaining()) {
+            if (!readBlock()) return false;
+        }
+        try {
+            decode(records, state);
+        } catch (RuntimeException e) {
+            throw new IOException("Damaged record before tick " + state.tick, e);
+        }
+        return true;
+    }
+
+    // Reads and inflates the next block; false at the end of the stream
+    private boolean readBlock() throws IOException {
+        while (true) {
+            int kind = in.read();
+            if (kind < 0) return false;
+            try {
+                if (kind == SnapshotFormat.SEGMENT) {
+                    readVarLong(in);  // The keyframe's tick, also in the record itself
+                    inflater.reset();
+                    inSegment = true;
+                } else if (kind != SnapshotFormat.MORE) {
+                    throw new IOException("Damaged snapshot block");
+                }
+                int length = (int) readVarLong(in);
+                if (compressed.length < length) compressed = new byte[length];
+                in.readFully(compressed, 0, length);
+                if (!inSegment) continue;  // Joined a live stream between keyframes
+                inflate(length);
+                return true;
+            } catch (EOFException e) {
+                return false;  // Cut short
+            }
+        }
+    }
+
+    private void inflate(int length) throws IOException {
+        inflater.setInput(compressed, 0, length);
+        int total = 0;
+        try {
+            while (true) {
+                total += inflater.inflate(inflated, total, inflated.length - total);
+                if (total < inflated.length && (inflater.needsInput() || inflater.finished())) break;
+                if (total == inflated.length) inflated = Arrays.copyOf(inflated, inflated.length * 2);
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Damaged snapshot block", e);
+        }
+        records = ByteBuffer.wrap(inflated, 0, total);
+    }
+
+    private static void decode(ByteBuffer in, RecordedState s) {
+        long head = SnapshotFormat.readVarLong(in);
+        if ((head & 1) != 0) {
+            s.tick = head >>> 1;
+            s.level = SnapshotFormat.readVarInt(in);
+            s.selectedCat = SnapshotFormat.readVarInt(in);
+            s.health = SnapshotFormat.readVarInt(in);
+            s.score = readZigzag(in);
+            s.remainingTime = readZigzag(in);
+            s.speedBoostTimeLeft = readZigzag(in);
+            s.flags = in.get() & 0xFF;
+            s.playerX = readZigzag(in);
+            s.playerY = readZigzag(in);
+            s.step = readZigzag(in);
+            ObstacleStore obstacles = s.obstacles;
+            obstacles.clear();
+            int count = SnapshotFormat.readVarInt(in);
+            for (int i = 0; i < count; i++) {
+                obstacles.add(readZigzag(in), SnapshotFormat.readVarInt(in), SnapshotFormat.readVarInt(in),
+                        SnapshotFormat.readVarInt(in), SnapshotFormat.readVarInt(in));
+            }
+            readPowerUps(in, s.powerUps);
+            return;
+        }
+
+        s.tick += head >>> 1;
+        int mask = SnapshotFormat.readVarInt(in);
+        if ((mask & SnapshotFormat.FIELD_LEVEL) != 0) s.level = SnapshotFormat.readVarInt(in);
+        if ((mask & SnapshotFormat.FIELD_CAT) != 0) s.selectedCat = SnapshotFormat.readVarInt(in);
+        if ((mask & SnapshotFormat.FIELD_HEALTH) != 0) s.health = SnapshotFormat.readVarInt(in);
+        if ((mask & SnapshotFormat.FIELD_SCORE) != 0) s.score += readZigzag(in);
+        if ((mask & SnapshotFormat.FIELD_TIME) != 0) s.remainingTime += readZigzag(in);
+        if ((mask & SnapshotFormat.FIELD_BOOST) != 0) s.speedBoostTimeLeft += readZigzag(in);
+        if ((mask & SnapshotFormat.FIELD_FLAGS) != 0) s.flags = in.get() & 0xFF;
+        if ((mask & SnapshotFormat.FIELD_PLAYER_X) != 0) s.playerX += readZigzag(in);
+        if ((mask & SnapshotFormat.FIELD_PLAYER_Y) != 0) s.playerY += readZigzag(in);
+        if ((mask & SnapshotFormat.FIELD_STEP) != 0) s.step = readZigzag(in);
+
+        ObstacleStore obstacles = s.obstacles;
+        int count = obstacles.size(), edits = 0;
+        if ((mask & SnapshotFormat.FIELD_OBSTACLES) != 0) {
+            count = SnapshotFormat.readVarInt(in);
+            edits = SnapshotFormat.readVarInt(in);
+        }
+        while (obstacles.size() > count) {
+            obstacles.remove(obstacles.size() - 1);
+        }
+        for (int i = 0; i < obstacles.size(); i++) {
+            obstacles.translate(i, s.step);
+        }
+        for (int e = 0; e < edits; e++) {
+            int edit = SnapshotFormat.readVarInt(in);
+            int i = edit >>> 1;
+            if ((edit & 1) == 0) {
+                obstacles.teleport(i, obstacles.getX(i) + readZigzag(in));  // translate already added the step
+            } else {
+                int x = readZigzag(in), y = SnapshotFormat.readVarInt(in), width = SnapshotFormat.readVarInt(in);
+                int height = SnapshotFormat.readVarInt(in), sprite = SnapshotFormat.readVarInt(in);
+                if (i < obstacles.size()) {
+                    obstacles.set(i, x, y, width, height, sprite);
+                } else {
+                    obstacles.add(x, y, width, height, sprite);  // New ones come in index order
+                }
+            }
+        }
+        obstacles.finishMoves();
+        if ((mask & SnapshotFormat.FIELD_POWER_UPS) != 0) readPowerUps(in, s.powerUps);
+    }
+
+    private static void readPowerUps(ByteBuffer in, PowerUpStore powerUps) {
+        powerUps.clear();
+        int count = SnapshotFormat.readVarInt(in);
+        for (int i = 0; i < count; i++) {
+            powerUps.add(readZigzag(in), SnapshotFormat.readVarInt(in), POWER_UP_TYPES[SnapshotFormat.readVarInt(in)]);
+        }
+    }
+
+    private static int readZigzag(ByteBuffer in) {
+        return SnapshotFormat.unzigzag(SnapshotFormat.readVarInt(in));
+    }
+
+    private static long readVarLong(DataInputStream in) throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        inflater.end();
+        in.close();
+    }
+}
@@ -0,0 +1,330 @@
+package org.example;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.zip.Deflater;
+
+/**
+ * Writes what happens in a game, tick by tick, as a {@link SnapshotFormat} stream for spectators
+ * and recordings. Each recorded tick is a delta against the one before, usually a couple of
+ * bytes since every obstacle moves by the same step, with a keyframe every few seconds and on
+ * every new level so a viewer can start at any of them. The records are deflated and written
+ * about once a second.
+ *
+ * <p>The stream stays within a byte rate: when a second's worth of output goes over it, only every
+ * second tick is recorded, then every fourth and so on, and the rate goes back up once there is
+ * room again. If writing fails, recording stops and the game carries on.
+ */
+public class SnapshotRecorder {
+
+    private static final int KEYFRAME_SECONDS = 10;
+    private static final int MAX_STRIDE = 16;  // Fewest records kept: one every this many ticks
+
+    private final int tickRate;
+    private final int maxBytesPerSecond;
+    private final long keyframeTicks;
+    private OutputStream out;  // Null once closed or after a write error
+    private final Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION);
+
+    // Records since the last block, before deflating
+    private byte[] raw = new byte[4096];
+    private int rawLength;
+    private byte[] block = new byte[1024];
+
+    private RecordedState previous = new RecordedState(), current = new RecordedState();
+    private boolean started = false;
+    private long nextKeyframe;     // Tick from which the next record starts a segment
+    private long segmentTick = -1; // Tick of the segment the next block starts, -1 if it continues one
+    private long lastFlushTick;
+    private int stride = 1;        // Ticks between records
+    private long bytesWritten;
+
+    /**
+     * Starts a stream of a game stepped tickRate times per second, writing the header right away.
+     */
+    public SnapshotRecorder(OutputStream out, int tickRate, int maxBytesPerSecond) throws IOException {
+        this.tickRate = tickRate;
+        this.maxBytesPerSecond = maxBytesPerSecond;
+        this.keyframeTicks = (long) KEYFRAME_SECONDS * tickRate;
+        DataOutputStream header = new DataOutputStream(out);
+        header.writeInt(SnapshotFormat.MAGIC);
+        header.writeByte(SnapshotFormat.VERSION);
+        while ((tickRate & ~0x7F) != 0) {
+            header.writeByte(tickRate & 0x7F | 0x80);
+            tickRate >>>= 7;
+        }
+        header.writeByte(tickRate);
+        header.flush();
+        this.out = out;
+        bytesWritten = header.size();
+    }
+
+    /**
+     * Opens a stream to a file, or to a viewer listening on a local port for "socket:port".
+     */
+    public static SnapshotRecorder open(String target, int tickRate, int maxBytesPerSecond) throws IOException {
+        OutputStream out;
+        if (target.startsWith("socket:")) {
+            Socket socket = new Socket(InetAddress.getLoopbackAddress(), Integer.parseInt(target.substring(7)));
+            socket.setTcpNoDelay(true);
+            out = new BufferedOutputStream(socket.getOutputStream(), 4096);
+        } else {
+            out = new BufferedOutputStream(new FileOutputStream(new File(target)), 4096);
+        }
+        return new SnapshotRecorder(out, tickRate, maxBytesPerSecond);
+    }
+
+    /**
+     * Records the game's current tick, unless the stream is thinned out right now. Call it on the
+     * thread that steps the game, after each step.
+     */
+    public synchronized void record(GameSimulation game) {
+        if (out == null) return;
+        long tick = game.getTick();
+        boolean newLevel = started && game.getLevel() != previous.level;
+        boolean ended = game.isFinished() && (previous.flags & (SnapshotFormat.FLAG_WON | SnapshotFormat.FLAG_GAME_OVER)) == 0;
+        if (started && tick - previous.tick < stride && !newLevel && !ended) return;
+        try {
+            current.capture(game);
+            ObstacleStore before = previous.obstacles, after = current.obstacles;
+            current.step = started ? sharedStep(before, after, Math.min(before.size(), after.size()), previous.step) : 0;
+            if (!started || newLevel || tick >= nextKeyframe) {
+                flush(tick);
+                deflater.reset();  // A segment must decode on its own
+                segmentTick = tick;
+                nextKeyframe = tick + keyframeTicks;
+                writeKeyframe(current);
+                started = true;
+            } else {
+                writeDelta(previous, current);
+            }
+            RecordedState swap = previous;
+            previous = current;
+            current = swap;
+            if (tick - lastFlushTick >= tickRate || ended) {
+                flush(tick);
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            closeQuietly();
+        }
+    }
+
+    /**
+     * Writes what is left and closes the stream. Safe to call more than once and from any thread.
+     */
+    public synchronized void close() {
+        if (out == null) return;
+        try {
+            flush(previous.tick);
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+        out = null;
+        deflater.end();
+    }
+
+    /**
+     * Bytes written so far, header included.
+     */
+    public synchronized long getBytesWritten() {
+        return bytesWritten;
+    }
+
+    private void writeKeyframe(RecordedState s) {
+        putVar(s.tick << 1 | 1);
+        putVar(s.level);
+        putVar(s.selectedCat);
+        putVar(s.health);
+        putZigzag(s.score);
+        putZigzag(s.remainingTime);
+        putZigzag(s.speedBoostTimeLeft);
+        putByte(s.flags);
+        putZigzag(s.playerX);
+        putZigzag(s.playerY);
+        putZigzag(s.step);
+        ObstacleStore obstacles = s.obstacles;
+        putVar(obstacles.size());
+        for (int i = 0; i < obstacles.size(); i++) {
+            putObstacle(obstacles, i);
+        }
+        putPowerUps(s.powerUps);
+    }
+
+    private void writeDelta(RecordedState a, RecordedState b) {
+        putVar((b.tick - a.tick) << 1);
+        ObstacleStore before = a.obstacles, after = b.obstacles;
+        int common = Math.min(before.size(), after.size());
+
+        // Obstacles that didn't simply move by the step, and whether the list needs sending
+        int edits = 0;
+        for (int i = 0; i < after.size(); i++) {
+            if (i >= common || !movedBy(before, after, i, b.step)) edits++;
+        }
+        int mask = 0;
+        if (b.level != a.level) mask |= SnapshotFormat.FIELD_LEVEL;
+        if (b.selectedCat != a.selectedCat) mask |= SnapshotFormat.FIELD_CAT;
+        if (b.health != a.health) mask |= SnapshotFormat.FIELD_HEALTH;
+        if (b.score != a.score) mask |= SnapshotFormat.FIELD_SCORE;
+        if (b.remainingTime != a.remainingTime) mask |= SnapshotFormat.FIELD_TIME;
+        if (b.speedBoostTimeLeft != a.speedBoostTimeLeft) mask |= SnapshotFormat.FIELD_BOOST;
+        if (b.flags != a.flags) mask |= SnapshotFormat.FIELD_FLAGS;
+        if (b.playerX != a.playerX) mask |= SnapshotFormat.FIELD_PLAYER_X;
+        if (b.playerY != a.playerY) mask |= SnapshotFormat.FIELD_PLAYER_Y;
+        if (b.step != a.step) mask |= SnapshotFormat.FIELD_STEP;
+        if (edits > 0 || after.size() != before.size()) mask |= SnapshotFormat.FIELD_OBSTACLES;
+        if (!samePowerUps(a.powerUps, b.powerUps)) mask |= SnapshotFormat.FIELD_POWER_UPS;
+
+        putVar(mask);
+        if ((mask & SnapshotFormat.FIELD_LEVEL) != 0) putVar(b.level);
+        if ((mask & SnapshotFormat.FIELD_CAT) != 0) putVar(b.selectedCat);
+        if ((mask & SnapshotFormat.FIELD_HEALTH) != 0) putVar(b.health);
+        if ((mask & SnapshotFormat.FIELD_SCORE) != 0) putZigzag(b.score - a.score);
+        if ((mask & SnapshotFormat.FIELD_TIME) != 0) putZigzag(b.remainingTime - a.remainingTime);
+        if ((mask & SnapshotFormat.FIELD_BOOST) != 0) putZigzag(b.speedBoostTimeLeft - a.speedBoostTimeLeft);
+        if ((mask & SnapshotFormat.FIELD_FLAGS) != 0) putByte(b.flags);
+        if ((mask & SnapshotFormat.FIELD_PLAYER_X) != 0) putZigzag(b.playerX - a.playerX);
+        if ((mask & SnapshotFormat.FIELD_PLAYER_Y) != 0) putZigzag(b.playerY - a.playerY);
+        if ((mask & SnapshotFormat.FIELD_STEP) != 0) putZigzag(b.step);
+        if ((mask & SnapshotFormat.FIELD_OBSTACLES) != 0) {
+            putVar(after.size());
+            putVar(edits);
+            for (int i = 0; i < after.size(); i++) {
+                if (i < common && sameObstacle(before, after, i)) {
+                    if (!movedBy(before, after, i, b.step)) {
+                        putVar(i << 1);
+                        putZigzag(after.getX(i) - (before.getX(i) + b.step));  // Wrapped around
+                    }
+                } else {
+                    putVar(i << 1 | 1);
+                    putObstacle(after, i);
+                }
+            }
+        }
+        if ((mask & SnapshotFormat.FIELD_POWER_UPS) != 0) putPowerUps(b.powerUps);
+    }
+
+    /**
+     * The distance most obstacles moved, found with a majority vote; fallback if none stayed put.
+     */
+    private static int sharedStep(ObstacleStore before, ObstacleStore after, int common, int fallback) {
+        int candidate = fallback, votes = 0;
+        for (int i = 0; i < common; i++) {
+            if (!sameObstacle(before, after, i)) continue;
+            int dx = after.getX(i) - before.getX(i);
+            if (votes == 0) {
+                candidate = dx;
+                votes = 1;
+            } else {
+                votes += dx == candidate ? 1 : -1;
+            }
+        }
+        return candidate;
+    }
+
+    // Same lane, size and sprite, so only its x can differ
+    private static boolean sameObstacle(ObstacleStore before, ObstacleStore after, int i) {
+        return before.getY(i) == after.getY(i) && before.getWidth(i) == after.getWidth(i)
+                && before.getHeight(i) == after.getHeight(i) && before.getSprite(i) == after.getSprite(i);
+    }
+
+    private static boolean movedBy(ObstacleStore before, ObstacleStore after, int i, int step) {
+        return sameObstacle(before, after, i) && after.getX(i) == before.getX(i) + step;
+    }
+
+    private static boolean samePowerUps(PowerUpStore a, PowerUpStore b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.getX(i) != b.getX(i) || a.getY(i) != b.getY(i) || a.getType(i) != b.getType(i)) return false;
+        }
+        return true;
+    }
+
+    private void putObstacle(ObstacleStore obstacles, int i) {
+        putZigzag(obstacles.getX(i));
+        putVar(obstacles.getY(i));
+        putVar(obstacles.getWidth(i));
+        putVar(obstacles.getHeight(i));
+        putVar(obstacles.getSprite(i));
+    }
+
+    private void putPowerUps(PowerUpStore powerUps) {
+        putVar(powerUps.size());
+        for (int i = 0; i < powerUps.size(); i++) {
+            putZigzag(powerUps.getX(i));
+            putVar(powerUps.getY(i));
+            putVar(powerUps.getType(i).ordinal());
+        }
+    }
+
+    /**
+     * Deflates the records gathered since the last block into a new block and writes it, then
+     * adjusts how many ticks are recorded to what the block cost.
+     */
+    private void flush(long tick) throws IOException {
+        long ticks = Math.max(1, tick - lastFlushTick);
+        lastFlushTick = tick;
+        if (rawLength == 0) return;
+        deflater.setInput(raw, 0, rawLength);
+        int length = 0;
+        while (true) {
+            int n = deflater.deflate(block, length, block.length - length, Deflater.SYNC_FLUSH);
+            length += n;
+            if (length < block.length) break;  // Room left over, so everything is out
+            block = Arrays.copyOf(block, block.length * 2);
+        }
+        rawLength = 0;
+
+        // Block header, built in the emptied record buffer
+        putByte(segmentTick >= 0 ? SnapshotFormat.SEGMENT : SnapshotFormat.MORE);
+        if (segmentTick >= 0) putVar(segmentTick);
+        putVar(length);
+        out.write(raw, 0, rawLength);
+        out.write(block, 0, length);
+        out.flush();
+        bytesWritten += rawLength + length;
+        rawLength = 0;
+        segmentTick = -1;
+
+        // Thin out or fill in the records to stay within the byte rate
+        long allowed = maxBytesPerSecond * ticks / tickRate;
+        if (length > allowed && stride < MAX_STRIDE) {
+            stride *= 2;
+        } else if (length < allowed / 4 && stride > 1) {
+            stride /= 2;
+        }
+    }
+
+    private void putByte(int b) {
+        if (rawLength == raw.length) raw = Arrays.copyOf(raw, raw.length * 2);
+        raw[rawLength++] = (byte) b;
+    }
+
+    private void putVar(long value) {
+        while ((value & ~0x7FL) != 0) {
+            putByte((int) (value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        putByte((int) value);
+    }
+
+    private void putZigzag(int value) {
+        putVar(SnapshotFormat.zigzag(value) & 0xFFFFFFFFL);
+    }
+
+    private void closeQuietly() {
+        try {
+            out.close();
+        } catch (IOException ignored) {}
+        out = null;
+        deflater.end();
+    }
+}
@@ -0,0 +1,200 @@
+package org.example;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.KeyListener;
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Plays back a snapshot stream at the speed it was recorded, drawn like the game itself.
+ * Usage: java -cp target/classes org.example.SnapshotViewer run.crss
+ *    or: java -cp target/classes org.example.SnapshotViewer --listen=7788
+ * and start the game with -Dcrossey.snapshots=socket:7788 to watch it live.
+ * Left and right jump between keyframes, Home goes back to the start and Space pauses.
+ */
+public class SnapshotViewer extends JPanel implements KeyListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int WIDTH = GameSimulation.WIDTH, HEIGHT = GameSimulation.HEIGHT;
+    private static final long MAX_LAG = TimeUnit.SECONDS.toNanos(1);  // Skip ahead rather than play catch-up
+    private static final long IDLE_NANOS = TimeUnit.MILLISECONDS.toNanos(20);
+
+    private final SnapshotReader reader;
+    private final List<SnapshotReader.Keyframe> keyframes;
+    private final String source;
+    private final RecordedState decoded = new RecordedState();  // Player thread only
+    private final RecordedState shown = new RecordedState();    // Guarded by itself
+    private final GameRenderer renderer;
+    private final HudRenderer hud;
+    private final Font overlayFont = new Font("Monospaced", Font.PLAIN, 12);
+
+    private final AtomicInteger seekRequest = new AtomicInteger(-1);  // Keyframe to jump to, or -1
+    private volatile boolean paused = false;
+    private volatile boolean ended = false;
+
+    public SnapshotViewer(SnapshotReader reader, String source, GraphicsConfiguration gc, Color background) {
+        this.reader = reader;
+        this.keyframes = reader.getKeyframes();
+        this.source = source;
+        renderer = new GameRenderer(shown, gc, background);
+        renderer.loadAll();
+        hud = new HudRenderer(UIManager.getFont("Label.font"), Color.WHITE, "Choose your cat! Press UP key",
+                CrosseyRoadFinalGame.CAT_DESCRIPTIONS, new SpriteCache(gc));
+        setPreferredSize(new Dimension(WIDTH, HEIGHT));
+    }
+
+    /**
+     * Starts playback on a thread of its own.
+     */
+    public void start() {
+        Thread player = new Thread(this::play, "snapshot-player");
+        player.setDaemon(true);
+        player.start();
+    }
+
+    // Decodes ahead into decoded and shows each record once its time has come
+    private void play() {
+        long tickNanos = TimeUnit.SECONDS.toNanos(1) / reader.getTickRate();
+        long deadline = System.nanoTime();
+        boolean resync = true;  // The next record doesn't follow the one shown
+        try {
+            while (true) {
+                int seek = seekRequest.getAndSet(-1);
+                if (seek >= 0) {
+                    reader.seek(keyframes.get(seek));
+                    ended = false;
+                    resync = true;
+                } else if (paused || ended) {
+                    LockSupport.parkNanos(IDLE_NANOS);
+                    resync = true;
+                    continue;
+                }
+                long previous = decoded.getTick();
+                if (!reader.next(decoded)) {
+                    ended = true;  // A file stays on its last tick until a seek; a live stream is over
+                    repaint();
+                    continue;
+                }
+                long now = System.nanoTime();
+                if (resync) {
+                    deadline = now;
+                    resync = false;
+                } else {
+                    deadline += (decoded.getTick() - previous) * tickNanos;
+                    if (now - deadline > MAX_LAG) deadline = now;
+                }
+                if (deadline > now) LockSupport.parkNanos(deadline - now);
+                synchronized (shown) {
+                    shown.copyFrom(decoded);
+                }
+                repaint();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();  // Keep showing the last tick
+            ended = true;
+            repaint();
+        }
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        synchronized (shown) {
+            renderer.draw(g, shown, 1);  // Every record is a whole tick; nothing to blend
+            hud.draw(g, shown, shown.getSelectedCat());
+            g.setFont(overlayFont);
+            g.setColor(Color.YELLOW);
+            long tick = shown.getTick();
+            String position = keyframes.isEmpty() ? "live"
+                    : "keyframe " + (currentKeyframe(tick) + 1) + "/" + keyframes.size();
+            g.drawString(String.format("%s  tick %d (%.1f s)  %s%s  <- -> Home Space", source, tick,
+                    tick / (double) reader.getTickRate(), position, paused ? "  paused" : ended ? "  end" : ""),
+                    8, HEIGHT - 8);
+        }
+    }
+
+    // Index of the last keyframe at or before tick
+    private int currentKeyframe(long tick) {
+        int k = 0;
+        while (k + 1 < keyframes.size() && keyframes.get(k + 1).tick <= tick) {
+            k++;
+        }
+        return k;
+    }
+
+    @Override
+    public void keyPressed(KeyEvent e) {
+        if (e.getKeyCode() == KeyEvent.VK_SPACE) {
+            paused = !paused;
+            repaint();
+            return;
+        }
+        if (keyframes.isEmpty()) return;  // Live streams can't seek
+        long tick;
+        synchronized (shown) {
+            tick = shown.getTick();
+        }
+        int k = currentKeyframe(tick);
+        switch (e.getKeyCode()) {
+            case KeyEvent.VK_LEFT:
+                // Back to the start of this keyframe, or the one before if we only just passed it
+                if (k > 0 && tick - keyframes.get(k).tick < reader.getTickRate()) k--;
+                seekRequest.set(k);
+                break;
+            case KeyEvent.VK_RIGHT:
+                if (k + 1 < keyframes.size()) seekRequest.set(k + 1);
+                break;
+            case KeyEvent.VK_HOME:
+                seekRequest.set(0);
+                break;
+            default:
+                break;
+        }
+    }
+    @Override public void keyReleased(KeyEvent e) {}  // Not used
+    @Override public void keyTyped(KeyEvent e) {}  // Not used
+
+    public static void main(String[] args) throws IOException {
+        SnapshotReader reader;
+        String source;
+        if (args.length == 1 && args[0].startsWith("--listen=")) {
+            int port = Integer.parseInt(args[0].substring("--listen=".length()));
+            try (ServerSocket server = new ServerSocket(port, 1, InetAddress.getLoopbackAddress())) {
+                System.out.println("Waiting for the game on port " + port);
+                Socket socket = server.accept();
+                reader = new SnapshotReader(socket.getInputStream());
+                source = socket.getRemoteSocketAddress().toString();
+            }
+        } else if (args.length == 1) {
+            reader = SnapshotReader.open(new File(args[0]));
+            source = new File(args[0]).getName();
+        } else {
+            System.err.println("Usage: SnapshotViewer <snapshot file> | --listen=<port>");
+            System.exit(2);
+            return;
+        }
+
+        SwingUtilities.invokeLater(() -> {
+            JFrame frame = new JFrame("Crossey Roads - " + source);
+            frame.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+            SnapshotViewer viewer = new SnapshotViewer(reader, source, frame.getGraphicsConfiguration(), frame.getBackground());
+            frame.add(viewer);
+            frame.addKeyListener(viewer);
+            frame.setResizable(false);
+            frame.pack();
+            frame.setLocationRelativeTo(null);
+            frame.setVisible(true);
+            viewer.start();
+        });
+    }
+}
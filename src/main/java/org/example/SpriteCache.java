@@ -0,0 +1,77 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/**
+ * Cuts sprite sheets into frames once at load time and scales every frame to the size it is
+ * drawn at. Frames are created compatible with the screen so Java2D can keep them in video
+ * memory, which turns drawing a sprite into a plain unscaled copy.
+ */
+public class SpriteCache {
+
+    private final GraphicsConfiguration gc;  // Screen the frames are made for, null when headless
+
+    /**
+     * Creates a cache producing images compatible with the given configuration.
+     * A null configuration produces plain premultiplied ARGB images (e.g. when headless).
+     */
+    public SpriteCache(GraphicsConfiguration gc) {
+        this.gc = gc;
+    }
+
+    /**
+     * Slices a sheet laid out in a grid into frames, left to right then top to bottom,
+     * and scales each to drawWidth x drawHeight. Frames outside the sheet are left null.
+     */
+    public BufferedImage[] slice(BufferedImage sheet, int frameWidth, int frameHeight,
+                                 int columns, int rows, int drawWidth, int drawHeight) {
+        BufferedImage[] frames = new BufferedImage[columns * rows];
+        if (sheet == null) return frames;
+        for (int i = 0; i < frames.length; i++) {
+            int frameX = (i % columns) * frameWidth;
+            int frameY = (i / columns) * frameHeight;
+            if (frameX + frameWidth <= sheet.getWidth() && frameY + frameHeight <= sheet.getHeight()) {
+                frames[i] = scaled(sheet.getSubimage(frameX, frameY, frameWidth, frameHeight), drawWidth, drawHeight);
+            }
+        }
+        return frames;
+    }
+
+    /**
+     * Returns a blank, fully transparent compatible image.
+     */
+    public BufferedImage translucent(int width, int height) {
+        return gc != null
+                ? gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+
+    /**
+     * Returns a blank opaque compatible image, for content painted once and copied every frame.
+     */
+    public BufferedImage opaque(int width, int height) {
+        return gc != null
+                ? gc.createCompatibleImage(width, height, Transparency.OPAQUE)
+                : new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+    }
+
+    /**
+     * Returns a compatible copy of the image scaled to width x height, or null if image is null.
+     */
+    public BufferedImage scaled(BufferedImage image, int width, int height) {
+        if (image == null) return null;
+        BufferedImage frame = translucent(width, height);
+        Graphics2D g = frame.createGraphics();
+        try {
+            // Scaling happens only once, so pay for the better filter
+            g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setComposite(AlphaComposite.Src);
+            g.drawImage(image, 0, 0, width, height, null);
+        } finally {
+            g.dispose();
+        }
+        return frame;
+    }
+}
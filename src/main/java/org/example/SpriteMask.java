@@ -0,0 +1,85 @@
+package org.example;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * The pixels of a sprite that count for collisions, one bit per pixel: set where the sprite is
+ * opaque enough to see. Each row is packed into longs, leftmost pixel in the lowest bit, so two
+ * masks are tested 64 pixels at a time by shifting one row into line with the other and ANDing.
+ * The test is the narrow phase: callers only ask it about sprites whose boxes already overlap.
+ * Masks never change once built and can be shared between threads.
+ */
+public final class SpriteMask {
+
+    private static final int ALPHA_THRESHOLD = 128;  // At least half opaque
+
+    public final int width, height;
+    private final int words;    // Longs per row
+    private final long[] bits;  // Row y starts at y * words; bits past the width are always clear
+
+    private SpriteMask(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.words = (width + 63) >>> 6;
+        this.bits = new long[words * height];
+    }
+
+    /**
+     * A mask covering the whole rectangle, for shapes drawn as plain boxes.
+     */
+    public static SpriteMask solid(int width, int height) {
+        SpriteMask mask = new SpriteMask(width, height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                mask.bits[y * mask.words + (x >>> 6)] |= 1L << x;
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Builds the mask of the width x height region of an image at (x0, y0) from its alpha channel.
+     */
+    public static SpriteMask fromAlpha(BufferedImage image, int x0, int y0, int width, int height) {
+        SpriteMask mask = new SpriteMask(width, height);
+        int[] argb = image.getRGB(x0, y0, width, height, null, 0, width);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (argb[y * width + x] >>> 24 >= ALPHA_THRESHOLD) {
+                    mask.bits[y * mask.words + (x >>> 6)] |= 1L << x;  // Shifts use the low 6 bits of x
+                }
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Whether mask a drawn at (ax, ay) and mask b drawn at (bx, by) have a set pixel in common.
+     * Only the rows and words where both boxes overlap are looked at.
+     */
+    public static boolean overlaps(SpriteMask a, int ax, int ay, SpriteMask b, int bx, int by) {
+        int top = Math.max(ay, by), bottom = Math.min(ay + a.height, by + b.height);
+        int left = Math.max(ax, bx), right = Math.min(ax + a.width, bx + b.width);
+        if (top >= bottom || left >= right) return false;
+        int firstWord = (left - ax) >>> 6, lastWord = (right - 1 - ax) >>> 6;
+        int shift = ax - bx;  // Column of b under column 0 of a
+        for (int y = top; y < bottom; y++) {
+            int aRow = (y - ay) * a.words, bRow = (y - by) * b.words;
+            for (int w = firstWord; w <= lastWord; w++) {
+                if ((a.bits[aRow + w] & b.window(bRow, (w << 6) + shift)) != 0) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    // The 64 pixels of a row starting at column col, which may lie partly outside the mask
+    private long window(int row, int col) {
+        int word = col >> 6, offset = col & 63;
+        long low = word >= 0 && word < words ? bits[row + word] : 0;
+        if (offset == 0) return low;
+        long high = word + 1 >= 0 && word + 1 < words ? bits[row + word + 1] : 0;
+        return (low >>> offset) | (high << (64 - offset));
+    }
+}
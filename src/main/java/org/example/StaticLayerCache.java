@@ -0,0 +1,98 @@
+package org.example;
+
+import java.awt.*;
+import java.awt.image.VolatileImage;
+
+/**
+ * Holds the parts of a level that never move (background, lanes, lane markings, house)
+ * pre-composited into one accelerated image, so each frame only has to copy it once.
+ * The layer is rebuilt when the level changes or when the video memory behind it is lost.
+ */
+public class StaticLayerCache {
+
+    /**
+     * Paints the static content of a level into the layer.
+     */
+    public interface Painter {
+        void paint(Graphics2D g, int level);
+    }
+
+    private final int width, height;
+    private final Painter painter;
+
+    private VolatileImage image;    // Accelerated copy of the layer, may lose its contents at any time
+    private int cachedLevel = -1;   // Level the image currently holds, -1 if it needs repainting
+    private double scale = 1;       // Of the image to the layer, below 1 to keep it at a lower resolution
+
+    public StaticLayerCache(int width, int height, Painter painter) {
+        this.width = width;
+        this.height = height;
+        this.painter = painter;
+    }
+
+    /**
+     * Draws the static layer for the given level at (0, 0), rebuilding it first if needed.
+     */
+    public void draw(Graphics g, GraphicsConfiguration gc, int level) {
+        int imageWidth = (int) Math.round(width * scale), imageHeight = (int) Math.round(height * scale);
+        do {
+            if (image == null) {
+                image = gc.createCompatibleVolatileImage(imageWidth, imageHeight, Transparency.OPAQUE);
+                cachedLevel = -1;
+            }
+            int status = image.validate(gc);
+            if (status == VolatileImage.IMAGE_INCOMPATIBLE) {
+                // Moved to another screen or the display mode changed
+                image.flush();
+                image = gc.createCompatibleVolatileImage(imageWidth, imageHeight, Transparency.OPAQUE);
+                cachedLevel = -1;
+            } else if (status == VolatileImage.IMAGE_RESTORED) {
+                cachedLevel = -1;  // Surface is back but its pixels are gone
+            }
+            if (cachedLevel != level) {
+                Graphics2D layer = image.createGraphics();
+                try {
+                    layer.scale(scale, scale);
+                    painter.paint(layer, level);
+                } finally {
+                    layer.dispose();
+                }
+                cachedLevel = level;
+            }
+            if (scale == 1) {
+                g.drawImage(image, 0, 0, null);
+            } else {
+                g.drawImage(image, 0, 0, width, height, null);  // A plain copy when g is scaled down as much
+            }
+        } while (image.contentsLost());
+    }
+
+    /**
+     * Keeps the layer at scale times its size from now on, e.g. 0.5 for a frame drawn at half
+     * resolution. The layer is painted again on the next draw if the scale changed.
+     */
+    public void setScale(double scale) {
+        if (scale != this.scale) {
+            this.scale = scale;
+            flush();
+        }
+    }
+
+    /**
+     * Forces the layer to be repainted on the next draw.
+     */
+    public void invalidate() {
+        cachedLevel = -1;
+    }
+
+    /**
+     * Releases the video memory held by the layer.
+     */
+    public void flush() {
+        if (image != null) {
+            image.flush();
+            image = null;
+        }
+        cachedLevel = -1;
+    }
+}
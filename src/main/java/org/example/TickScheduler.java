@@ -0,0 +1,213 @@
+package org.example;
+
+import java.util.Arrays;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ticks every session of a {@link GameServer} together on one fixed schedule. Each tick, the
+ * sessions are cut into batches that the scheduler thread and a small pool of workers claim one at
+ * a time until none are left, so a few threads keep thousands of games on time and a batch of slow
+ * sessions doesn't hold up the rest of a worker's share. Ticks never overlap: the next one starts
+ * on schedule only once every batch of the last one is done, and a run of late ticks is caught
+ * up the way the game loop does it.
+ *
+ * <p>Sessions join from any thread and leave by closing; both take effect at the start of a tick.
+ */
+public class TickScheduler {
+
+    private static final int BATCH_SIZE = 32;  // Sessions a thread claims at once
+
+    private final int tickRate;
+    private final Difficulty difficulty;
+    private final Runnable afterTick;  // Called once every session has been ticked, e.g. to flush output
+    private final GameLoop loop;
+    private final Thread[] workers;
+    private final Phaser phaser;       // Workers wait here for a tick to start, and the scheduler for it to end
+
+    private final Queue<ServerSession> joining = new ConcurrentLinkedQueue<>();
+    private ServerSession[] sessions = new ServerSession[64];  // Scheduler thread only, apart from a tick's batches
+    private int sessionCount;
+    private final AtomicInteger nextBatch = new AtomicInteger();
+    private volatile boolean running = false;
+
+    // Per thread, index 0 being the scheduler thread; read by the scheduler between ticks
+    private final long[] busyNanos;
+    private final int[] droppedStates;
+
+    // Figures since the last takeStats, guarded by this
+    private final LatencyHistogram tickTimes = new LatencyHistogram();
+    private long statsBusyNanos, statsStart = System.nanoTime();
+    private int statsOverruns, statsDropped, statsSessions;
+
+    /**
+     * Creates a scheduler that ticks its sessions tickRate times per second on the calling
+     * scheduler thread plus the given number of extra worker threads.
+     */
+    public TickScheduler(int tickRate, Difficulty difficulty, int workerCount, Runnable afterTick) {
+        this.tickRate = tickRate;
+        this.difficulty = difficulty;
+        this.afterTick = afterTick;
+        this.loop = new GameLoop(this::tick, tickRate);
+        this.workers = new Thread[workerCount];
+        this.phaser = new Phaser(workerCount + 1);
+        this.busyNanos = new long[workerCount + 1];
+        this.droppedStates = new int[workerCount + 1];
+        for (int i = 0; i < workerCount; i++) {
+            int index = i + 1;
+            workers[i] = new Thread(() -> work(index), "tick-worker-" + index);
+            workers[i].setDaemon(true);
+        }
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    /**
+     * Threads that run ticks, the scheduler thread included.
+     */
+    public int getThreadCount() {
+        return workers.length + 1;
+    }
+
+    /**
+     * Starts ticking.
+     */
+    public synchronized void start() {
+        if (running) return;
+        running = true;
+        for (Thread worker : workers) {
+            worker.start();
+        }
+        loop.start();
+    }
+
+    /**
+     * Stops ticking after the current tick.
+     */
+    public synchronized void stop() {
+        running = false;
+        loop.stop();
+        phaser.forceTermination();
+    }
+
+    /**
+     * Adds a session; it is ticked from the next tick on. Safe to call from any thread.
+     */
+    public void add(ServerSession session) {
+        joining.add(session);
+    }
+
+    // One tick of every session, on the scheduler thread
+    private void tick() {
+        long start = System.nanoTime();
+        admitAndSweep();
+        nextBatch.set(0);
+        phaser.arriveAndAwaitAdvance();  // Let the workers go
+        runBatches(0);
+        phaser.arriveAndAwaitAdvance();  // Wait for the last batch
+        afterTick.run();
+        long elapsed = System.nanoTime() - start;
+
+        long busy = 0;
+        int dropped = 0;
+        for (int i = 0; i < busyNanos.length; i++) {
+            busy += busyNanos[i];
+            dropped += droppedStates[i];
+            busyNanos[i] = 0;
+            droppedStates[i] = 0;
+        }
+        synchronized (this) {
+            tickTimes.record(elapsed);
+            statsBusyNanos += busy;
+            statsDropped += dropped;
+            statsSessions = sessionCount;
+            if (elapsed > loop.getStepNanos()) statsOverruns++;
+        }
+    }
+
+    private void work(int index) {
+        while (running) {
+            if (phaser.arriveAndAwaitAdvance() < 0) return;  // Terminated
+            runBatches(index);
+            if (phaser.arriveAndAwaitAdvance() < 0) return;
+        }
+    }
+
+    // Claims batches until every session has been ticked
+    private void runBatches(int index) {
+        long start = System.nanoTime();
+        int dropped = 0;
+        int from;
+        while ((from = nextBatch.getAndAdd(BATCH_SIZE)) < sessionCount) {
+            int to = Math.min(from + BATCH_SIZE, sessionCount);
+            for (int i = from; i < to; i++) {
+                ServerSession session = sessions[i];
+                if (!session.isClosed() && !session.tick(tickRate, difficulty)) dropped++;
+            }
+        }
+        busyNanos[index] += System.nanoTime() - start;
+        droppedStates[index] += dropped;
+    }
+
+    // Adds sessions that joined since the last tick and removes closed ones (swap-remove)
+    private void admitAndSweep() {
+        for (int i = sessionCount - 1; i >= 0; i--) {
+            if (sessions[i].isClosed()) {
+                sessions[i] = sessions[--sessionCount];
+                sessions[sessionCount] = null;
+            }
+        }
+        ServerSession session;
+        while ((session = joining.poll()) != null) {
+            if (sessionCount == sessions.length) {
+                sessions = Arrays.copyOf(sessions, sessions.length * 2);
+            }
+            sessions[sessionCount++] = session;
+        }
+    }
+
+    /**
+     * Hands the figures gathered since the last call to the given stats and starts over.
+     */
+    public synchronized void takeStats(Stats stats) {
+        long now = System.nanoTime();
+        stats.seconds = (now - statsStart) / 1e9;
+        stats.sessions = statsSessions;
+        stats.ticks = tickTimes.getCount();
+        stats.tickP50 = tickTimes.valueAtPercentile(50);
+        stats.tickP99 = tickTimes.valueAtPercentile(99);
+        stats.tickMax = tickTimes.getMax();
+        stats.overruns = statsOverruns;
+        stats.droppedStates = statsDropped;
+        stats.busyNanos = statsBusyNanos;
+        tickTimes.reset();
+        statsBusyNanos = 0;
+        statsOverruns = 0;
+        statsDropped = 0;
+        statsStart = now;
+    }
+
+    /**
+     * Scheduler figures over a stretch of time. Tick times are from the start of a tick until
+     * every session's state is queued and the output flush has been requested.
+     */
+    public static class Stats {
+        public double seconds;
+        public int sessions;       // Sessions ticked on the last tick
+        public long ticks, tickP50, tickP99, tickMax;
+        public int overruns;       // Ticks that took longer than a tick lasts
+        public int droppedStates;  // States not queued because the client was behind
+        public long busyNanos;     // Time threads spent ticking sessions, summed over threads
+
+        /**
+         * Cores' worth of time the sessions took, e.g. 0.5 for half of one core.
+         */
+        public double coresBusy() {
+            return seconds > 0 ? busyNanos / 1e9 / seconds : 0;
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package org.example;
+
+import java.util.Arrays;
+
+/**
+ * Hierarchical timer wheel driven by the game tick. Four levels of 64 slots cover 2^24 ticks
+ * (over three days at 60 ticks per second); a timer goes into the coarsest slot that still
+ * expires before it is due, and moves down a level each time that slot comes round.
+ * Scheduling and cancelling are O(1). Timers are kept in pooled arrays, so once the pool has
+ * grown to the number of timers pending at once nothing is allocated.
+ * Timers due on the same tick fire in the order they were scheduled. Time only moves when
+ * {@link #advance()} is called, so not advancing it pauses every timer.
+ */
+public class TimerWheel {
+
+    private static final int SLOT_BITS = 6;
+    private static final int SLOTS = 1 << SLOT_BITS;
+    private static final int SLOT_MASK = SLOTS - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_DELAY = (1L << (SLOT_BITS * LEVELS)) - 1;
+
+    private static final int INDEX_BITS = 16;  // Handles are the pool index plus a generation above it
+    private static final int INDEX_MASK = (1 << INDEX_BITS) - 1;
+    private static final int GENERATION_MASK = 0x7FFF;  // Keeps handles positive
+    private static final int NONE = -1;
+
+    // Timer states
+    private static final byte FREE = 0, PENDING = 1, FIRING = 2;
+
+    private long now = 0;
+    private long scheduled = 0;  // Timers scheduled so far, gives each one its place in the firing order
+
+    // One entry per pooled timer
+    private long[] deadline = new long[16];
+    private long[] order = new long[16];
+    private Runnable[] action = new Runnable[16];
+    private int[] next = new int[16], prev = new int[16];
+    private int[] slot = new int[16];        // Slot list the timer is on, while pending
+    private int[] generation = new int[16];  // Bumped on every reuse so old handles stop matching
+    private byte[] state = new byte[16];
+    private int freeHead = NONE;
+    private int used = 0;
+
+    private final int[] head = new int[LEVELS * SLOTS];
+    private final int[] tail = new int[LEVELS * SLOTS];
+    private int[] due = new int[16];  // Timers firing on the current tick
+
+    public TimerWheel() {
+        Arrays.fill(head, NONE);
+        Arrays.fill(tail, NONE);
+    }
+
+    /**
+     * Current tick: the number of times the wheel has been advanced.
+     */
+    public long now() {
+        return now;
+    }
+
+    /**
+     * Runs the action after the given number of ticks (at least one) and returns a handle for
+     * cancelling it. Delays beyond the wheel's range are cut to the range.
+     */
+    public int schedule(long delay, Runnable action) {
+        int timer = allocate();
+        this.deadline[timer] = now + Math.max(1, Math.min(MAX_DELAY, delay));
+        this.order[timer] = scheduled++;
+        this.action[timer] = action;
+        this.state[timer] = PENDING;
+        insert(timer);
+        return handle(timer);
+    }
+
+    /**
+     * Cancels a timer that hasn't fired yet. Returns false if it already fired or was cancelled.
+     */
+    public boolean cancel(int handle) {
+        int timer = timerOf(handle);
+        if (timer == NONE) return false;
+        if (state[timer] == PENDING) {
+            unlink(timer);
+            release(timer);
+        } else {
+            release(timer);  // Due this tick but not run yet; it is skipped
+        }
+        return true;
+    }
+
+    /**
+     * Whether the timer behind the handle is still waiting to fire.
+     */
+    public boolean isPending(int handle) {
+        return timerOf(handle) != NONE;
+    }
+
+    /**
+     * Ticks left until the timer fires, or 0 if it is no longer pending.
+     */
+    public long remaining(int handle) {
+        int timer = timerOf(handle);
+        return timer == NONE ? 0 : deadline[timer] - now;
+    }
+
+    /**
+     * Moves time on by one tick and runs every timer that is now due.
+     */
+    public void advance() {
+        now++;
+        // Bring down coarser slots that have come round, largest first so their timers cascade all the way
+        for (int level = LEVELS - 1; level > 0; level--) {
+            int shift = SLOT_BITS * level;
+            if ((now & ((1L << shift) - 1)) == 0) {
+                cascade(level * SLOTS + (int) ((now >>> shift) & SLOT_MASK));
+            }
+        }
+        fire((int) (now & SLOT_MASK));
+    }
+
+    /**
+     * Cancels every pending timer.
+     */
+    public void clear() {
+        for (int timer = 0; timer < used; timer++) {
+            if (state[timer] != FREE) {
+                release(timer);
+            }
+        }
+        Arrays.fill(head, NONE);
+        Arrays.fill(tail, NONE);
+    }
+
+    private void fire(int s) {
+        int count = 0;
+        for (int timer = head[s]; timer != NONE; timer = next[timer]) {
+            if (count == due.length) {
+                due = Arrays.copyOf(due, count * 2);
+            }
+            due[count++] = timer;
+            state[timer] = FIRING;
+        }
+        head[s] = NONE;
+        tail[s] = NONE;
+        // Cascading can put timers in behind later-scheduled ones, so restore the schedule order
+        for (int i = 1; i < count; i++) {
+            int timer = due[i];
+            int j = i - 1;
+            while (j >= 0 && order[due[j]] > order[timer]) {
+                due[j + 1] = due[j];
+                j--;
+            }
+            due[j + 1] = timer;
+        }
+        for (int i = 0; i < count; i++) {
+            int timer = due[i];
+            if (state[timer] != FIRING) continue;  // Cancelled by an earlier timer this tick
+            Runnable run = action[timer];
+            release(timer);
+            run.run();
+        }
+    }
+
+    private void cascade(int s) {
+        int timer = head[s];
+        head[s] = NONE;
+        tail[s] = NONE;
+        while (timer != NONE) {
+            int following = next[timer];
+            insert(timer);
+            timer = following;
+        }
+    }
+
+    // Appends the timer to the slot of the coarsest level that comes round before it is due
+    private void insert(int timer) {
+        long delta = deadline[timer] - now;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (SLOT_BITS * (level + 1))) {
+            level++;
+        }
+        int s = level * SLOTS + (int) ((deadline[timer] >>> (SLOT_BITS * level)) & SLOT_MASK);
+        slot[timer] = s;
+        next[timer] = NONE;
+        prev[timer] = tail[s];
+        if (tail[s] == NONE) {
+            head[s] = timer;
+        } else {
+            next[tail[s]] = timer;
+        }
+        tail[s] = timer;
+    }
+
+    private void unlink(int timer) {
+        int s = slot[timer];
+        if (prev[timer] == NONE) {
+            head[s] = next[timer];
+        } else {
+            next[prev[timer]] = next[timer];
+        }
+        if (next[timer] == NONE) {
+            tail[s] = prev[timer];
+        } else {
+            prev[next[timer]] = prev[timer];
+        }
+    }
+
+    private int allocate() {
+        if (freeHead != NONE) {
+            int timer = freeHead;
+            freeHead = next[timer];
+            return timer;
+        }
+        if (used == deadline.length) {
+            grow();
+        }
+        return used++;
+    }
+
+    private void release(int timer) {
+        state[timer] = FREE;
+        action[timer] = null;
+        generation[timer]++;
+        next[timer] = freeHead;
+        freeHead = timer;
+    }
+
+    private int handle(int timer) {
+        return ((generation[timer] & GENERATION_MASK) << INDEX_BITS) | timer;
+    }
+
+    // Pool index behind a handle, or NONE if that timer has fired, been cancelled or reused
+    private int timerOf(int handle) {
+        if (handle < 0) return NONE;
+        int timer = handle & INDEX_MASK;
+        if (timer >= used || state[timer] == FREE || handle(timer) != handle) return NONE;
+        return timer;
+    }
+
+    private void grow() {
+        int capacity = deadline.length * 2;
+        if (capacity > INDEX_MASK + 1) {
+            throw new IllegalStateException("Too many timers pending: " + deadline.length);
+        }
+        deadline = Arrays.copyOf(deadline, capacity);
+        order = Arrays.copyOf(order, capacity);
+        action = Arrays.copyOf(action, capacity);
+        next = Arrays.copyOf(next, capacity);
+        prev = Arrays.copyOf(prev, capacity);
+        slot = Arrays.copyOf(slot, capacity);
+        generation = Arrays.copyOf(generation, capacity);
+        state = Arrays.copyOf(state, capacity);
+    }
+}
@@ -0,0 +1,59 @@
+package org.example;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands values from one writer thread to one reader thread without locks or copies. There are
+ * three buffers: the writer fills its back buffer and publishes it, swapping it with the shared
+ * middle one; the reader swaps the middle one for its front buffer whenever something new has been
+ * published. The swaps are a single atomic exchange, so the writer never waits for the reader,
+ * the reader never sees a buffer that is still being written, and the reader always gets the
+ * newest published value, skipping any it was too slow to see.
+ */
+public class TripleBuffer<T> {
+
+    private static final int INDEX = 0b011;  // Which buffer is in the middle
+    private static final int FRESH = 0b100;  // Set when the middle buffer hasn't been read yet
+
+    private final Object[] buffers = new Object[3];
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   // Writer only
+    private int front = 2;  // Reader only
+
+    /**
+     * Creates the three buffers up front.
+     */
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    /**
+     * The buffer the writer fills next. Writer thread only.
+     */
+    @SuppressWarnings("unchecked")
+    public T back() {
+        return (T) buffers[back];
+    }
+
+    /**
+     * Makes the back buffer the newest value and gives the writer a new back buffer. Writer thread only.
+     */
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX;
+    }
+
+    /**
+     * The newest published value, or the one returned last time if nothing new was published since.
+     * Reader thread only; the value stays untouched until the reader calls this again.
+     */
+    @SuppressWarnings("unchecked")
+    public T latest() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX;
+        }
+        return (T) buffers[front];
+    }
+}
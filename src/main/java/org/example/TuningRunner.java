@@ -0,0 +1,209 @@
+package org.example;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Batch tool for tuning the difficulty: plays thousands of seeded headless sessions with a bot
+ * for every combination in a parameter grid and prints, per combination, how often the game is
+ * completed, how long each level takes and which lanes the player gets hit in.
+ * Sessions are independent, so they are split across a fork-join pool and scale with the cores.
+ * Every combination is played on the same seeds, so differences come from the parameters rather
+ * than from luck.
+ *
+ * <pre>
+ * java -cp target/classes org.example.TuningRunner --sessions=2000 --policy=cautious \
+ *     --road=10,15,20 --speed=150,200,250 --train=3,5,8 --trainSpeed=300 --powerUps=1,2
+ * </pre>
+ * Other options: --spawnTop, --spawnHeight, --threads, --tickRate, --reaction (ticks between bot decisions), --seed.
+ */
+public class TuningRunner {
+
+    private static final int BATCH_SIZE = 16;  // Sessions a fork-join task plays itself instead of splitting
+
+    private final Difficulty difficulty;
+    private final BotPlayer.Strategy strategy;
+    private final int tickRate;
+    private final int reactionTicks;
+    private final long baseSeed;
+    private final CollisionMasks masks;  // Shared by every session, they never change
+
+    public TuningRunner(Difficulty difficulty, BotPlayer.Strategy strategy, int tickRate, int reactionTicks, long baseSeed,
+                        CollisionMasks masks) {
+        this.difficulty = difficulty;
+        this.strategy = strategy;
+        this.tickRate = tickRate;
+        this.reactionTicks = reactionTicks;
+        this.baseSeed = baseSeed;
+        this.masks = masks;
+    }
+
+    /**
+     * Plays the given number of sessions on the pool and returns their combined stats.
+     */
+    public TuningStats run(int sessions, ForkJoinPool pool) {
+        return pool.invoke(new Batch(0, sessions));
+    }
+
+    /**
+     * Splits a range of sessions in half until it is small enough to play on one thread.
+     */
+    private final class Batch extends RecursiveTask<TuningStats> {
+        private static final long serialVersionUID = 1L;
+
+        private final int from, to;
+
+        Batch(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected TuningStats compute() {
+            if (to - from <= BATCH_SIZE) {
+                TuningStats stats = new TuningStats();
+                for (int i = from; i < to; i++) {
+                    playSession(baseSeed + i, stats);
+                }
+                return stats;
+            }
+            int middle = (from + to) >>> 1;
+            Batch left = new Batch(from, middle);
+            left.fork();
+            TuningStats stats = new Batch(middle, to).compute();
+            stats.merge(left.join());
+            return stats;
+        }
+    }
+
+    /**
+     * Plays one session to the end and adds it to the stats.
+     */
+    private void playSession(long seed, TuningStats stats) {
+        BotPlayer bot = new BotPlayer(strategy, seed * 31 + 17, reactionTicks);
+        GameSimulation game = new GameSimulation(seed, tickRate, difficulty, GameMode.LEVELS, bot, masks);
+        bot.attach(game);
+        long[] levelStart = {0};
+        game.setListener(new SimulationListener() {
+            @Override
+            public void onCrash() {
+                // Still at the spot it was hit; it is sent back to the start right after this
+                int lane = (game.getPlayerY() + GameSimulation.PLAYER_HEIGHT / 2 - GameSimulation.LANE_TOP) / GameSimulation.LANE_HEIGHT;
+                stats.deathsByLane[Math.max(0, Math.min(GameSimulation.LANE_COUNT - 1, lane))]++;
+            }
+
+            @Override
+            public void onLevelChanged(int level) {
+                stats.levelTicks[level - 1] += game.getTick() - levelStart[0];
+                stats.levelClears[level - 1]++;
+                if (level <= GameSimulation.LAST_LEVEL) {
+                    stats.levelEntries[level]++;
+                }
+                levelStart[0] = game.getTick();
+            }
+        });
+
+        stats.levelEntries[1]++;
+        while (!game.isFinished()) {
+            game.step();
+        }
+        stats.sessions++;
+        stats.totalTicks += game.getTick();
+        if (game.getLevel() <= GameSimulation.LAST_LEVEL) {
+            stats.levelTicks[game.getLevel()] += game.getTick() - levelStart[0];
+        }
+        if (game.hasWon()) {
+            stats.wins++;
+            if (game.getLevel() <= GameSimulation.LAST_LEVEL) {
+                stats.levelClears[game.getLevel()]++;  // Reaching the house doesn't change the level
+            }
+        } else {
+            if (game.getHealth() <= 0) {
+                stats.outOfHealth++;
+            } else {
+                stats.timeUps++;
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Difficulty base = Difficulty.DEFAULT;
+        int sessions = 1000;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int tickRate = 60;
+        int reaction = 6;  // Ten decisions a second at 60 ticks per second
+        long seed = 1;
+        BotPlayer.Strategy strategy = BotPlayer.Strategy.CAUTIOUS;
+        int[] road = {base.roadObstacles()}, train = {base.trainObstacles()};
+        int[] spawnTop = {base.spawnTop()}, spawnHeight = {base.spawnHeight()};
+        int[] speed = {base.obstacleSpeed()}, trainSpeed = {base.trainSpeed()}, powerUps = {base.powerUpPairs()};
+
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            if (!arg.startsWith("--") || eq < 0) {
+                System.err.println("Unknown argument " + arg + ", expected --name=value");
+                System.exit(2);
+            }
+            String name = arg.substring(2, eq), value = arg.substring(eq + 1);
+            switch (name) {
+                case "sessions": sessions = Integer.parseInt(value); break;
+                case "threads": threads = Integer.parseInt(value); break;
+                case "tickRate": tickRate = Integer.parseInt(value); break;
+                case "reaction": reaction = Integer.parseInt(value); break;
+                case "seed": seed = Long.parseLong(value); break;
+                case "policy": strategy = BotPlayer.Strategy.valueOf(value.toUpperCase(Locale.ROOT)); break;
+                case "road": road = parseList(value); break;
+                case "train": train = parseList(value); break;
+                case "spawnTop": spawnTop = parseList(value); break;
+                case "spawnHeight": spawnHeight = parseList(value); break;
+                case "speed": speed = parseList(value); break;
+                case "trainSpeed": trainSpeed = parseList(value); break;
+                case "powerUps": powerUps = parseList(value); break;
+                default:
+                    System.err.println("Unknown option --" + name);
+                    System.exit(2);
+            }
+        }
+
+        List<Difficulty> grid = new ArrayList<>();
+        for (int r : road) for (int t : train) for (int top : spawnTop) for (int h : spawnHeight)
+            for (int s : speed) for (int ts : trainSpeed) for (int p : powerUps)
+                grid.add(new Difficulty(r, t, top, h, s, ts, p));
+
+        System.out.printf("%d combinations x %d sessions, %s bot, %d threads%n", grid.size(), sessions, strategy, threads);
+        System.out.printf("%-70s %6s %7s %7s %7s  %s%n", "difficulty", "done%", "lvl1 s", "lvl2 s", "lvl3 s",
+                "hits per session by lane (top to bottom)");
+        CollisionMasks masks = CollisionMasks.load(AssetSource.open());  // Before any batch starts, so missing sprites fail here
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        long start = System.nanoTime();
+        long ticks = 0, played = 0;
+        for (Difficulty difficulty : grid) {
+            TuningStats stats = new TuningRunner(difficulty, strategy, tickRate, reaction, seed, masks).run(sessions, pool);
+            ticks += stats.getTotalTicks();
+            played += stats.getSessions();
+            StringBuilder lanes = new StringBuilder();
+            for (int lane = 0; lane < GameSimulation.LANE_COUNT; lane++) {
+                lanes.append(String.format("%5.2f", stats.deathsPerSession(lane)));
+            }
+            System.out.printf("%-70s %6.1f %7.1f %7.1f %7.1f %s%n", difficulty, stats.completionRate() * 100,
+                    stats.secondsOnLevel(1, tickRate), stats.secondsOnLevel(2, tickRate), stats.secondsOnLevel(3, tickRate), lanes);
+        }
+        pool.shutdown();
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.out.printf("%d sessions, %d ticks in %.1f s (%.0f sessions/s, %.0f ticks/s)%n",
+                played, ticks, seconds, played / seconds, ticks / seconds);
+    }
+
+    private static int[] parseList(String value) {
+        String[] parts = value.split(",");
+        int[] values = new int[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            values[i] = Integer.parseInt(parts[i].trim());
+        }
+        return values;
+    }
+}
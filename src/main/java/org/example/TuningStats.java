@@ -0,0 +1,73 @@
+package org.example;
+
+/**
+ * Totals over a batch of headless sessions: how many finished the game, how long each level
+ * took and which lane the player was in when hit. Batches run on different threads each fill
+ * their own and are merged at the end.
+ */
+public class TuningStats {
+
+    private static final int LEVELS = GameSimulation.LAST_LEVEL + 1;  // Indexed by level, 0 unused
+
+    long sessions, wins, timeUps, outOfHealth;
+    long totalTicks;
+    final long[] levelTicks = new long[LEVELS];    // Ticks spent on each level, over all sessions
+    final long[] levelEntries = new long[LEVELS];  // Sessions that played each level
+    final long[] levelClears = new long[LEVELS];   // Sessions that finished each level
+    final long[] deathsByLane = new long[GameSimulation.LANE_COUNT];
+
+    /**
+     * Adds another batch's totals to these.
+     */
+    public void merge(TuningStats other) {
+        sessions += other.sessions;
+        wins += other.wins;
+        timeUps += other.timeUps;
+        outOfHealth += other.outOfHealth;
+        totalTicks += other.totalTicks;
+        for (int i = 0; i < LEVELS; i++) {
+            levelTicks[i] += other.levelTicks[i];
+            levelEntries[i] += other.levelEntries[i];
+            levelClears[i] += other.levelClears[i];
+        }
+        for (int i = 0; i < deathsByLane.length; i++) {
+            deathsByLane[i] += other.deathsByLane[i];
+        }
+    }
+
+    public long getSessions() {
+        return sessions;
+    }
+
+    public long getTotalTicks() {
+        return totalTicks;
+    }
+
+    /**
+     * Share of sessions that reached the house, from 0 to 1.
+     */
+    public double completionRate() {
+        return sessions == 0 ? 0 : (double) wins / sessions;
+    }
+
+    /**
+     * Average seconds spent on a level by the sessions that played it.
+     */
+    public double secondsOnLevel(int level, int tickRate) {
+        return levelEntries[level] == 0 ? 0 : (double) levelTicks[level] / levelEntries[level] / tickRate;
+    }
+
+    /**
+     * Share of the sessions that played a level and got past it.
+     */
+    public double clearRate(int level) {
+        return levelEntries[level] == 0 ? 0 : (double) levelClears[level] / levelEntries[level];
+    }
+
+    /**
+     * Average number of hits per session taken in a lane.
+     */
+    public double deathsPerSession(int lane) {
+        return sessions == 0 ? 0 : (double) deathsByLane[lane] / sessions;
+    }
+}
@@ -0,0 +1,104 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaneIndexTest {
+
+    private static final int LANE_TOP = 120, LANE_HEIGHT = 60, LANES = 7, WIDTH = 800;
+
+    private static int linearScan(ObstacleStore store, int x, int y, int width, int height) {
+        for (int i = 0; i < store.size(); i++) {
+            if (LaneIndex.intersects(x, y, width, height, store.getX(i), store.getY(i), store.getWidth(i), store.getHeight(i))) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Random queries, plus one on a corner of every obstacle so none can go missing unnoticed
+    private static void assertSameHits(ObstacleStore store, Random rand, String at) {
+        for (int q = 0; q < 200; q++) {
+            int x = rand.nextInt(WIDTH + 200) - 100, y = rand.nextInt(LANE_TOP + LANES * LANE_HEIGHT + 100) - 50;
+            int width = 1 + rand.nextInt(80), height = 1 + rand.nextInt(80);
+            assertHit(store, x, y, width, height, at + ", query " + q);
+        }
+        for (int i = 0; i < store.size(); i++) {
+            int width = store.getWidth(i), height = store.getHeight(i);
+            assertHit(store, store.getX(i) + width - 1, store.getY(i) + height - 1, 1, 1, at + ", corner of " + i);
+            assertHit(store, store.getX(i), store.getY(i), 1, 1, at + ", origin of " + i);
+        }
+    }
+
+    private static void assertHit(ObstacleStore store, int x, int y, int width, int height, String at) {
+        int expected = linearScan(store, x, y, width, height);
+        int hit = store.firstHit(x, y, width, height);
+        assertEquals(expected >= 0, hit >= 0, at);
+        if (hit >= 0) {
+            assertTrue(LaneIndex.intersects(x, y, width, height, store.getX(hit), store.getY(hit),
+                    store.getWidth(hit), store.getHeight(hit)), at + " hit an obstacle it doesn't touch");
+        }
+    }
+
+    private static void addRandom(ObstacleStore store, Random rand) {
+        // Some above and below the lanes, which go into the first and last buckets
+        int y = rand.nextInt(LANES * LANE_HEIGHT + 120) + LANE_TOP - 60;
+        store.add(rand.nextInt(WIDTH + 100) - 100, y, 10 + rand.nextInt(80), 10 + rand.nextInt(60), rand.nextInt(4));
+    }
+
+    @Test
+    void movingAndWrappingObstaclesAreAlwaysFound() {
+        for (long seed = 1; seed <= 20; seed++) {
+            Random rand = new Random(seed);
+            ObstacleStore store = new ObstacleStore(4, LANE_TOP, LANE_HEIGHT, LANES);
+            int count = 1 + rand.nextInt(seed % 2 == 0 ? 10 : 80);
+            for (int i = 0; i < count; i++) {
+                addRandom(store, rand);
+            }
+            for (int step = 0; step < 300; step++) {
+                // The whole level moving together, as the game does, wrapping what leaves the screen
+                int dx = 1 + rand.nextInt(12);
+                boolean together = rand.nextInt(5) != 0;
+                for (int i = 0; i < store.size(); i++) {
+                    int move = together ? dx : rand.nextInt(41) - 20;
+                    if (store.getX(i) + move > WIDTH) {
+                        store.teleport(i, -rand.nextInt(400));
+                    } else {
+                        store.translate(i, move);
+                    }
+                }
+                store.finishMoves();
+                assertSameHits(store, rand, "seed " + seed + ", step " + step);
+
+                // Now and then the set itself changes
+                int roll = rand.nextInt(10);
+                if (roll == 0) {
+                    addRandom(store, rand);
+                } else if (roll == 1 && store.size() > 0) {
+                    store.remove(rand.nextInt(store.size()));
+                } else if (roll == 2 && store.size() > 0) {
+                    store.set(rand.nextInt(store.size()), rand.nextInt(WIDTH), LANE_TOP + rand.nextInt(LANES * LANE_HEIGHT),
+                            20 + rand.nextInt(40), 20 + rand.nextInt(30), 0);
+                }
+            }
+        }
+    }
+
+    @Test
+    void clearedIndexFindsNothingUntilRefilled() {
+        Random rand = new Random(3);
+        ObstacleStore store = new ObstacleStore(4, LANE_TOP, LANE_HEIGHT, LANES);
+        for (int i = 0; i < 50; i++) {
+            addRandom(store, rand);
+        }
+        store.clear();
+        assertEquals(-1, store.firstHit(-1000, -1000, 3000, 3000));
+        for (int i = 0; i < 5; i++) {
+            addRandom(store, rand);
+        }
+        assertSameHits(store, rand, "refilled");
+    }
+}
@@ -0,0 +1,166 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ObstacleStoreTest {
+
+    private static final int LANE_TOP = 120, LANE_HEIGHT = 60, LANES = 7;
+
+    // An obstacle as the fields a store keeps, to compare stores with lists
+    private record Obstacle(int x, int y, int width, int height, int sprite) {}
+
+    private static Obstacle get(ObstacleStore store, int i) {
+        return new Obstacle(store.getX(i), store.getY(i), store.getWidth(i), store.getHeight(i), store.getSprite(i));
+    }
+
+    private static ObstacleStore store(List<Obstacle> obstacles) {
+        ObstacleStore store = new ObstacleStore(2, LANE_TOP, LANE_HEIGHT, LANES);
+        for (Obstacle o : obstacles) {
+            store.add(o.x, o.y, o.width, o.height, o.sprite);
+        }
+        return store;
+    }
+
+    // Distinct obstacles, several to a lane
+    private static List<Obstacle> obstacles(int count, long seed) {
+        Random rand = new Random(seed);
+        List<Obstacle> obstacles = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            obstacles.add(new Obstacle(rand.nextInt(800), LANE_TOP + rand.nextInt(LANES * LANE_HEIGHT),
+                    20 + rand.nextInt(40), 20 + rand.nextInt(20), i));
+        }
+        return obstacles;
+    }
+
+    private static void assertHolds(List<Obstacle> expected, ObstacleStore store) {
+        assertEquals(expected.size(), store.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i), get(store, i), "obstacle " + i);
+        }
+        // Every obstacle is found by the lane index under its own index
+        for (int i = 0; i < store.size(); i++) {
+            Obstacle o = expected.get(i);
+            int hit = store.firstHit(o.x, o.y, 1, 1);
+            assertTrue(hit >= 0, "obstacle " + i + " missing from the lane index");
+            assertTrue(LaneIndex.intersects(o.x, o.y, 1, 1, store.getX(hit), store.getY(hit),
+                    store.getWidth(hit), store.getHeight(hit)), "lane index points obstacle " + i + " elsewhere");
+        }
+        assertEquals(-1, store.firstHit(-500, -500, 10, 10));
+    }
+
+    // What a swap-remove leaves: the last element moved into the gap
+    private static void swapRemove(List<Obstacle> list, int i) {
+        Obstacle last = list.remove(list.size() - 1);
+        if (i < list.size()) list.set(i, last);
+    }
+
+    @Test
+    void removingMovesTheLastObstacleIntoTheGap() {
+        List<Obstacle> expected = obstacles(12, 1);
+        ObstacleStore store = store(expected);
+        // Last, middle, first, then down to empty
+        for (int i : new int[]{11, 5, 0}) {
+            store.remove(i);
+            swapRemove(expected, i);
+            assertHolds(expected, store);
+        }
+        while (store.size() > 0) {
+            store.remove(0);
+            swapRemove(expected, 0);
+            assertHolds(expected, store);
+        }
+        store.add(10, 200, 30, 30, 7);
+        assertHolds(List.of(new Obstacle(10, 200, 30, 30, 7)), store);
+    }
+
+    @Test
+    void randomRemovalsKeepTheLaneIndexConsistent() {
+        Random rand = new Random(2);
+        List<Obstacle> expected = obstacles(200, 3);
+        ObstacleStore store = store(expected);
+        while (!expected.isEmpty()) {
+            int i = rand.nextInt(expected.size());
+            store.remove(i);
+            swapRemove(expected, i);
+            if (rand.nextInt(4) == 0) {
+                Obstacle o = new Obstacle(rand.nextInt(800), LANE_TOP + rand.nextInt(LANES * LANE_HEIGHT), 25, 25, -1);
+                store.add(o.x, o.y, o.width, o.height, o.sprite);
+                expected.add(o);
+            }
+            assertHolds(expected, store);
+        }
+    }
+
+    @Test
+    void copyIsIndependentAndIndexedTheSame() {
+        List<Obstacle> expected = obstacles(40, 4);
+        ObstacleStore original = store(expected);
+        original.remove(3);
+        swapRemove(expected, 3);
+        ObstacleStore copy = new ObstacleStore(1, LANE_TOP, LANE_HEIGHT, LANES);
+        copy.copyFrom(original);
+        assertHolds(expected, copy);
+
+        // Changing either afterwards leaves the other alone
+        List<Obstacle> copied = new ArrayList<>(expected);
+        original.remove(0);
+        swapRemove(expected, 0);
+        copy.remove(copy.size() - 1);
+        swapRemove(copied, copied.size() - 1);
+        assertHolds(expected, original);
+        assertHolds(copied, copy);
+
+        // A smaller copy taken over an emptied store
+        ObstacleStore small = store(obstacles(3, 5));
+        small.clear();
+        copy.copyFrom(small);
+        assertHolds(List.of(), copy);
+    }
+
+    @Test
+    void movesOnlyInterpolateWhenTranslated() {
+        ObstacleStore store = store(List.of(new Obstacle(100, 200, 30, 30, 0), new Obstacle(700, 200, 30, 30, 1)));
+        store.translate(0, 20);
+        store.teleport(1, -50);
+        store.finishMoves();
+        assertEquals(110, store.renderX(0, 0.5));
+        assertEquals(120, store.renderX(0, 1));
+        assertEquals(-50, store.renderX(1, 0), "teleported obstacles don't slide across the screen");
+        // Their order in the lane changed, and both are still found where they are now
+        assertEquals(1, store.firstHit(-50, 200, 1, 1));
+        assertEquals(0, store.firstHit(120, 200, 1, 1));
+        assertEquals(-1, store.firstHit(700, 200, 1, 1));
+    }
+
+    @Test
+    void powerUpsSwapRemoveAndCopy() {
+        PowerUpStore store = new PowerUpStore(1);
+        PowerUpType[] types = PowerUpType.values();
+        for (int i = 0; i < 6; i++) {
+            store.add(i * 10, i * 20, types[i % types.length]);
+        }
+        store.remove(5);  // Last
+        store.remove(2);  // Middle: 4 moves in
+        store.remove(0);  // First: 3 moves in
+        int[] xs = {30, 10, 40};
+        assertEquals(xs.length, store.size());
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(xs[i], store.getX(i));
+            assertEquals(xs[i] * 2, store.getY(i));
+            assertEquals(types[xs[i] / 10 % types.length], store.getType(i));
+        }
+        PowerUpStore copy = new PowerUpStore(1);
+        copy.copyFrom(store);
+        store.clear();
+        assertEquals(xs.length, copy.size());
+        for (int i = 0; i < xs.length; i++) {
+            assertEquals(xs[i], copy.getX(i));
+        }
+    }
+}
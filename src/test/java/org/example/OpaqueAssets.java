@@ -0,0 +1,44 @@
+package org.example;
+
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Every image fully opaque at its draw size and no sounds, so tests get collision masks that are
+ * exactly the sprites' boxes without depending on the working directory.
+ */
+final class OpaqueAssets implements AssetSource {
+
+    static final CollisionMasks MASKS = load();
+
+    private static CollisionMasks load() {
+        try {
+            return CollisionMasks.load(new OpaqueAssets());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public BufferedImage image(Asset asset) {
+        BufferedImage image = new BufferedImage(asset.imageWidth(), asset.imageHeight(), BufferedImage.TYPE_INT_ARGB_PRE);
+        Graphics2D g = image.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, image.getWidth(), image.getHeight());
+        g.dispose();
+        return image;
+    }
+
+    @Override
+    public AudioEngine.Effect effect(Asset asset, AudioEngine audio) throws IOException {
+        throw new IOException("No sounds in the tests: " + asset.file);
+    }
+
+    @Override
+    public AudioEngine.Track track(Asset asset, AudioEngine audio) throws IOException {
+        throw new IOException("No sounds in the tests: " + asset.file);
+    }
+}
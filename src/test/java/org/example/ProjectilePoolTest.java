@@ -0,0 +1,134 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProjectilePoolTest {
+
+    // A level 1 game that never ends, with its obstacles and power-ups cleared away
+    private static GameSimulation emptyGame(InputSource input) {
+        GameSimulation game = new GameSimulation(1, 60, Difficulty.DEFAULT, GameMode.LEVELS, input, OpaqueAssets.MASKS);
+        game.stopCountdown();
+        game.getObstacles().clear();
+        game.getPowerUps().clear();
+        return game;
+    }
+
+    @Test
+    void fullPoolDropsShotsUntilOneLeaves() {
+        ProjectilePool pool = new ProjectilePool(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(pool.add(i * 10, 100, 0));
+        }
+        assertFalse(pool.add(99, 99, 0));
+        assertEquals(4, pool.size());
+        assertEquals(30, pool.getX(3), "a dropped shot overwrites nothing");
+
+        pool.remove(1);  // The last one moves into the gap
+        assertEquals(30, pool.getX(1));
+        assertTrue(pool.add(50, 100, 0));
+        assertFalse(pool.add(60, 100, 0));
+
+        // Off the top or the sides, they leave the pool
+        pool.move(150, 60, -10, 800);
+        assertEquals(0, pool.size());
+    }
+
+    @Test
+    void copyKeepsWhatFitsTheCapacity() {
+        ProjectilePool big = new ProjectilePool(10);
+        for (int i = 0; i < 10; i++) {
+            big.add(i, 100 + i, 0);
+        }
+        ProjectilePool small = new ProjectilePool(3);
+        small.copyFrom(big);
+        assertEquals(3, small.size());
+        for (int i = 0; i < 3; i++) {
+            assertEquals(i, small.getX(i));
+            assertEquals(100 + i, small.getY(i));
+        }
+    }
+
+    @Test
+    void firingIntoAFullPoolIsDropped() {
+        boolean[] fired = {false};
+        GameSimulation game = emptyGame(tick -> {
+            if (fired[0]) return null;  // Polled until it has nothing more for the tick
+            fired[0] = true;
+            return GameAction.FIRE;
+        });
+        ProjectilePool projectiles = game.getProjectiles();
+        while (projectiles.add(5, GameSimulation.HEIGHT - 5, 0)) {}
+        assertEquals(GameSimulation.MAX_PROJECTILES, projectiles.size());
+        game.step();
+        assertEquals(GameSimulation.MAX_PROJECTILES, projectiles.size());
+        for (int i = 0; i < projectiles.size(); i++) {
+            assertEquals(5, projectiles.getX(i), "the shot fired from the player went nowhere");
+        }
+    }
+
+    @Test
+    void twoShotsIntoOneObstacleScoreItOnce() {
+        GameSimulation game = emptyGame(InputSource.NONE);
+        ObstacleStore obstacles = game.getObstacles();
+        obstacles.add(100, 300, GameSimulation.CAR_WIDTH, GameSimulation.CAR_HEIGHT, 0);
+        obstacles.add(400, 300, GameSimulation.CAR_WIDTH, GameSimulation.CAR_HEIGHT, 1);
+        game.getProjectiles().add(110, 320, 0);
+        game.getProjectiles().add(130, 320, 0);
+        game.step();
+        assertEquals(10, game.getScore());
+        assertEquals(1, obstacles.size());
+        assertEquals(1, obstacles.getSprite(0));
+        assertEquals(0, game.getProjectiles().size());
+    }
+
+    @Test
+    void shotObstaclesAreRemovedTogetherAfterThePass() {
+        Random rand = new Random(1);
+        // A grid with room between obstacles, clear of the player at the bottom
+        int columns = 7, rows = 8, spacingX = 110, spacingY = 45;
+        for (int round = 0; round < 200; round++) {
+            GameSimulation game = emptyGame(InputSource.NONE);
+            ObstacleStore obstacles = game.getObstacles();
+            for (int r = 0; r < rows; r++) {
+                for (int c = 0; c < columns; c++) {
+                    obstacles.add(20 + c * spacingX, 130 + r * spacingY, GameSimulation.CAR_WIDTH, GameSimulation.CAR_HEIGHT,
+                            r * columns + c);
+                }
+            }
+            // Some obstacles shot once, some twice, and some shots into the gaps between them
+            Set<Integer> shot = new HashSet<>();
+            int misses = 0;
+            ProjectilePool projectiles = game.getProjectiles();
+            for (int i = 0; i < obstacles.size(); i++) {
+                int x = obstacles.getX(i), y = obstacles.getY(i);
+                int roll = rand.nextInt(6);
+                for (int s = 0; s < (roll < 3 ? roll : 0); s++) {
+                    projectiles.add(x + 10 + rand.nextInt(30), y + 20, 0);
+                    shot.add(obstacles.getSprite(i));
+                }
+                if (roll == 5) {
+                    projectiles.add(x + 65 + rand.nextInt(30), y + 20, 0);
+                    misses++;
+                }
+            }
+            game.step();
+
+            assertEquals(10 * shot.size(), game.getScore(), "round " + round);
+            assertEquals(columns * rows - shot.size(), obstacles.size(), "round " + round);
+            Set<Integer> left = new HashSet<>();
+            for (int i = 0; i < obstacles.size(); i++) {
+                assertTrue(left.add(obstacles.getSprite(i)), "obstacle " + obstacles.getSprite(i) + " twice");
+                assertFalse(shot.contains(obstacles.getSprite(i)), "obstacle " + obstacles.getSprite(i) + " was shot");
+                // Still in the lane index under its new number
+                assertTrue(obstacles.firstHit(obstacles.getX(i), obstacles.getY(i), 1, 1) >= 0);
+            }
+            assertEquals(misses, projectiles.size(), "round " + round);
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplayTest {
+
+    private static final GameAction[] ACTIONS = GameAction.values();
+
+    @TempDir
+    Path dir;
+
+    // An action and the tick it was applied on
+    private record Event(long tick, GameAction action) {}
+
+    // Hands out scripted events on their ticks, several per tick where the script has them
+    private static final class Script implements InputSource {
+        private final ArrayDeque<Event> events;
+
+        Script(List<Event> events) {
+            this.events = new ArrayDeque<>(events);
+        }
+
+        @Override
+        public GameAction poll(long tick) {
+            Event next = events.peek();
+            if (next == null || next.tick > tick) return null;
+            return events.poll().action;
+        }
+    }
+
+    // Polls a source for every tick up to lastTick, the way the simulation does
+    private static List<Event> drain(InputSource source, long lastTick) {
+        List<Event> events = new ArrayList<>();
+        for (long tick = 1; tick <= lastTick; tick++) {
+            GameAction action;
+            while ((action = source.poll(tick)) != null) {
+                events.add(new Event(tick, action));
+            }
+        }
+        return events;
+    }
+
+    private static String state(GameSimulation game) {
+        return "tick " + game.getTick() + " level " + game.getLevel() + " row " + game.getDistance()
+                + " score " + game.getScore() + " health " + game.getHealth() + " time " + game.getRemainingTime()
+                + " at " + game.getPlayerX() + "," + game.getPlayerY() + " cat " + game.getSelectedCat()
+                + (game.hasWon() ? " won" : "") + (game.isGameOver() ? " over" : "");
+    }
+
+    @Test
+    void replayEndsInTheRecordedState() throws IOException {
+        for (GameMode mode : GameMode.values()) {
+            for (long seed = 1; seed <= 20; seed++) {
+                Random rand = new Random(seed);
+                InputSource live = tick -> {
+                    if (rand.nextInt(4) != 0) return null;
+                    return rand.nextInt(3) == 0 ? ACTIONS[rand.nextInt(ACTIONS.length)] : GameAction.MOVE_UP;
+                };
+                File file = dir.resolve(mode + "-" + seed + ".crr").toFile();
+                InputRecorder recorder = new InputRecorder(live, file, seed * 7919, 60, mode);
+                GameSimulation game = new GameSimulation(seed * 7919, 60, Difficulty.DEFAULT, mode, recorder, OpaqueAssets.MASKS);
+                while (!game.isFinished() && game.getTick() < 20_000) {
+                    game.step();
+                }
+                recorder.close();
+
+                ReplayInput replay = new ReplayInput(file);
+                assertEquals(seed * 7919, replay.getSeed());
+                assertEquals(60, replay.getTickRate());
+                assertEquals(mode, replay.getMode());
+                GameSimulation again = new GameSimulation(replay.getSeed(), replay.getTickRate(), Difficulty.DEFAULT,
+                        replay.getMode(), replay, OpaqueAssets.MASKS);
+                while (!replay.isFinished(again.getTick())) {
+                    again.step();
+                }
+                assertEquals(state(game), state(again), mode + " seed " + seed);
+            }
+        }
+    }
+
+    @Test
+    void eventsComeBackOnTheirTicksAcrossVarintLengths() throws IOException {
+        // Deltas around each varint length (delta << 4 needs 1, 2, 3 then 4 bytes), and repeats on one tick
+        long[] gaps = {1, 0, 0, 7, 8, 1023, 1024, 131_071, 131_072, 1, 0};
+        List<Event> events = new ArrayList<>();
+        long tick = 0;
+        for (int i = 0; i < gaps.length; i++) {
+            tick += gaps[i];
+            events.add(new Event(Math.max(tick, 1), ACTIONS[i % ACTIONS.length]));
+        }
+        long lastTick = tick + 5;
+        File file = dir.resolve("gaps.crr").toFile();
+        InputRecorder recorder = new InputRecorder(new Script(events), file, 1, 60, GameMode.LEVELS);
+        assertEquals(events, drain(recorder, lastTick));
+        recorder.close();
+
+        ReplayInput replay = new ReplayInput(file);
+        assertEquals(events, drain(replay, lastTick));
+        assertTrue(replay.isFinished(lastTick));
+        assertFalse(replay.isFinished(lastTick - 1));
+    }
+
+    @Test
+    void truncatedReplayPlaysWhatItHolds() throws IOException {
+        Random rand = new Random(3);
+        List<Event> events = new ArrayList<>();
+        long tick = 1;
+        for (int i = 0; i < 200; i++) {
+            tick += rand.nextInt(3) == 0 ? 0 : rand.nextInt(300);
+            events.add(new Event(tick, ACTIONS[rand.nextInt(ACTIONS.length)]));
+        }
+        long lastTick = tick + 10;
+        File file = dir.resolve("full.crr").toFile();
+        InputRecorder recorder = new InputRecorder(new Script(events), file, 2, 60, GameMode.LEVELS);
+        drain(recorder, lastTick);
+        recorder.close();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+
+        // Header: magic, version, mode, one-byte tick rate, seed
+        int header = 4 + 1 + 1 + 1 + 8;
+        for (int length = header; length < bytes.length; length++) {
+            File cut = dir.resolve("cut.crr").toFile();
+            Files.write(cut.toPath(), Arrays.copyOf(bytes, length));
+            ReplayInput replay = new ReplayInput(cut);
+            List<Event> played = drain(replay, lastTick);
+            assertEquals(events.subList(0, played.size()), played, "cut to " + length + " bytes");
+            assertTrue(replay.isFinished(lastTick), "cut to " + length + " bytes");
+        }
+        assertEquals(events, drain(new ReplayInput(file), lastTick));
+    }
+
+    @Test
+    void replayFromBeforePixelCollisionsIsRejected() throws IOException {
+        File file = dir.resolve("old.crr").toFile();
+        InputRecorder recorder = new InputRecorder(InputSource.NONE, file, 1, 60, GameMode.LEVELS);
+        recorder.close();
+        byte[] bytes = Files.readAllBytes(file.toPath());
+        bytes[4] = 2;  // Version byte
+        Files.write(file.toPath(), bytes);
+        IOException e = assertThrows(IOException.class, () -> new ReplayInput(file));
+        assertTrue(e.getMessage().contains("version 2"), e.getMessage());
+    }
+}
@@ -0,0 +1,261 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScoreStoreTest {
+
+    private static final long DAY = ScoreFormat.DAY_MILLIS;
+    private static final long START = LocalDate.of(2026, 1, 1).toEpochDay() * DAY;
+
+    @TempDir
+    Path dir;
+
+    // A run as appended, for working out the boards by sorting
+    private record Run(long time, int score, int cat) {
+        long day() {
+            return ScoreFormat.day(time);
+        }
+    }
+
+    private static final Comparator<Run> BEST_FIRST =
+            Comparator.comparingInt(Run::score).reversed().thenComparingLong(Run::time);
+
+    // Distinct times spread over the given number of days, appended in a shuffled order
+    private static List<Run> runs(int count, int days, long seed) {
+        Random rand = new Random(seed);
+        List<Run> runs = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            runs.add(new Run(START + (long) i * days * DAY / count, rand.nextInt(500), rand.nextInt(ScoreFormat.CAT_COUNT)));
+        }
+        Collections.shuffle(runs, rand);
+        return runs;
+    }
+
+    private static long append(ScoreStore store, Run run) {
+        return store.append(run.time, run.score, 3, 10, 2, run.cat, GameMode.LEVELS, false);
+    }
+
+    private static void appendAll(ScoreStore store, List<Run> runs) throws InterruptedException {
+        long last = -1;
+        for (Run run : runs) {
+            last = append(store, run);
+        }
+        assertTrue(store.awaitDurable(last));
+    }
+
+    private static List<Run> expected(List<Run> runs, Predicate<Run> filter, int limit) {
+        return runs.stream().filter(filter).sorted(BEST_FIRST).limit(limit).toList();
+    }
+
+    private static void assertBoard(List<Run> expected, List<ScoreEntry> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).time, actual.get(i).getTime(), "time of entry " + i);
+            assertEquals(expected.get(i).score, actual.get(i).getScore(), "score of entry " + i);
+            assertEquals(expected.get(i).cat, actual.get(i).getCat(), "cat of entry " + i);
+        }
+    }
+
+    // Every board a query can return, against sorting all the runs
+    private static void assertBoards(ScoreStore store, List<Run> runs) throws IOException {
+        assertBoard(expected(runs, r -> true, ScoreStore.K), store.top(ScoreStore.K));
+        assertBoard(expected(runs, r -> true, 10), store.top(10));
+        for (int cat = 0; cat < ScoreFormat.CAT_COUNT; cat++) {
+            int c = cat;
+            assertBoard(expected(runs, r -> r.cat == c, ScoreStore.K), store.topForCat(cat, ScoreStore.K));
+        }
+        runs.stream().mapToLong(Run::day).distinct().forEach(day -> {
+            try {
+                assertBoard(expected(runs, r -> r.day() == day, ScoreStore.K),
+                        store.topForDay(LocalDate.ofEpochDay(day), ScoreStore.K));
+            } catch (IOException e) {
+                throw new AssertionError(e);
+            }
+        });
+    }
+
+    // What a crash would leave behind: the log and the index as they are on disk while the store is open
+    private File crashCopy(File log) throws IOException {
+        Path crashed = Files.createDirectories(dir.resolve("crashed"));
+        Files.copy(log.toPath(), crashed.resolve(log.getName()));
+        Files.copy(new File(log.getPath() + ".idx").toPath(), crashed.resolve(log.getName() + ".idx"));
+        return crashed.resolve(log.getName()).toFile();
+    }
+
+    private static long logSize(long records) {
+        return ScoreFormat.LOG_HEADER_BYTES + records * ScoreFormat.RECORD_BYTES;
+    }
+
+    @Test
+    void topKMatchesSortingEveryRun() throws Exception {
+        // 100 days, so some days are older than the index's ring and come from the log
+        List<Run> runs = runs(20_000, 100, 1);
+        File log = dir.resolve("scores.log").toFile();
+        try (ScoreStore store = ScoreStore.open(log)) {
+            appendAll(store, runs);
+            assertBoards(store, runs);
+        }
+        try (ScoreStore store = ScoreStore.open(log)) {
+            assertBoards(store, runs);  // From the index closed cleanly
+        }
+    }
+
+    @Test
+    void recordCutShortIsCutOff() throws Exception {
+        List<Run> runs = runs(500, 3, 2);
+        File log = dir.resolve("scores.log").toFile();
+        try (ScoreStore store = ScoreStore.open(log)) {
+            appendAll(store, runs);
+        }
+        try (RandomAccessFile file = new RandomAccessFile(log, "rw")) {
+            file.setLength(logSize(runs.size()) - ScoreFormat.RECORD_BYTES / 2);  // Half of the last record written
+        }
+        List<Run> kept = runs.subList(0, runs.size() - 1);
+        try (ScoreStore store = ScoreStore.open(log)) {
+            assertEquals(logSize(kept.size()), log.length());
+            assertBoards(store, kept);
+            // Appends go after the last whole record
+            Run next = new Run(START + 5 * DAY, 1000, 0);
+            assertTrue(store.awaitDurable(append(store, next)));
+            kept = new ArrayList<>(kept);
+            kept.add(next);
+            assertBoards(store, kept);
+        }
+        try (ScoreStore store = ScoreStore.open(log)) {
+            assertEquals(logSize(kept.size()), log.length());
+            assertBoards(store, kept);
+        }
+    }
+
+    @Test
+    void recordFailingItsChecksumEndsTheLog() throws Exception {
+        List<Run> runs = runs(500, 3, 3);
+        File log = dir.resolve("scores.log").toFile();
+        File crashed;
+        try (ScoreStore store = ScoreStore.open(log)) {
+            appendAll(store, runs);
+            crashed = crashCopy(log);
+        }
+        int bad = 400;
+        try (RandomAccessFile file = new RandomAccessFile(crashed, "rw")) {
+            long scoreAt = logSize(bad) + ScoreFormat.SCORE;
+            file.seek(scoreAt);
+            int score = file.readInt();
+            file.seek(scoreAt);
+            file.writeInt(score ^ 0x100);  // A torn write left other bytes than the checksum covers
+        }
+        try (ScoreStore store = ScoreStore.open(crashed)) {
+            assertEquals(logSize(bad), crashed.length());
+            assertBoards(store, runs.subList(0, bad));
+        }
+    }
+
+    @Test
+    void dirtyIndexIsRebuiltFromTheLog() throws Exception {
+        List<Run> runs = runs(3000, 10, 4);
+        File log = dir.resolve("scores.log").toFile();
+        File crashed;
+        try (ScoreStore store = ScoreStore.open(log)) {
+            appendAll(store, runs);
+            crashed = crashCopy(log);
+        }
+        // Boards a crash left half written: nothing in them can be trusted
+        File index = new File(crashed.getPath() + ".idx");
+        try (RandomAccessFile file = new RandomAccessFile(index, "rw")) {
+            byte[] garbage = new byte[(int) file.length() - ScoreFormat.INDEX_HEADER_BYTES];
+            new Random(5).nextBytes(garbage);
+            file.seek(ScoreFormat.INDEX_HEADER_BYTES);
+            file.write(garbage);
+        }
+        try (ScoreStore store = ScoreStore.open(crashed)) {
+            assertBoards(store, runs);
+        }
+    }
+
+    @Test
+    void groupCommitMakesEveryAwaitedRunDurable() throws Exception {
+        int threads = 8, perThread = 2000;
+        List<Run> runs = Collections.synchronizedList(new ArrayList<>());
+        File log = dir.resolve("scores.log").toFile();
+        File crashed;
+        try (ScoreStore store = ScoreStore.open(log)) {
+            List<Thread> appenders = new ArrayList<>();
+            List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+            for (int t = 0; t < threads; t++) {
+                int thread = t;
+                Thread appender = new Thread(() -> {
+                    try {
+                        for (int i = 0; i < perThread; i++) {
+                            Run run = new Run(START + (long) (i * threads + thread) * 1000, (i * 31 + thread) % 700, thread % 3);
+                            runs.add(run);
+                            assertTrue(store.awaitDurable(append(store, run)));
+                        }
+                    } catch (Throwable e) {
+                        failures.add(e);
+                    }
+                });
+                appender.start();
+                appenders.add(appender);
+            }
+            for (Thread appender : appenders) {
+                appender.join();
+            }
+            assertEquals(List.of(), failures);
+            ScoreStore.Stats stats = new ScoreStore.Stats();
+            store.takeStats(stats);
+            assertEquals(threads * perThread, stats.records);
+            assertTrue(stats.commits <= stats.records);
+            crashed = crashCopy(log);  // Durable means it survives without a clean close
+        }
+        assertEquals(logSize(threads * perThread), crashed.length());
+        try (ScoreStore store = ScoreStore.open(crashed)) {
+            assertBoards(store, runs);
+        }
+    }
+
+    @Test
+    void compactionKeepsEveryBoardAcrossReopening() throws Exception {
+        List<Run> runs = runs(20_000, 5, 6);
+        File log = dir.resolve("scores.log").toFile();
+        try (ScoreStore store = ScoreStore.open(log)) {
+            appendAll(store, runs);
+            store.compact();
+            // Top K overall, per cat and per day is at most K * (1 + 3 + 5) runs
+            assertTrue(log.length() <= logSize(ScoreStore.K * (1 + ScoreFormat.CAT_COUNT + 5)),
+                    "compacted to " + log.length() + " bytes");
+            assertFalse(new File(log.getPath() + ".compact").exists());
+            assertBoards(store, runs);
+
+            Run late = new Run(START + 6 * DAY, 10_000, 1);
+            assertTrue(store.awaitDurable(append(store, late)));
+            runs = new ArrayList<>(runs);
+            runs.add(late);
+            assertBoards(store, runs);
+        }
+        // The index was rebased onto the compacted log, so it is trusted as it is
+        try (ScoreStore store = ScoreStore.open(log)) {
+            assertBoards(store, runs);
+        }
+        // And a rebuild from the compacted log alone gives the same boards
+        Files.delete(Path.of(log.getPath() + ".idx"));
+        try (ScoreStore store = ScoreStore.open(log)) {
+            assertBoards(store, runs);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ServerProtocolTest {
+
+    private static final GameAction[] ACTIONS = GameAction.values();
+
+    @Test
+    void frameLengthWaitsForTheWholeFrame() {
+        ByteBuffer frames = ByteBuffer.allocate(64);
+        ServerProtocol.writeHello(frames, GameMode.ENDLESS);
+        int hello = frames.position();
+        ServerProtocol.writeInput(frames, GameAction.FIRE);
+        int both = frames.position();
+
+        for (int length = 0; length <= both; length++) {
+            ByteBuffer in = frames.duplicate();
+            in.position(0).limit(length);
+            int expected = length < hello ? -1 : hello - 2;
+            assertEquals(expected, ServerProtocol.frameLength(in), length + " bytes in");
+            assertEquals(0, in.position(), "left where it was");
+        }
+        ByteBuffer in = frames.duplicate();
+        in.position(0).limit(both);
+        in.position(2);
+        assertEquals(ServerProtocol.HELLO, in.get());
+        assertEquals(GameMode.ENDLESS.ordinal(), in.get());
+        assertEquals(both - hello - 2, ServerProtocol.frameLength(in));
+        in.position(in.position() + 2);
+        assertEquals(ServerProtocol.INPUT, in.get());
+        assertEquals(GameAction.FIRE.ordinal(), in.get());
+    }
+
+    // Reads a STATE frame back field by field and checks it against the game it was written from
+    private static void assertStateReadsBack(ByteBuffer out, GameSimulation game) {
+        out.flip();
+        int length = ServerProtocol.frameLength(out);
+        assertEquals(out.limit() - 2, length, "length field");
+        out.position(2);
+        assertEquals(ServerProtocol.STATE, out.get());
+        assertEquals(game.getTick(), out.getInt());
+        assertEquals(game.getLevel(), out.get());
+        int flags = out.get();
+        assertEquals(game.isEndless(), (flags & ServerProtocol.FLAG_ENDLESS) != 0);
+        assertEquals(game.isFinished(), (flags & (ServerProtocol.FLAG_WON | ServerProtocol.FLAG_GAME_OVER)) != 0);
+        assertEquals(game.getSelectedCat(), out.get());
+        assertEquals(game.getHealth(), out.get());
+        assertEquals(game.getScore(), out.getInt());
+        assertEquals(game.getRemainingTime(), out.getShort());
+        assertEquals(game.getDistance(), out.getInt());
+        int camera = out.getInt();
+        assertEquals(game.getCameraY(), camera);
+        assertEquals(game.getPlayerX(), out.getShort());
+        assertEquals(game.getPlayerY() - camera, out.getShort());
+        if (game.isEndless()) {
+            int lanes = out.get();
+            out.position(out.position() + lanes);  // Their types
+        }
+        int obstacles = out.getShort();
+        if (!game.isEndless()) {
+            assertEquals(game.getObstacles().size(), obstacles);
+        }
+        out.position(out.position() + 7 * obstacles);
+        assertEquals(game.getPowerUps().size(), out.get());
+        out.position(out.position() + 5 * game.getPowerUps().size());
+        assertEquals(game.getProjectiles().size(), out.getShort());
+        out.position(out.position() + 4 * game.getProjectiles().size());
+        assertEquals(out.limit(), out.position(), "nothing after the projectiles");
+    }
+
+    @Test
+    void stateNeverOutgrowsItsBound() {
+        ByteBuffer out = ByteBuffer.allocate(1 << 16);
+        for (GameMode mode : GameMode.values()) {
+            for (long seed = 1; seed <= 5; seed++) {
+                Random rand = new Random(seed);
+                long[] polled = {-1};
+                InputSource input = tick -> {
+                    if (polled[0] == tick) return null;  // One action a tick at most
+                    polled[0] = tick;
+                    int roll = rand.nextInt(10);
+                    return roll < 4 ? GameAction.MOVE_UP : roll < 6 ? ACTIONS[rand.nextInt(ACTIONS.length)] : null;
+                };
+                GameSimulation game = new GameSimulation(seed, 60, Difficulty.DEFAULT, mode, input, OpaqueAssets.MASKS);
+                int widest = 0;
+                while (!game.isFinished() && game.getTick() < 20_000) {
+                    game.step();
+                    if (rand.nextInt(200) == 0) {
+                        // A volley far beyond what one player can fire, up to the pool's capacity
+                        while (game.getProjectiles().add(rand.nextInt(GameSimulation.WIDTH), game.getPlayerY(), 0)) {}
+                    }
+                    out.clear();
+                    ServerProtocol.writeState(out, game);
+                    int written = out.position();
+                    assertTrue(written <= ServerProtocol.maxStateBytes(game),
+                            mode + " seed " + seed + " tick " + game.getTick() + ": " + written + " bytes over the bound of "
+                                    + ServerProtocol.maxStateBytes(game));
+                    assertStateReadsBack(out, game);
+                    widest = Math.max(widest, written);
+                }
+                assertTrue(widest > 100, mode + " states were at most " + widest + " bytes");
+            }
+        }
+    }
+
+    // A blocking client of a server on the loopback interface
+    private static final class Client implements AutoCloseable {
+        final Socket socket;
+        final DataInputStream in;
+        final DataOutputStream out;
+
+        Client(GameServer server) throws IOException {
+            socket = new Socket(InetAddress.getLoopbackAddress(), server.getPort());
+            socket.setSoTimeout(10_000);
+            in = new DataInputStream(socket.getInputStream());
+            out = new DataOutputStream(socket.getOutputStream());
+        }
+
+        void send(int type, int... payload) throws IOException {
+            out.writeShort(1 + payload.length);
+            out.writeByte(type);
+            for (int b : payload) {
+                out.writeByte(b);
+            }
+            out.flush();
+        }
+
+        // The next frame's type, with its payload skipped over
+        int nextFrame() throws IOException {
+            int length = in.readUnsignedShort();
+            int type = in.readUnsignedByte();
+            in.readFully(new byte[length - 1]);
+            return type;
+        }
+
+        // Whether the server hangs up, whatever it still sends before that
+        boolean closedByServer() throws IOException {
+            try {
+                while (true) {
+                    nextFrame();
+                }
+            } catch (EOFException e) {
+                return true;
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            socket.close();
+        }
+    }
+
+    @Test
+    void serverPlaysWellFormedClientsAndDropsBrokenOnes() throws IOException {
+        GameServer server = new GameServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 60, 0,
+                Difficulty.DEFAULT, 1, null, OpaqueAssets.MASKS);
+        server.start();
+        try {
+            try (Client client = new Client(server)) {
+                client.send(ServerProtocol.HELLO, GameMode.ENDLESS.ordinal());
+                assertEquals(1 + 4 + 8 + 1 + 2, client.in.readUnsignedShort(), "WELCOME length");
+                assertEquals(ServerProtocol.WELCOME, client.in.readUnsignedByte());
+                client.in.readInt();   // Session
+                client.in.readLong();  // Seed
+                assertEquals(GameMode.ENDLESS.ordinal(), client.in.readUnsignedByte());
+                assertEquals(60, client.in.readUnsignedShort());
+                client.send(ServerProtocol.INPUT, GameAction.MOVE_UP.ordinal(), GameAction.FIRE.ordinal());
+                for (int i = 0; i < 10; i++) {
+                    assertEquals(ServerProtocol.STATE, client.nextFrame());
+                }
+            }
+            int[][] broken = {
+                    {ServerProtocol.HELLO, GameMode.values().length},            // No such mode
+                    {ServerProtocol.HELLO, GameMode.LEVELS.ordinal(), 0},         // Too long
+                    {ServerProtocol.HELLO},                                       // Too short
+                    {ServerProtocol.INPUT, 0, ACTIONS.length},                    // No such action
+                    {ServerProtocol.INPUT, 0xFF},                                 // Negative as a byte
+                    {ServerProtocol.STATE, 0},                                    // Not one a client sends
+            };
+            for (int[] frame : broken) {
+                try (Client client = new Client(server)) {
+                    client.send(ServerProtocol.HELLO, GameMode.LEVELS.ordinal());
+                    client.send(frame[0], Arrays.copyOfRange(frame, 1, frame.length));
+                    assertTrue(client.closedByServer());
+                }
+            }
+            // A frame with no type at all
+            try (Client client = new Client(server)) {
+                client.out.writeShort(0);
+                client.out.flush();
+                assertTrue(client.closedByServer());
+            }
+        } finally {
+            server.stop();
+        }
+    }
+}
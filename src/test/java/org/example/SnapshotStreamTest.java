@@ -0,0 +1,184 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SnapshotStreamTest {
+
+    private static final int TICK_RATE = 60;
+
+    @TempDir
+    Path dir;
+
+    // A recorded game, with the state of every tick it was stepped through
+    private static final class Recording {
+        final File file;
+        final Map<Long, RecordedState> states = new HashMap<>();
+        int wraps, removals;  // Seen between consecutive ticks
+
+        Recording(File file) {
+            this.file = file;
+        }
+    }
+
+    // Plays a game that shoots a lot, so obstacles are swap-removed as well as wrapping around
+    private Recording record(String name, long seed, int maxBytesPerSecond) throws IOException {
+        Recording recording = new Recording(dir.resolve(name).toFile());
+        Random rand = new Random(seed);
+        GameAction[] moves = {GameAction.MOVE_UP, GameAction.MOVE_LEFT, GameAction.MOVE_RIGHT, GameAction.SHIELD};
+        long[] polled = {-1};
+        InputSource input = tick -> {
+            if (polled[0] == tick) return null;  // One action a tick at most
+            polled[0] = tick;
+            if (tick % 500 == 0) return GameAction.NEXT_CAT;
+            if (tick % 20 == 0) return moves[rand.nextInt(moves.length)];
+            if (tick % 6 == 0 && rand.nextBoolean()) return GameAction.FIRE;
+            return null;
+        };
+        GameSimulation game = new GameSimulation(seed, TICK_RATE, Difficulty.DEFAULT, GameMode.LEVELS, input, OpaqueAssets.MASKS);
+        SnapshotRecorder recorder = new SnapshotRecorder(new FileOutputStream(recording.file), TICK_RATE, maxBytesPerSecond);
+        RecordedState before = null;
+        while (!game.isFinished() && game.getTick() < 60 * TICK_RATE) {
+            game.step();
+            recorder.record(game);
+            RecordedState state = new RecordedState();
+            state.capture(game);
+            recording.states.put(state.tick, state);
+            if (before != null && before.level == state.level) {
+                if (state.obstacles.size() < before.obstacles.size()) recording.removals++;
+                for (int i = 0; i < Math.min(before.obstacles.size(), state.obstacles.size()); i++) {
+                    if (state.obstacles.getX(i) < before.obstacles.getX(i)) recording.wraps++;
+                }
+            }
+            before = state;
+        }
+        recorder.close();
+        return recording;
+    }
+
+    private static void assertSameState(RecordedState expected, RecordedState actual) {
+        String at = "tick " + expected.tick;
+        assertEquals(expected.tick, actual.tick);
+        assertEquals(expected.level, actual.level, at);
+        assertEquals(expected.selectedCat, actual.selectedCat, at);
+        assertEquals(expected.health, actual.health, at);
+        assertEquals(expected.score, actual.score, at);
+        assertEquals(expected.remainingTime, actual.remainingTime, at);
+        assertEquals(expected.speedBoostTimeLeft, actual.speedBoostTimeLeft, at);
+        assertEquals(expected.flags, actual.flags, at);
+        assertEquals(expected.playerX, actual.playerX, at);
+        assertEquals(expected.playerY, actual.playerY, at);
+        ObstacleStore a = expected.obstacles, b = actual.obstacles;
+        assertEquals(a.size(), b.size(), at);
+        for (int i = 0; i < a.size(); i++) {
+            String obstacle = at + ", obstacle " + i;
+            assertEquals(a.getX(i), b.getX(i), obstacle);
+            assertEquals(a.getY(i), b.getY(i), obstacle);
+            assertEquals(a.getWidth(i), b.getWidth(i), obstacle);
+            assertEquals(a.getHeight(i), b.getHeight(i), obstacle);
+            assertEquals(a.getSprite(i), b.getSprite(i), obstacle);
+        }
+        PowerUpStore p = expected.powerUps, q = actual.powerUps;
+        assertEquals(p.size(), q.size(), at);
+        for (int i = 0; i < p.size(); i++) {
+            assertEquals(p.getX(i), q.getX(i), at + ", power-up " + i);
+            assertEquals(p.getY(i), q.getY(i), at + ", power-up " + i);
+            assertEquals(p.getType(i), q.getType(i), at + ", power-up " + i);
+        }
+    }
+
+    // Decodes from where the reader is to the end, checking every record; returns the ticks read
+    private static TreeSet<Long> decodeAll(SnapshotReader reader, Recording recording) throws IOException {
+        TreeSet<Long> ticks = new TreeSet<>();
+        RecordedState state = new RecordedState();
+        long last = -1;
+        while (reader.next(state)) {
+            assertTrue(state.tick > last, "ticks go forward");
+            last = state.tick;
+            RecordedState expected = recording.states.get(state.tick);
+            assertNotNull(expected, "tick " + state.tick + " was never played");
+            assertSameState(expected, state);
+            ticks.add(state.tick);
+        }
+        return ticks;
+    }
+
+    @Test
+    void everyTickDecodesToTheRecordedState() throws IOException {
+        Recording recording = record("full.crs", 1, 1 << 20);
+        assertTrue(recording.wraps > 0, "obstacles wrapped around");
+        assertTrue(recording.removals > 0, "obstacles were shot");
+        try (SnapshotReader reader = SnapshotReader.open(recording.file)) {
+            assertEquals(TICK_RATE, reader.getTickRate());
+            TreeSet<Long> ticks = decodeAll(reader, recording);
+            assertEquals(new TreeSet<>(recording.states.keySet()), ticks, "nothing thinned out at this rate");
+        }
+    }
+
+    @Test
+    void thinnedStreamStillDecodesExactly() throws IOException {
+        Recording recording = record("thin.crs", 2, 60);
+        try (SnapshotReader reader = SnapshotReader.open(recording.file)) {
+            TreeSet<Long> ticks = decodeAll(reader, recording);
+            long widest = 0, previous = ticks.first();
+            for (long tick : ticks) {
+                widest = Math.max(widest, tick - previous);
+                previous = tick;
+            }
+            assertTrue(widest > 1, "the stride went up");
+            assertTrue(widest <= 16, "stride " + widest);
+            assertTrue(ticks.size() < recording.states.size(), ticks.size() + " of " + recording.states.size());
+        }
+    }
+
+    @Test
+    void everyKeyframeCanBeSeekedTo() throws IOException {
+        Recording recording = record("seek.crs", 3, 1 << 20);
+        try (SnapshotReader reader = SnapshotReader.open(recording.file)) {
+            assertTrue(reader.getKeyframes().size() >= 3, reader.getKeyframes().size() + " keyframes");
+            // Backwards, so every seek goes somewhere other than where the reader is
+            for (int k = reader.getKeyframes().size() - 1; k >= 0; k--) {
+                SnapshotReader.Keyframe keyframe = reader.getKeyframes().get(k);
+                reader.seek(keyframe);
+                TreeSet<Long> ticks = decodeAll(reader, recording);
+                assertEquals(keyframe.tick, ticks.first());
+                assertEquals(recording.states.keySet().stream().filter(t -> t >= keyframe.tick).count(), ticks.size());
+            }
+        }
+    }
+
+    @Test
+    void streamCutShortDecodesUpToItsLastWholeBlock() throws IOException {
+        Recording recording = record("cut.crs", 4, 1 << 20);
+        byte[] bytes = Files.readAllBytes(recording.file.toPath());
+        int previousCount = 0;
+        for (int length = 5; length < bytes.length; length += 37) {
+            File cut = dir.resolve("cut-" + length + ".crs").toFile();
+            Files.write(cut.toPath(), Arrays.copyOf(bytes, length));
+            if (length < 6) {
+                assertThrows(IOException.class, () -> SnapshotReader.open(cut).close());  // No tick rate yet
+                continue;
+            }
+            try (SnapshotReader reader = SnapshotReader.open(cut)) {
+                int count = decodeAll(reader, recording).size();
+                assertTrue(count >= previousCount, "a longer file never decodes less");
+                previousCount = count;
+            }
+            Files.delete(cut.toPath());
+        }
+        assertTrue(previousCount > 0);
+    }
+}
@@ -0,0 +1,140 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SpriteMaskTest {
+
+    // A sprite and where its mask was cut from, so pixels can be checked one at a time
+    private record Sprite(BufferedImage image, int x0, int y0, int width, int height, SpriteMask mask) {
+        boolean opaque(int x, int y) {
+            return x >= 0 && y >= 0 && x < width && y < height && image.getRGB(x0 + x, y0 + y) >>> 24 >= 128;
+        }
+    }
+
+    // A region of a random image, opaque in about the given share of its pixels, at any alpha
+    private static Sprite sprite(Random rand, int width, int height, double density) {
+        int x0 = rand.nextInt(5), y0 = rand.nextInt(5);
+        BufferedImage image = new BufferedImage(x0 + width + 3, y0 + height + 3, BufferedImage.TYPE_INT_ARGB);
+        for (int y = 0; y < image.getHeight(); y++) {
+            for (int x = 0; x < image.getWidth(); x++) {
+                int alpha = rand.nextDouble() < density ? 128 + rand.nextInt(128) : rand.nextInt(128);
+                image.setRGB(x, y, alpha << 24 | rand.nextInt(1 << 24));
+            }
+        }
+        return new Sprite(image, x0, y0, width, height, SpriteMask.fromAlpha(image, x0, y0, width, height));
+    }
+
+    private static boolean bruteForce(Sprite a, int ax, int ay, Sprite b, int bx, int by) {
+        for (int y = 0; y < a.height; y++) {
+            for (int x = 0; x < a.width; x++) {
+                if (a.opaque(x, y) && b.opaque(ax + x - bx, ay + y - by)) return true;
+            }
+        }
+        return false;
+    }
+
+    // Widths on and either side of the 64-pixel words, and a few in between
+    private static int width(Random rand) {
+        int[] widths = {1, 5, 63, 64, 65, 127, 128, 129, 150};
+        return rand.nextBoolean() ? widths[rand.nextInt(widths.length)] : 1 + rand.nextInt(200);
+    }
+
+    @Test
+    void overlapMatchesCheckingEveryPixel() {
+        Random rand = new Random(1);
+        double[] densities = {0.002, 0.02, 0.3};
+        int overlapping = 0;
+        for (int pair = 0; pair < 300; pair++) {
+            double density = densities[pair % densities.length];
+            Sprite a = sprite(rand, width(rand), 1 + rand.nextInt(40), density);
+            Sprite b = sprite(rand, width(rand), 1 + rand.nextInt(40), density);
+            int ax = rand.nextInt(100) - 50, ay = rand.nextInt(20) - 10;
+            // Every offset that puts the boxes side by side, touching, or anywhere in between
+            for (int bx = ax - b.width - 1; bx <= ax + a.width + 1; bx++) {
+                int by = ay - b.height + 1 + rand.nextInt(a.height + b.height - 1);
+                boolean expected = bruteForce(a, ax, ay, b, bx, by);
+                assertEquals(expected, SpriteMask.overlaps(a.mask, ax, ay, b.mask, bx, by),
+                        a.width + "x" + a.height + " at " + ax + "," + ay + " and " + b.width + "x" + b.height + " at " + bx + "," + by);
+                assertEquals(expected, SpriteMask.overlaps(b.mask, bx, by, a.mask, ax, ay), "swapped");
+                if (expected) overlapping++;
+            }
+        }
+        assertTrue(overlapping > 1000, overlapping + " overlapping pairs");
+    }
+
+    @Test
+    void singlePixelsMeetOnlyWhereTheyCoincide() {
+        // One pixel at the end of a word against one at the start of the next, at every shift
+        for (int width : new int[]{64, 65, 128, 130}) {
+            for (int pa = 0; pa < width; pa += 7) {
+                Random rand = new Random(width * 1000L + pa);
+                Sprite a = sprite(rand, width, 1, 0);
+                a.image.setRGB(a.x0 + pa, a.y0, 0xFF000000);
+                SpriteMask mask = SpriteMask.fromAlpha(a.image, a.x0, a.y0, width, 1);
+                SpriteMask dot = SpriteMask.solid(1, 1);
+                for (int x = -2; x < width + 2; x++) {
+                    assertEquals(x == pa, SpriteMask.overlaps(mask, 0, 0, dot, x, 0), "width " + width + ", pixel " + pa + ", dot " + x);
+                    assertEquals(x == pa, SpriteMask.overlaps(dot, x, 0, mask, 0, 0), "swapped");
+                }
+            }
+        }
+    }
+
+    @Test
+    void solidMaskCoversItsWholeBox() {
+        SpriteMask solid = SpriteMask.solid(70, 3), dot = SpriteMask.solid(1, 1);
+        for (int y = -1; y <= 3; y++) {
+            for (int x = -1; x <= 70; x++) {
+                boolean inside = x >= 0 && x < 70 && y >= 0 && y < 3;
+                assertEquals(inside, SpriteMask.overlaps(solid, 0, 0, dot, x, y), x + "," + y);
+            }
+        }
+    }
+
+    @Test
+    void firstHitTestsMasksOnlyWhereBoxesOverlap() {
+        Random rand = new Random(2);
+        // Masks bigger than the obstacles' boxes, so masks often meet where the boxes don't, which mustn't count
+        SpriteMask[] masks = new SpriteMask[5];
+        Sprite[] sprites = new Sprite[masks.length];
+        for (int m = 0; m < masks.length; m++) {
+            sprites[m] = sprite(rand, 60 + rand.nextInt(20), 40 + rand.nextInt(10), 0.05);
+            masks[m] = sprites[m].mask;
+        }
+        int hits = 0;
+        for (int round = 0; round < 50; round++) {
+            ObstacleStore store = new ObstacleStore(4, 120, 60, 7);
+            for (int i = 0; i < 30; i++) {
+                store.add(rand.nextInt(800) - 40, 100 + rand.nextInt(460), 20 + rand.nextInt(40), 20 + rand.nextInt(20),
+                        rand.nextInt(16));
+            }
+            for (int q = 0; q < 500; q++) {
+                Sprite shape = sprite(rand, 5 + rand.nextInt(60), 5 + rand.nextInt(60), 0.1);
+                int x = rand.nextInt(860) - 60, y = 60 + rand.nextInt(540);
+                int hit = store.firstHit(x, y, shape.mask, masks);
+                int expected = -1;
+                for (int i = 0; i < store.size() && expected < 0; i++) {
+                    if (LaneIndex.intersects(x, y, shape.width, shape.height, store.getX(i), store.getY(i),
+                            store.getWidth(i), store.getHeight(i))
+                            && bruteForce(shape, x, y, sprites[store.getSprite(i) % masks.length], store.getX(i), store.getY(i))) {
+                        expected = i;
+                    }
+                }
+                assertEquals(expected >= 0, hit >= 0, "query " + q + " of round " + round);
+                if (hit >= 0) {
+                    hits++;
+                    assertTrue(LaneIndex.intersects(x, y, shape.width, shape.height, store.getX(hit), store.getY(hit),
+                            store.getWidth(hit), store.getHeight(hit)), "hit without the boxes overlapping");
+                    assertTrue(SpriteMask.overlaps(shape.mask, x, y, masks[store.getSprite(hit) % masks.length],
+                            store.getX(hit), store.getY(hit)), "hit without a pixel in common");
+                }
+            }
+        }
+        assertTrue(hits > 100, hits + " hits");
+    }
+}
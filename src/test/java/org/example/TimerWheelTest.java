@@ -0,0 +1,185 @@
+package org.example;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimerWheelTest {
+
+    private static final long L1 = 64, L2 = 64 * 64, L3 = 64 * 64 * 64;
+
+    // Deadlines near every level boundary, where a cascade off by one would show
+    private static final long[] EDGES = {1, 2, L1 - 1, L1, L1 + 1, L2 - 1, L2, L2 + 1, L3 - 1, L3, L3 + 1};
+
+    /**
+     * Runs a wheel and a priority queue side by side: every timer the wheel fires must be the
+     * next one the queue says is due, and every cancel must agree on whether the timer was pending.
+     */
+    private static final class Model {
+        private record Timer(int id, long deadline, long order) {}
+
+        final TimerWheel wheel = new TimerWheel();
+        final PriorityQueue<Timer> queue = new PriorityQueue<>(
+                Comparator.comparingLong(Timer::deadline).thenComparingLong(Timer::order));
+        final Map<Integer, Timer> pending = new HashMap<>();
+        final List<Integer> handles = new ArrayList<>();  // By id, kept after the timer is gone
+        final Random rand;
+        final boolean meddle;  // Whether firing timers schedule and cancel others
+        long order;
+        int fired;
+
+        Model(long seed, boolean meddle) {
+            rand = new Random(seed);
+            this.meddle = meddle;
+        }
+
+        int schedule(long delay) {
+            int id = handles.size();
+            Timer timer = new Timer(id, wheel.now() + delay, order++);
+            handles.add(wheel.schedule(delay, () -> onFire(id)));
+            queue.add(timer);
+            pending.put(id, timer);
+            assertEquals(delay, wheel.remaining(handles.get(id)));
+            return id;
+        }
+
+        void cancel(int id) {
+            boolean expected = pending.remove(id) != null;
+            assertEquals(expected, wheel.isPending(handles.get(id)), "timer " + id + " pending");
+            assertEquals(expected, wheel.cancel(handles.get(id)), "cancelling timer " + id);
+            assertFalse(wheel.cancel(handles.get(id)), "cancelling timer " + id + " twice");
+        }
+
+        private void onFire(int id) {
+            Timer expected;
+            do {
+                expected = queue.poll();
+                assertNotNull(expected, "timer " + id + " fired with nothing due");
+            } while (!pending.containsKey(expected.id));  // Cancelled ones are only dropped here
+            assertEquals(expected.id, id, "firing order at tick " + wheel.now());
+            assertEquals(wheel.now(), expected.deadline, "timer " + id + " fired on the wrong tick");
+            pending.remove(id);
+            assertFalse(wheel.isPending(handles.get(id)));
+            assertFalse(wheel.cancel(handles.get(id)), "cancelling timer " + id + " after it fired");
+            fired++;
+
+            // Timers that reschedule, or cancel one that may be due this very tick
+            int roll = meddle ? rand.nextInt(10) : -1;
+            if (roll == 0) {
+                schedule(delay());
+            } else if (roll == 1 && !handles.isEmpty()) {
+                cancel(rand.nextInt(handles.size()));
+            }
+        }
+
+        long delay() {
+            long delay = rand.nextBoolean() ? EDGES[rand.nextInt(EDGES.length)] : 1 + rand.nextInt((int) (2 * L3));
+            // Measured from the current tick, so aim at boundaries of absolute ticks too
+            if (rand.nextInt(4) == 0) {
+                long[] sizes = {L1, L2, L3};
+                long size = sizes[rand.nextInt(sizes.length)];
+                delay = Math.max(1, size - wheel.now() % size + rand.nextInt(3) - 1);
+            }
+            return delay;
+        }
+
+        void advance() {
+            wheel.advance();
+            Timer next;
+            while ((next = queue.peek()) != null && !pending.containsKey(next.id)) {
+                queue.poll();
+            }
+            assertTrue(next == null || next.deadline > wheel.now(), "timer " + (next == null ? -1 : next.id)
+                    + " due at " + (next == null ? -1 : next.deadline) + " didn't fire by " + wheel.now());
+        }
+    }
+
+    @Test
+    void firesLikeAPriorityQueueAcrossEveryLevel() {
+        for (long seed = 1; seed <= 3; seed++) {
+            Model model = new Model(seed, true);
+            Random rand = new Random(seed * 31);
+            long ticks = 2 * L3 + L2 + 17;
+            for (long t = 0; t < ticks; t++) {
+                int roll = rand.nextInt(24);
+                if (roll < 2) {
+                    model.schedule(model.delay());
+                } else if (roll == 2 && !model.handles.isEmpty()) {
+                    model.cancel(rand.nextInt(model.handles.size()));
+                } else if (roll == 3) {
+                    // Several on one tick, to check they keep the order they were scheduled in
+                    long delay = model.delay();
+                    for (int i = 0; i < 3; i++) {
+                        model.schedule(delay);
+                    }
+                }
+                model.advance();
+            }
+            // Let everything left run out
+            while (!model.pending.isEmpty()) {
+                model.advance();
+            }
+            assertTrue(model.fired > 10_000, model.fired + " timers fired");
+        }
+    }
+
+    @Test
+    void timersScheduledJustBeforeALevelTurnsOverFireOnTime() {
+        for (long start : new long[]{L1 - 1, L2 - 1, L3 - 1, L2 + L1 - 1, L3 + L2 - 1}) {
+            for (long delay : EDGES) {
+                Model model = new Model(start ^ delay, false);
+                while (model.wheel.now() < start) {
+                    model.advance();
+                }
+                model.schedule(delay);
+                model.schedule(delay + 1);
+                for (long t = 0; t <= delay + 1; t++) {
+                    model.advance();
+                }
+                assertEquals(2, model.fired, "start " + start + ", delay " + delay);
+            }
+        }
+    }
+
+    @Test
+    void staleHandleDoesNotCancelTheTimerThatReusedItsSlot() {
+        TimerWheel wheel = new TimerWheel();
+        int[] runs = new int[2];
+        int first = wheel.schedule(1, () -> runs[0]++);
+        wheel.advance();
+        int second = wheel.schedule(L2, () -> runs[1]++);
+        assertNotEquals(first, second);
+        assertFalse(wheel.cancel(first));
+        assertTrue(wheel.isPending(second));
+        for (long t = 0; t < L2; t++) {
+            wheel.advance();
+        }
+        assertArrayEquals(new int[]{1, 1}, runs);
+        assertFalse(wheel.cancel(second));
+    }
+
+    @Test
+    void timerCancelledByAnotherDueOnTheSameTickIsSkipped() {
+        TimerWheel wheel = new TimerWheel();
+        List<String> log = new ArrayList<>();
+        int[] victim = new int[1];
+        wheel.schedule(L1, () -> {
+            log.add("first");
+            assertTrue(wheel.cancel(victim[0]));
+        });
+        victim[0] = wheel.schedule(L1, () -> log.add("second"));
+        wheel.schedule(L1, () -> log.add("third"));
+        for (long t = 0; t < L1; t++) {
+            wheel.advance();
+        }
+        assertEquals(List.of("first", "third"), log);
+    }
+}